@@ -0,0 +1,137 @@
+package BENCHMARKS;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import BIT_MANAGEMENT.BitBoard;
+import BIT_MANAGEMENT.Symmetry;
+import INFORMATION_ENCAPSULATION.Coordinates;
+import MVP.Enums.GameMode;
+import MVP.Enums.Player;
+import MVP.Model;
+import TOOLS.PositionSuite;
+
+import static MVP.Enums.Player.*;
+
+
+/**
+ * <h1>Class type: 'BoardBenchmarks'</h1>
+ *
+ * JMH benchmarks of the board's hot paths, over the 'PositionSuite' positions (the next position
+ * at every invocation): move generation, playing a move, slot conversions and symmetries.
+ *
+ * @author David Salasin
+ * @see RegressionGate
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+public class BoardBenchmarks
+{
+    // A model per suite position, each with the position's player to move.
+    private Model[] models;
+    private Player[] toMove;
+
+
+    // Board slots' coordinates, and a pair of pieces being canonicalized:
+    private final Coordinates[] slots = new Coordinates[64];
+    private final long[] pieces = new long[2];
+
+
+    /**
+     * The invocation's position (and slot).
+     */
+    private int next;
+
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        int positions = PositionSuite.size();
+        models = new Model[positions];
+        toMove = new Player[positions];
+
+        for (int i = 0; i < positions; i++)
+        {
+            models[i] = new Model();
+            models[i].init(GameMode.PVP);
+            toMove[i] = PositionSuite.load(models[i], i);
+        }
+
+        for (int slot = 0; slot < 64; slot++) slots[slot] = new Coordinates(slot / 8 + 1, slot % 8 + 1);
+    }
+
+
+    @Benchmark
+    public long availableMoves()
+    {
+        int i = next++ % models.length;
+        return models[i].availableMoves(toMove[i]);
+    }
+
+
+    @Benchmark
+    public long playMove()
+    {
+        int i = next++ % models.length;
+        BitBoard board = models[i].getBoard();
+        long blackBits = board.getColorBits(BLACK);
+        long whiteBits = board.getColorBits(WHITE);
+
+        models[i].playMove(toMove[i], Long.lowestOneBit(models[i].availableMoves(toMove[i])));
+        long played = board.getColorBits(BLACK);
+
+        board.setColorBits(BLACK, blackBits);
+        board.setColorBits(WHITE, whiteBits);
+        return played;
+    }
+
+
+    @Benchmark
+    public long bitPosition()
+    {
+        return BitBoard.bitPosition(slots[next++ & 63]);
+    }
+
+
+    @Benchmark
+    public int boardPosition()
+    {
+        return BitBoard.boardPosition(1L << (next++ & 63)).x_position;
+    }
+
+
+    @Benchmark
+    public long canonicalize()
+    {
+        BitBoard board = models[next++ % models.length].getBoard();
+        pieces[0] = board.getColorBits(BLACK);
+        pieces[1] = board.getColorBits(WHITE);
+
+        return Symmetry.canonicalize(pieces) + pieces[0];
+    }
+
+
+    @Benchmark
+    public int canonicalSymmetry()
+    {
+        int i = next++ % models.length;
+        BitBoard board = models[i].getBoard();
+
+        return Symmetry.canonicalSymmetry(board.getColorBits(BLACK), board.getColorBits(WHITE), toMove[i]);
+    }
+}
@@ -0,0 +1,91 @@
+package BENCHMARKS;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import MVP.Enums.GameMode;
+import MVP.Enums.Player;
+import MVP.Evaluate;
+import MVP.Interfaces.IEvaluate;
+import MVP.Model;
+import TOOLS.PositionSuite;
+
+
+/**
+ * <h1>Class type: 'HeuristicBenchmarks'</h1>
+ *
+ * JMH benchmark of every <u>Evaluate.heuristicDic</u> heuristic (by game mode), over the 'PositionSuite'
+ * positions (the next position at every invocation), each evaluated from scratch.
+ *
+ * @author David Salasin
+ * @see RegressionGate
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+public class HeuristicBenchmarks
+{
+    /**
+     * Game mode of the evaluated heuristic.
+     */
+    @Param({"BEGINNER", "INTERMEDIATE", "HARDCORE"})
+    public GameMode gameMode;
+
+
+    // A model per suite position, each with the position's player to move.
+    private Model[] models;
+    private Player[] toMove;
+
+
+    /**
+     * The game mode's heuristic.
+     */
+    private IEvaluate heuristic;
+
+
+    /**
+     * The invocation's position.
+     */
+    private int next;
+
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        heuristic = Evaluate.heuristicDic.get(gameMode);
+
+        int positions = PositionSuite.size();
+        models = new Model[positions];
+        toMove = new Player[positions];
+
+        for (int i = 0; i < positions; i++)
+        {
+            models[i] = new Model();
+            models[i].init(GameMode.PVP);
+            toMove[i] = PositionSuite.load(models[i], i);
+        }
+    }
+
+
+    @Benchmark
+    public int heuristic()
+    {
+        int i = next++ % models.length;
+        return heuristic.evaluate(models[i], Player.currentOpponent(toMove[i]));
+    }
+}
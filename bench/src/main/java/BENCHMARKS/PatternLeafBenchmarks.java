@@ -0,0 +1,107 @@
+package BENCHMARKS;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import BIT_MANAGEMENT.BitBoard;
+import MVP.Enums.GameMode;
+import MVP.Enums.Player;
+import MVP.Evaluate;
+import MVP.Model;
+import MVP.PatternEvaluate;
+import TOOLS.PositionSuite;
+
+import static MVP.Enums.Player.*;
+
+
+/**
+ * <h1>Class type: 'PatternLeafBenchmarks'</h1>
+ *
+ * JMH benchmark of a pattern heuristic game-tree leaf, over the 'PositionSuite' positions: <u>Model.makeMove</u>,
+ * the pattern heuristic's evaluation and <u>Model.unmakeMove</u> - evaluated incrementally
+ * (see 'PatternAccumulator') or from scratch.
+ *
+ * @author David Salasin
+ * @see RegressionGate
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+public class PatternLeafBenchmarks
+{
+    /**
+     * Flag for evaluating the leaves incrementally.
+     */
+    @Param({"true", "false"})
+    public boolean incremental;
+
+
+    // A model per suite position (set up for the leaves' evaluation mode), each with the position's player to move.
+    private Model[] models;
+    private Player[] toMove;
+
+
+    /**
+     * The pattern heuristic.
+     */
+    private PatternEvaluate patterns;
+
+
+    /**
+     * The invocation's position.
+     */
+    private int next;
+
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        patterns = Evaluate.patternHeuristic;
+        if (patterns == null) throw new IllegalStateException("No pattern weights loaded");
+
+        int positions = PositionSuite.size();
+        models = new Model[positions];
+        toMove = new Player[positions];
+
+        for (int i = 0; i < positions; i++)
+        {
+            models[i] = new Model();
+            models[i].init(GameMode.PVP);
+            models[i].setIncrementalEvaluation(incremental);
+            models[i].setHeuristic(patterns);
+            toMove[i] = PositionSuite.load(models[i], i);
+
+            BitBoard board = models[i].getBoard();
+            if (incremental) models[i].getPatternAccumulator().reset(board.getColorBits(BLACK), board.getColorBits(WHITE));
+        }
+    }
+
+
+    @Benchmark
+    public int patternLeaf()
+    {
+        int i = next++ % models.length;
+        Model model = models[i];
+
+        model.makeMove(toMove[i], Long.lowestOneBit(model.availableMoves(toMove[i])));
+        int score = patterns.evaluate(model, toMove[i]);
+        model.unmakeMove(toMove[i]);
+
+        return score;
+    }
+}
@@ -0,0 +1,137 @@
+package BENCHMARKS;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * <h1>Class type: 'RegressionGate'</h1>
+ *
+ * Runs the JMH benchmarks of this module (with the gc profiler) and gates them against a baseline:
+ * results are saved to a baseline file, and later runs compared to it. A benchmark whose throughput
+ * dropped from the baseline by more than <u>REGRESSION_THRESHOLD</u>, and by more than both runs'
+ * errors, is reported as a regression, and the run exits with status 1.
+ *
+ * Usage: <i>java -cp bench/target/benchmarks.jar BENCHMARKS.RegressionGate [benchmark regex] [baseline file]</i>
+ * (every benchmark by default; the baseline is written if the file doesn't exist yet, else compared to).
+ *
+ * @author David Salasin
+ */
+public class RegressionGate
+{
+    /**
+     * Throughput drop (from the baseline) reported as a regression.
+     */
+    private static final double REGRESSION_THRESHOLD = 0.10;
+
+
+    // Runs as main program.
+    public static void main(String[] args) throws RunnerException, IOException
+    {
+        Options options = new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : RegressionGate.class.getPackageName() + "\\.")
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+
+        Map<String, double[]> scores = new HashMap<>();
+        for (RunResult result : results)
+        {
+            double error = result.getPrimaryResult().getScoreError();
+            scores.put(name(result), new double[] {result.getPrimaryResult().getScore(), Double.isNaN(error) ? 0 : error});
+        }
+
+        if (args.length < 2) return;
+        Path baseline = Path.of(args[1]);
+
+        if (Files.exists(baseline))
+        {
+            if (compare(scores, baseline)) System.exit(1);
+        }
+        else
+        {
+            save(scores, baseline);
+            System.out.println("Baseline written to " + baseline);
+        }
+    }
+
+
+    /**
+     * @return Name of a benchmark's result: its method, and its parameters' values.
+     */
+    private static String name(RunResult result)
+    {
+        StringBuilder name = new StringBuilder(result.getParams().getBenchmark());
+
+        for (String key : result.getParams().getParamsKeys())
+        {
+            name.append(':').append(key).append('=').append(result.getParams().getParam(key));
+        }
+
+        return name.toString();
+    }
+
+
+    /**
+     * Compares scores to a baseline file's.
+     *
+     * @return boolean for if any benchmark regressed.
+     */
+    private static boolean compare(Map<String, double[]> scores, Path baseline) throws IOException
+    {
+        Map<String, double[]> baselineScores = new HashMap<>();
+        for (String line : Files.readAllLines(baseline))
+        {
+            String[] fields = line.split(",");
+            baselineScores.put(fields[0], new double[] {Double.parseDouble(fields[1]), Double.parseDouble(fields[2])});
+        }
+
+        boolean regressed = false;
+        System.out.println();
+
+        for (Map.Entry<String, double[]> score : scores.entrySet())
+        {
+            double[] baselineScore = baselineScores.get(score.getKey());
+            if (baselineScore == null) continue;
+
+            double change = score.getValue()[0] / baselineScore[0] - 1;
+            boolean regression = change < -REGRESSION_THRESHOLD
+                    && baselineScore[0] - score.getValue()[0] > baselineScore[1] + score.getValue()[1];
+            regressed |= regression;
+
+            System.out.printf("%-70s %+7.1f%% vs baseline%s%n", score.getKey(), change * 100, regression ? "  REGRESSION" : "");
+        }
+
+        return regressed;
+    }
+
+
+    /**
+     * Writes scores to a baseline file (a "name,ops/s,error" line per benchmark).
+     */
+    private static void save(Map<String, double[]> scores, Path baseline) throws IOException
+    {
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<String, double[]> score : scores.entrySet())
+        {
+            lines.add(String.format(Locale.ROOT, "%s,%f,%f", score.getKey(), score.getValue()[0], score.getValue()[1]));
+        }
+
+        Files.write(baseline, lines);
+    }
+}
@@ -0,0 +1,75 @@
+package BENCHMARKS;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import MVP.Enums.GameMode;
+import MVP.Enums.Player;
+import MVP.Model;
+import TOOLS.PositionSuite;
+
+
+/**
+ * <h1>Class type: 'SearchBenchmarks'</h1>
+ *
+ * JMH benchmark of full <u>Model.mostEvaluatedPlay</u> searches at every AI game mode's depth, over
+ * the 'PositionSuite' positions (no opening book). Every search starts with an empty transposition table,
+ * cleared by the invocation's set up - which isn't timed, as the table's clearing outweighs the shallow searches.
+ *
+ * @author David Salasin
+ * @see RegressionGate
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class SearchBenchmarks
+{
+    /**
+     * Game mode of the searches.
+     */
+    @Param({"BEGINNER", "INTERMEDIATE", "HARDCORE"})
+    public GameMode gameMode;
+
+
+    /**
+     * The searching model.
+     */
+    private final Model searcher = new Model();
+
+
+    // The searched position's player to move, and the next position:
+    private Player toMove;
+    private int next;
+
+
+    @Setup(Level.Invocation)
+    public void setUp()
+    {
+        searcher.init(gameMode);
+        searcher.setOpeningBook(null);
+        searcher.setTimeBudget(0);
+        toMove = PositionSuite.load(searcher, next++ % PositionSuite.size());
+    }
+
+
+    @Benchmark
+    public int mostEvaluatedPlay()
+    {
+        return searcher.mostEvaluatedPlay(toMove).score;
+    }
+}
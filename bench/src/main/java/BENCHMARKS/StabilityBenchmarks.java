@@ -0,0 +1,134 @@
+package BENCHMARKS;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import BIT_MANAGEMENT.MoveGenerator;
+import BIT_MANAGEMENT.Stability;
+import MVP.Enums.GameMode;
+import MVP.Model;
+
+import static MVP.Enums.Player.*;
+
+
+/**
+ * <h1>Class type: 'StabilityBenchmarks'</h1>
+ *
+ * JMH benchmarks of the stable discs calculation ('Stability'), over the positions of random games
+ * (the same positions on every run, the next position at every invocation): the calculation itself,
+ * and a 'Model' call for both players, calculated for the first and answered from its per-position cache
+ * for the second.
+ *
+ * @author David Salasin
+ * @see RegressionGate
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+public class StabilityBenchmarks
+{
+    /**
+     * Amount of random games (and the seed of their moves).
+     */
+    private static final int GAMES = 1000;
+
+
+    // The positions' pieces: of the player who has just moved, and of the opponent.
+    private long[] players;
+    private long[] opponents;
+
+
+    /**
+     * Model answering <u>stableDiscs</u> from its cache.
+     */
+    private final Model model = new Model();
+
+
+    /**
+     * The invocation's position.
+     */
+    private int next;
+
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        Random random = new Random(GAMES);
+        players = new long[GAMES * 60];
+        opponents = new long[GAMES * 60];
+        int count = 0;
+
+        for (int game = 0; game < GAMES; game++)
+        {
+            long player = 0x0000000810000000L;
+            long opponent = 0x0000001008000000L;
+
+            while (true)
+            {
+                long moves = MoveGenerator.availableMoves(player, opponent);
+
+                if (moves == 0L)
+                {
+                    if (MoveGenerator.availableMoves(opponent, player) == 0L) break;
+
+                    long swap = player;
+                    player = opponent;
+                    opponent = swap;
+                    continue;
+                }
+
+                for (int skip = random.nextInt(Long.bitCount(moves)); skip > 0; skip--) moves &= moves - 1;
+                long position = Long.lowestOneBit(moves);
+                long flips = MoveGenerator.computeFlips(player, opponent, position);
+
+                long moved = player ^ (flips | position);
+                player = opponent ^ flips;
+                opponent = moved;
+
+                players[count] = moved;
+                opponents[count] = player;
+                count++;
+            }
+        }
+
+        players = Arrays.copyOf(players, count);
+        opponents = Arrays.copyOf(opponents, count);
+
+        model.init(GameMode.PVP);
+    }
+
+
+    @Benchmark
+    public long stableDiscs()
+    {
+        int i = next++ % players.length;
+        return Stability.stableDiscs(players[i], opponents[i]);
+    }
+
+
+    @Benchmark
+    public long modelStableDiscs()
+    {
+        int i = next++ % players.length;
+        model.getBoard().setColorBits(BLACK, players[i]);
+        model.getBoard().setColorBits(WHITE, opponents[i]);
+
+        return model.stableDiscs(BLACK) + model.stableDiscs(WHITE);
+    }
+}
@@ -1,7 +1,5 @@
 package BIT_MANAGEMENT;
 
-import java.util.HashMap;
-
 import INFORMATION_ENCAPSULATION.Coordinates;
 import MVP.Enums.Player;
 
@@ -18,39 +16,43 @@ import static MVP.Enums.Player.*;
 public class BitBoard
 {
     /**
-     * Uses 'Player' enum as <b>KEY</b> to access player's board pieces long <b>VALUE</b>.
+     * BLACK player's board pieces.
      *
-     * @see Player
+     * <b>NOTE:</b> kept as a primitive field (and not as a <u>HashMap</u> entry) so that
+     * reading and writing the board inside the game-tree never boxes a Long.
      */
-    private final HashMap<Player, Long> pieces;
+    private long blackBits;
+
+
+    /**
+     * WHITE player's board pieces.
+     */
+    private long whiteBits;
 
     static final long EMPTY_BOARD = 0L;
 
     /**
      * Constructor for 'BitBoard'.
-     * Initiates <u>HashMap</u> board structure.
+     * Initiates an empty board structure.
      */
     public BitBoard()
     {
-        pieces = new HashMap<>();
-        pieces.put(BLACK, EMPTY_BOARD);
-        pieces.put(WHITE, EMPTY_BOARD);
-
+        blackBits = EMPTY_BOARD;
+        whiteBits = EMPTY_BOARD;
     }
 
 
     /**
      * Constructor for 'BitBoard'.
-     * Initiates <u>HashMap</u> board structure with set board pieces for both players.
+     * Initiates board structure with set board pieces for both players.
      *
      * @param blackBits starting BLACK pieces.
      * @param whiteBits starting WHITE pieces.
      */
     public BitBoard(long blackBits, long whiteBits)
     {
-        pieces = new HashMap<>();
-        pieces.put(BLACK, blackBits);
-        pieces.put(WHITE, whiteBits);
+        this.blackBits = blackBits;
+        this.whiteBits = whiteBits;
     }
 
 
@@ -63,7 +65,7 @@ public class BitBoard
      */
     public long getColorBits(Player p)
     {
-        return pieces.get(p);
+        return p == BLACK ? blackBits : whiteBits;
     }
 
 
@@ -76,7 +78,8 @@ public class BitBoard
      */
     public void setColorBits(Player p, long bits)
     {
-        pieces.put(p, bits);
+        if (p == BLACK) blackBits = bits;
+        else whiteBits = bits;
     }
 
 
@@ -87,7 +90,7 @@ public class BitBoard
      */
     public long emptySlots()
     {
-        return ~pieces.get(BLACK) & ~pieces.get(WHITE);
+        return ~(blackBits | whiteBits);
     }
 
 
@@ -136,7 +139,7 @@ public class BitBoard
      */
     public static void copyBoard(BitBoard from, BitBoard dest)
     {
-        dest.setColorBits(BLACK, from.getColorBits(BLACK));
-        dest.setColorBits(WHITE, from.getColorBits(WHITE));
+        dest.blackBits = from.blackBits;
+        dest.whiteBits = from.whiteBits;
     }
 }
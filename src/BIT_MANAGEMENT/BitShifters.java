@@ -28,16 +28,27 @@ public class BitShifters
     public static HashMap<Direction, IBitShift> shiftDict = new HashMap<>();
 
 
+    /**
+     * The same 'IBitShift' lambda expressions as <b>shiftDict</b>, ordered by 'Direction' ordinal.
+     *
+     * Used by the game-tree hot loops, which iterate it without allocating a <u>HashMap</u>
+     * key iterator or doing a lookup for every direction.
+     *
+     * <b>NOTE:</b> static property.
+     */
+    public static final IBitShift[] shifters = new IBitShift[Direction.values().length];
+
+
     /**
      * Board left edge mask, existing for guaranteeing a successful piece shift.
      */
-    private final static long LEFT_EDGE_MASK = -9187201950435737472L;
+    final static long LEFT_EDGE_MASK = -9187201950435737472L;
 
 
     /**
      * Board right edge mask, existing for guaranteeing a successful piece shift.
      */
-    private final static long RIGHT_EDGE_MASK = 72340172838076673L;
+    final static long RIGHT_EDGE_MASK = 72340172838076673L;
 
     // 'IBitShift' static lambda implementations for each board direction:
     static {
@@ -65,5 +76,9 @@ public class BitShifters
 
         // west direction:
         shiftDict.put(WEST, position -> (position << 1) & ~RIGHT_EDGE_MASK);
+
+        for (Direction d : Direction.values()) {
+            shifters[d.ordinal()] = shiftDict.get(d);
+        }
     }
 }
@@ -0,0 +1,237 @@
+package BIT_MANAGEMENT;
+
+import BIT_MANAGEMENT.Interfaces.IBitShift;
+
+
+/**
+ * <h1>Class type: 'MoveGenerator'</h1>
+ *
+ * Calculates the available moves of a board's pieces, and the pieces a move flips.
+ *
+ * All of the 8 directions are calculated with a fixed amount of parallel-prefix
+ * (<i>Kogge-Stone</i>) shifts over plain long values: there are no lambdas, <u>HashMap</u>
+ * lookups or loops depending on the board's pieces.
+ *
+ * <b>NOTE:</b> static methods only.
+ *
+ * @author David Salasin
+ */
+public class MoveGenerator
+{
+    /**
+     * Constant long value for an empty board.
+     */
+    private static final long EMPTY_BOARD = 0L;
+
+
+    /**
+     * Every board slot except the left edge.
+     * Masks pieces shifted eastwards, which would otherwise wrap around to the left edge.
+     */
+    private static final long NOT_LEFT_EDGE = ~BitShifters.LEFT_EDGE_MASK;
+
+
+    /**
+     * Every board slot except the right edge.
+     * Masks pieces shifted westwards, which would otherwise wrap around to the right edge.
+     */
+    private static final long NOT_RIGHT_EDGE = ~BitShifters.RIGHT_EDGE_MASK;
+
+
+    /**
+     * Every board slot (vertical shifts can't wrap around).
+     */
+    private static final long FULL_BOARD = -1L;
+
+
+    /**
+     * Calculates all of the available moves for the player.
+     *
+     * @param playerPieces long board pieces of the player the moves are searched for.
+     * @param opponentPieces long board pieces of the opponent.
+     * @return long value of all of the available board slots move for the player.
+     */
+    public static long availableMoves(long playerPieces, long opponentPieces)
+    {
+        long emptySlots = ~(playerPieces | opponentPieces);
+
+        return leftShiftMoves(playerPieces, opponentPieces, emptySlots, 9, NOT_RIGHT_EDGE)      // North west.
+             | leftShiftMoves(playerPieces, opponentPieces, emptySlots, 8, FULL_BOARD)          // North.
+             | leftShiftMoves(playerPieces, opponentPieces, emptySlots, 7, NOT_LEFT_EDGE)       // North east.
+             | rightShiftMoves(playerPieces, opponentPieces, emptySlots, 1, NOT_LEFT_EDGE)      // East.
+             | rightShiftMoves(playerPieces, opponentPieces, emptySlots, 9, NOT_LEFT_EDGE)      // South east.
+             | rightShiftMoves(playerPieces, opponentPieces, emptySlots, 8, FULL_BOARD)         // South.
+             | rightShiftMoves(playerPieces, opponentPieces, emptySlots, 7, NOT_RIGHT_EDGE)     // South west.
+             | leftShiftMoves(playerPieces, opponentPieces, emptySlots, 1, NOT_RIGHT_EDGE);     // West.
+    }
+
+
+    /**
+     * Calculates the available moves in a single direction, towards the more significant bits.
+     *
+     * The opponent pieces run starting next to the player's pieces is grown by 1, 2 and 4
+     * slots (Kogge-Stone occluded fill), which covers the 6 pieces long run there can be at most.
+     *
+     * @param playerPieces long board pieces of the player.
+     * @param opponentPieces long board pieces of the opponent.
+     * @param emptySlots long board empty slots.
+     * @param shift amount of bits a single step in the direction shifts.
+     * @param mask slots a shifted piece can land on without wrapping around the board.
+     * @return long value of the available moves in the direction.
+     */
+    private static long leftShiftMoves(long playerPieces, long opponentPieces, long emptySlots, int shift, long mask)
+    {
+        long propagator = opponentPieces & mask;
+        long flood = (playerPieces << shift) & propagator;
+
+        flood |= propagator & (flood << shift);
+        propagator &= propagator << shift;
+        flood |= propagator & (flood << (shift << 1));
+        propagator &= propagator << (shift << 1);
+        flood |= propagator & (flood << (shift << 2));
+
+        return (flood << shift) & emptySlots & mask;
+    }
+
+
+    /**
+     * Calculates the available moves in a single direction, towards the less significant bits.
+     *
+     * @param playerPieces long board pieces of the player.
+     * @param opponentPieces long board pieces of the opponent.
+     * @param emptySlots long board empty slots.
+     * @param shift amount of bits a single step in the direction shifts.
+     * @param mask slots a shifted piece can land on without wrapping around the board.
+     * @return long value of the available moves in the direction.
+     * @see #leftShiftMoves(long, long, long, int, long)
+     */
+    private static long rightShiftMoves(long playerPieces, long opponentPieces, long emptySlots, int shift, long mask)
+    {
+        long propagator = opponentPieces & mask;
+        long flood = (playerPieces >>> shift) & propagator;
+
+        flood |= propagator & (flood >>> shift);
+        propagator &= propagator >>> shift;
+        flood |= propagator & (flood >>> (shift << 1));
+        propagator &= propagator >>> (shift << 1);
+        flood |= propagator & (flood >>> (shift << 2));
+
+        return (flood >>> shift) & emptySlots & mask;
+    }
+
+
+    /**
+     * Calculates the opponent pieces a move flips.
+     *
+     * Every direction is filled from the played slot with the same fixed amount of shifts
+     * as <u>availableMoves</u>, and its run of opponent pieces is kept only if a player's piece
+     * closes it - without branching on the result.
+     *
+     * <b>NOTE:</b> doesn't check the move's legality (an illegal move flips nothing).
+     *
+     * @param playerPieces long board pieces of the playing player.
+     * @param opponentPieces long board pieces of the opponent.
+     * @param position long value of the played slot (single bit).
+     * @return long value of the flipped opponent pieces.
+     */
+    public static long computeFlips(long playerPieces, long opponentPieces, long position)
+    {
+        return leftShiftFlips(playerPieces, opponentPieces, position, 9, NOT_RIGHT_EDGE)      // North west.
+             | leftShiftFlips(playerPieces, opponentPieces, position, 8, FULL_BOARD)          // North.
+             | leftShiftFlips(playerPieces, opponentPieces, position, 7, NOT_LEFT_EDGE)       // North east.
+             | rightShiftFlips(playerPieces, opponentPieces, position, 1, NOT_LEFT_EDGE)      // East.
+             | rightShiftFlips(playerPieces, opponentPieces, position, 9, NOT_LEFT_EDGE)      // South east.
+             | rightShiftFlips(playerPieces, opponentPieces, position, 8, FULL_BOARD)         // South.
+             | rightShiftFlips(playerPieces, opponentPieces, position, 7, NOT_RIGHT_EDGE)     // South west.
+             | leftShiftFlips(playerPieces, opponentPieces, position, 1, NOT_RIGHT_EDGE);     // West.
+    }
+
+
+    /**
+     * Calculates the flipped pieces in a single direction, towards the more significant bits.
+     *
+     * @param playerPieces long board pieces of the player.
+     * @param opponentPieces long board pieces of the opponent.
+     * @param position long value of the played slot.
+     * @param shift amount of bits a single step in the direction shifts.
+     * @param mask slots a shifted piece can land on without wrapping around the board.
+     * @return long value of the flipped pieces in the direction.
+     */
+    private static long leftShiftFlips(long playerPieces, long opponentPieces, long position, int shift, long mask)
+    {
+        long propagator = opponentPieces & mask;
+        long flood = (position << shift) & propagator;
+
+        flood |= propagator & (flood << shift);
+        propagator &= propagator << shift;
+        flood |= propagator & (flood << (shift << 1));
+        propagator &= propagator << (shift << 1);
+        flood |= propagator & (flood << (shift << 2));
+
+        // All ones if the run is closed by a player's piece, zero otherwise.
+        long closing = (flood << shift) & mask & playerPieces;
+        return flood & ((closing | -closing) >> 63);
+    }
+
+
+    /**
+     * Calculates the flipped pieces in a single direction, towards the less significant bits.
+     *
+     * @param playerPieces long board pieces of the player.
+     * @param opponentPieces long board pieces of the opponent.
+     * @param position long value of the played slot.
+     * @param shift amount of bits a single step in the direction shifts.
+     * @param mask slots a shifted piece can land on without wrapping around the board.
+     * @return long value of the flipped pieces in the direction.
+     */
+    private static long rightShiftFlips(long playerPieces, long opponentPieces, long position, int shift, long mask)
+    {
+        long propagator = opponentPieces & mask;
+        long flood = (position >>> shift) & propagator;
+
+        flood |= propagator & (flood >>> shift);
+        propagator &= propagator >>> shift;
+        flood |= propagator & (flood >>> (shift << 1));
+        propagator &= propagator >>> (shift << 1);
+        flood |= propagator & (flood >>> (shift << 2));
+
+        // All ones if the run is closed by a player's piece, zero otherwise.
+        long closing = (flood >>> shift) & mask & playerPieces;
+        return flood & ((closing | -closing) >> 63);
+    }
+
+
+    /**
+     * Reference implementation of <u>availableMoves</u>, walking every 'BitShifters' direction
+     * until its run of opponent pieces ends.
+     *
+     * Slower than <u>availableMoves</u>, kept for checking it against (see 'TOOLS.MoveGeneratorCheck').
+     *
+     * @param playerPieces long board pieces of the player the moves are searched for.
+     * @param opponentPieces long board pieces of the opponent.
+     * @return long value of all of the available board slots move for the player.
+     * @see BitShifters
+     */
+    public static long availableMovesReference(long playerPieces, long opponentPieces)
+    {
+        // Long variable to act as a bit logical unit for all of the valid player moves.
+        long validMoves = EMPTY_BOARD;
+        long emptySlots = ~(playerPieces | opponentPieces);
+
+        // Checks available moves for each direction from existing player pieces.
+        for (IBitShift shifter : BitShifters.shifters)
+        {
+            long potentialMoves = shifter.bitShift(playerPieces) & opponentPieces;
+
+            // While there are moves available for a certain direction:
+            // append them to the 'valid moves' long value.
+            while (potentialMoves != EMPTY_BOARD)
+            {
+                validMoves = validMoves | (shifter.bitShift(potentialMoves) & emptySlots);
+                potentialMoves = shifter.bitShift(potentialMoves) & opponentPieces;
+            }
+        }
+
+        return validMoves;
+    }
+}
@@ -0,0 +1,211 @@
+package BIT_MANAGEMENT;
+
+import MVP.Enums.Player;
+
+
+/**
+ * <h1>Class type: 'Symmetry'</h1>
+ *
+ * The 8 symmetries of the board (4 rotations, each with or without a mirror), applied to
+ * bit board longs by delta swaps - a few shifts and masks per transform, no loop over the slots.
+ *
+ * A symmetry is numbered by 3 bits, applied in order: <b>4</b> transposes the board along a
+ * diagonal (A8 - H1), <b>1</b> mirrors it horizontally (columns) and <b>2</b> flips it vertically (rows).
+ * Their combinations are the rotations (<u>ROTATE_CLOCKWISE</u>, <u>ROTATE_180</u>,
+ * <u>ROTATE_COUNTERCLOCKWISE</u>) and the transpose along the other diagonal (A1 - H8, all 3 bits).
+ *
+ * The <b>canonical</b> form of a position is one of its 8 symmetric positions, so that all 8 share it:
+ * - <u>canonicalSymmetry</u>: the symmetric position of the lowest 'Zobrist' key (the opening book's).
+ * - <u>canonicalize</u>: the symmetric position of the lowest (BLACK, WHITE) pieces pair, found
+ *   without hashing - for keying caches and storage by position, up to 8 times smaller.
+ * A move of the canonical position is mapped back to the original position by <u>revert</u>.
+ *
+ * <b>NOTE:</b> static methods only.
+ *
+ * @author David Salasin
+ */
+public class Symmetry
+{
+    /**
+     * Amount of board symmetries.
+     */
+    public static final int SYMMETRIES = 8;
+
+
+    // Symmetry bits:
+    public static final int MIRROR = 1;
+    public static final int FLIP = 2;
+    public static final int TRANSPOSE = 4;
+
+
+    // Rotations (the board as printed, row 8 on top):
+    public static final int ROTATE_CLOCKWISE = TRANSPOSE | MIRROR;
+    public static final int ROTATE_180 = MIRROR | FLIP;
+    public static final int ROTATE_COUNTERCLOCKWISE = TRANSPOSE | FLIP;
+
+
+    /**
+     * Applies a symmetry to a bit board long.
+     *
+     * @param bits long board pieces / slots.
+     * @param symmetry Symmetry number (0 - 7).
+     * @return long transformed pieces / slots.
+     */
+    public static long transform(long bits, int symmetry)
+    {
+        if ((symmetry & TRANSPOSE) != 0) bits = transpose(bits);
+        if ((symmetry & MIRROR) != 0) bits = mirror(bits);
+        if ((symmetry & FLIP) != 0) bits = Long.reverseBytes(bits);
+
+        return bits;
+    }
+
+
+    /**
+     * Reverts a symmetry applied by <u>transform</u>.
+     *
+     * @param bits long transformed pieces / slots.
+     * @param symmetry Symmetry number (0 - 7).
+     * @return long original pieces / slots.
+     */
+    public static long revert(long bits, int symmetry)
+    {
+        if ((symmetry & FLIP) != 0) bits = Long.reverseBytes(bits);
+        if ((symmetry & MIRROR) != 0) bits = mirror(bits);
+        if ((symmetry & TRANSPOSE) != 0) bits = transpose(bits);
+
+        return bits;
+    }
+
+
+    /**
+     * Finds the symmetry giving a position's canonical form (the lowest key).
+     *
+     * @param blackBits BLACK board pieces.
+     * @param whiteBits WHITE board pieces.
+     * @param toMove The player to move.
+     * @return Symmetry number (0 - 7) of the canonical form.
+     */
+    public static int canonicalSymmetry(long blackBits, long whiteBits, Player toMove)
+    {
+        int canonical = 0;
+        long lowestKey = Zobrist.hash(blackBits, whiteBits, toMove);
+
+        for (int symmetry = 1; symmetry < SYMMETRIES; symmetry++)
+        {
+            long key = Zobrist.hash(transform(blackBits, symmetry), transform(whiteBits, symmetry), toMove);
+
+            // Compared as unsigned, the same way the keys are sorted.
+            if (Long.compareUnsigned(key, lowestKey) < 0)
+            {
+                lowestKey = key;
+                canonical = symmetry;
+            }
+        }
+
+        return canonical;
+    }
+
+
+    /**
+     * Finds a position's canonical pair: its symmetric (BLACK, WHITE) pieces pair which is the lowest,
+     * compared as unsigned longs (BLACK's pieces first). Unlike <u>canonicalSymmetry</u>, no key is
+     * hashed: the 8 symmetric pairs share a single transpose and 2 mirrors per long, and every
+     * vertical flip is a byte reversal.
+     *
+     * @param pieces long[2] of BLACK's and WHITE's pieces, replaced by the canonical pair.
+     * @return Symmetry number (0 - 7) of the canonical pair (its moves are mapped back by <u>revert</u>).
+     */
+    public static int canonicalize(long[] pieces)
+    {
+        long blackBits = pieces[0];
+        long whiteBits = pieces[1];
+
+        // The 4 symmetries without a vertical flip:
+        long mirroredBlack = mirror(blackBits);
+        long mirroredWhite = mirror(whiteBits);
+        long transposedBlack = transpose(blackBits);
+        long transposedWhite = transpose(whiteBits);
+        long rotatedBlack = mirror(transposedBlack);
+        long rotatedWhite = mirror(transposedWhite);
+
+        int canonical = 0;
+        long canonicalBlack = blackBits;
+        long canonicalWhite = whiteBits;
+
+        for (int symmetry = 1; symmetry < SYMMETRIES; symmetry++)
+        {
+            long black;
+            long white;
+
+            switch (symmetry & ~FLIP)
+            {
+                case MIRROR:
+                    black = mirroredBlack;
+                    white = mirroredWhite;
+                    break;
+                case TRANSPOSE:
+                    black = transposedBlack;
+                    white = transposedWhite;
+                    break;
+                case TRANSPOSE | MIRROR:
+                    black = rotatedBlack;
+                    white = rotatedWhite;
+                    break;
+                default:
+                    black = blackBits;
+                    white = whiteBits;
+            }
+
+            if ((symmetry & FLIP) != 0)
+            {
+                black = Long.reverseBytes(black);
+                white = Long.reverseBytes(white);
+            }
+
+            int compare = Long.compareUnsigned(black, canonicalBlack);
+            if (compare < 0 || (compare == 0 && Long.compareUnsigned(white, canonicalWhite) < 0))
+            {
+                canonical = symmetry;
+                canonicalBlack = black;
+                canonicalWhite = white;
+            }
+        }
+
+        pieces[0] = canonicalBlack;
+        pieces[1] = canonicalWhite;
+
+        return canonical;
+    }
+
+
+    /**
+     * Mirrors the board horizontally: reverses the bits of every row byte.
+     */
+    private static long mirror(long bits)
+    {
+        bits = ((bits >>> 1) & 0x5555555555555555L) | ((bits & 0x5555555555555555L) << 1);
+        bits = ((bits >>> 2) & 0x3333333333333333L) | ((bits & 0x3333333333333333L) << 2);
+        bits = ((bits >>> 4) & 0x0F0F0F0F0F0F0F0FL) | ((bits & 0x0F0F0F0F0F0F0F0FL) << 4);
+
+        return bits;
+    }
+
+
+    /**
+     * Transposes the board along the diagonal of bit 0 and bit 63 (delta swaps of 28, 14 and 7 bits).
+     */
+    private static long transpose(long bits)
+    {
+        long swap;
+
+        swap = 0x0F0F0F0F00000000L & (bits ^ (bits << 28));
+        bits ^= swap ^ (swap >>> 28);
+        swap = 0x3333000033330000L & (bits ^ (bits << 14));
+        bits ^= swap ^ (swap >>> 14);
+        swap = 0x5500550055005500L & (bits ^ (bits << 7));
+        bits ^= swap ^ (swap >>> 7);
+
+        return bits;
+    }
+}
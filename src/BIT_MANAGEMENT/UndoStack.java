@@ -0,0 +1,112 @@
+package BIT_MANAGEMENT;
+
+import java.util.Arrays;
+
+
+/**
+ * <h1>Class type: 'UndoStack'</h1>
+ *
+ * Stack of played moves, stored as two primitive long arrays: the played position
+ * and the pieces it has flipped, one slot per game-tree ply.
+ *
+ * Used by the game-tree for reverting a searched move with two XOR operations,
+ * instead of copying the whole 'BitBoard'.
+ *
+ * @author David Salasin
+ */
+public class UndoStack
+{
+    /**
+     * Played move positions (single bit), one slot per stack level.
+     */
+    private long[] positions;
+
+
+    /**
+     * Pieces flipped by each played move, one slot per stack level.
+     */
+    private long[] flips;
+
+
+    /**
+     * Amount of moves currently on the stack.
+     */
+    private int size;
+
+
+    /**
+     * Constructor for 'UndoStack'.
+     *
+     * @param capacity starting amount of moves the stack can hold
+     *                 (grows when a deeper search needs more).
+     */
+    public UndoStack(int capacity)
+    {
+        positions = new long[capacity];
+        flips = new long[capacity];
+        size = 0;
+    }
+
+
+    /**
+     * Saves a played move on top of the stack.
+     *
+     * @param position long value of the played slot.
+     * @param flipped long value of the pieces the move has flipped.
+     */
+    public void push(long position, long flipped)
+    {
+        // Growing only happens the first time a search goes deeper than ever before.
+        if (size == positions.length)
+        {
+            positions = Arrays.copyOf(positions, size << 1);
+            flips = Arrays.copyOf(flips, size << 1);
+        }
+
+        positions[size] = position;
+        flips[size] = flipped;
+        size++;
+    }
+
+
+    /**
+     * Gets the played position of the top move.
+     *
+     * @return long value of the played slot.
+     */
+    public long topPosition()
+    {
+        return positions[size - 1];
+    }
+
+
+    /**
+     * Gets the flipped pieces of the top move.
+     *
+     * @return long value of the flipped pieces.
+     */
+    public long topFlips()
+    {
+        return flips[size - 1];
+    }
+
+
+    /**
+     * Gets the amount of moves on the stack (the game-tree's current ply).
+     *
+     * @return int stack size.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+
+    /**
+     * Removes the top move from the stack.
+     */
+    public void pop()
+    {
+        size--;
+    }
+}
@@ -0,0 +1,97 @@
+package BIT_MANAGEMENT;
+
+import java.util.SplittableRandom;
+
+import MVP.Enums.Player;
+
+import static MVP.Enums.Player.*;
+
+
+/**
+ * <h1>Class type: 'Zobrist'</h1>
+ *
+ * Calculates 64-bit <i>Zobrist</i> hash keys of board positions: BLACK pieces,
+ * WHITE pieces and the player to move.
+ *
+ * Each of the 16 bytes of the two pieces longs has its own table of 256 random keys,
+ * so a key is calculated with 16 table lookups instead of one per board slot.
+ *
+ * <b>NOTE:</b> static methods only. The random keys are seeded, so a position's key
+ * is the same between runs.
+ *
+ * @author David Salasin
+ */
+public class Zobrist
+{
+    /**
+     * Random keys for every byte value, for each of the 16 pieces bytes
+     * (8 BLACK bytes followed by 8 WHITE bytes).
+     */
+    private static final long[][] BYTE_KEYS = new long[16][256];
+
+
+    /**
+     * Random key added (XOR) when WHITE is the player to move.
+     */
+    private static final long WHITE_TO_MOVE_KEY;
+
+
+    /**
+     * Seed of the keys' random generator.
+     */
+    private static final long SEED = 0x5DEECE66DL;
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+
+        // A key per board slot, combined into the keys of all of the byte values it takes part in.
+        for (int i = 0; i < BYTE_KEYS.length; i++)
+        {
+            long[] slotKeys = new long[8];
+            for (int bit = 0; bit < 8; bit++) slotKeys[bit] = random.nextLong();
+
+            for (int value = 1; value < 256; value++)
+            {
+                int lowestBit = Integer.numberOfTrailingZeros(value);
+                BYTE_KEYS[i][value] = BYTE_KEYS[i][value & (value - 1)] ^ slotKeys[lowestBit];
+            }
+        }
+
+        WHITE_TO_MOVE_KEY = random.nextLong();
+    }
+
+
+    /**
+     * Calculates the hash key of a position.
+     *
+     * @param blackBits BLACK board pieces.
+     * @param whiteBits WHITE board pieces.
+     * @param toMove The player to move.
+     * @return long hash key.
+     */
+    public static long hash(long blackBits, long whiteBits, Player toMove)
+    {
+        long key = toMove == WHITE ? WHITE_TO_MOVE_KEY : 0L;
+
+        for (int i = 0; i < 8; i++)
+        {
+            key ^= BYTE_KEYS[i][(int) (blackBits >>> (i << 3)) & 0xFF];
+            key ^= BYTE_KEYS[i + 8][(int) (whiteBits >>> (i << 3)) & 0xFF];
+        }
+
+        return key;
+    }
+
+
+    /**
+     * Calculates the hash key of a 'BitBoard' position.
+     *
+     * @param board 'BitBoard' instance.
+     * @param toMove The player to move.
+     * @return long hash key.
+     */
+    public static long hash(BitBoard board, Player toMove)
+    {
+        return hash(board.getColorBits(BLACK), board.getColorBits(WHITE), toMove);
+    }
+}
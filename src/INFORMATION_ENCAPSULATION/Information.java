@@ -3,6 +3,7 @@ package INFORMATION_ENCAPSULATION;
 import BIT_MANAGEMENT.BitBoard;
 import MVP.Enums.GameStatus;
 import MVP.Enums.Player;
+import SEARCH.SearchStatistics;
 
 /**
  * <h1>Class type: 'Information'</h1>
@@ -32,6 +33,22 @@ public class Information
     public BitBoard board;
 
 
+    /**
+     * The played move's coordinates (the AI's move included), when the information follows a played move.
+     *
+     * <b>NOTE:</b> null otherwise.
+     */
+    public Coordinates move;
+
+
+    /**
+     * Statistics of the AI's search, when the information follows an AI move (and the searches are counted).
+     *
+     * <b>NOTE:</b> null otherwise.
+     */
+    public SearchStatistics statistics;
+
+
     /**
      * Constructor for 'Information'.
      *
@@ -49,4 +66,20 @@ public class Information
         this.player = player;
         this.board = board;
     }
+
+
+    /**
+     * Constructor for 'Information' following an AI move.
+     *
+     * @param status State of the game.
+     * @param player Referred player with the information.
+     * @param board 'BitBoard' reference.
+     * @param statistics Statistics of the AI's search, or null.
+     * @see SearchStatistics
+     */
+    public Information(GameStatus status, Player player, BitBoard board, SearchStatistics statistics)
+    {
+        this(status, player, board);
+        this.statistics = statistics;
+    }
 }
@@ -2,6 +2,7 @@ package INFORMATION_ENCAPSULATION;
 
 
 import MVP.Model;
+import SEARCH.SearchStatistics;
 
 /**
  * <h1>Class type: 'Move'</h1>
@@ -20,11 +21,38 @@ public class Move extends Coordinates
     public int score;
 
 
+    /**
+     * Game-tree depth the move's score has been searched to
+     * (the last completed depth, when searching by time).
+     *
+     * @see Model
+     */
+    public int depth;
+
+
+    /**
+     * Statistics of the search which has found the move.
+     *
+     * <b>NOTE:</b> null unless the searches are counted (<u>SearchStatistics.ENABLED</u>).
+     *
+     * @see SearchStatistics
+     */
+    public SearchStatistics statistics;
+
+
+    /**
+     * Flag for the search has been stopped before it finished: the move is the best found so far.
+     *
+     * @see Model
+     */
+    public boolean stopped;
+
+
     /**
      * Constructor for 'Move'.
      *
      * Sets 'Coordinate' properties accordingly, and initiates score to minus
-     * infinity (a really big negative number).
+     * infinity (a really big negative number) and depth to 0.
      *
      * @param y_position Vertical position of a board slot.
      * @param x_position Horizontal position of a board slot.
@@ -33,6 +61,7 @@ public class Move extends Coordinates
     {
         super(y_position, x_position);
         score = -Integer.MAX_VALUE;
+        depth = 0;
     }
 
 
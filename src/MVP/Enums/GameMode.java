@@ -9,16 +9,18 @@ import MVP.Model;
  * Used to represent a chosen game mode (PVP / AI difficulty).
  *
  * Includes depth parameter, for AI's game-tree generic setting of the
- * depth for each difficulty.
+ * depth for each difficulty, a time budget parameter for searching
+ * by time instead of by a fixed depth, and the amount of empty slots
+ * from which the AI solves the game's end exactly.
  *
  * @author David Salasin
  */
 public enum GameMode
 {
-    PVP(0),
-    BEGINNER(5),
-    INTERMEDIATE(7),
-    HARDCORE(9);
+    PVP(0, 0, 0),
+    BEGINNER(5, 0, 0),
+    INTERMEDIATE(7, 0, 12),
+    HARDCORE(9, 0, 20);
 
 
     /**
@@ -29,13 +31,37 @@ public enum GameMode
     public final int depth;
 
 
+    /**
+     * Default time budget (milliseconds) for an AI move, searched by iterative deepening.
+     *
+     * <b>NOTE:</b> 0 for searching to the fixed <u>depth</u> instead.
+     *
+     * @see Model
+     */
+    public final long timeBudget;
+
+
+    /**
+     * Amount of empty slots from which the AI switches to the exact endgame solver.
+     *
+     * <b>NOTE:</b> 0 for never switching (searching by the heuristic to the end).
+     *
+     * @see SEARCH.EndgameSolver
+     */
+    public final int endgameEmpties;
+
+
     /**
      * 'GameMode' enum constructor.
      *
      * @param depth AI's game-tree depth.
+     * @param timeBudget AI's default time budget per move (0 for a fixed depth search).
+     * @param endgameEmpties Empty slots from which the endgame is solved exactly (0 for never).
      */
-    GameMode(int depth)
+    GameMode(int depth, long timeBudget, int endgameEmpties)
     {
         this.depth = depth;
+        this.timeBudget = timeBudget;
+        this.endgameEmpties = endgameEmpties;
     }
 }
@@ -1,17 +1,17 @@
 package MVP;
 
+import java.io.IOException;
 import java.util.HashMap;
 
 import BIT_MANAGEMENT.BitBoard;
 
 import BIT_MANAGEMENT.BitShifters;
-import BIT_MANAGEMENT.Enums.Direction;
+import BIT_MANAGEMENT.Interfaces.IBitShift;
 import MVP.Enums.GameMode;
 import MVP.Enums.Player;
 import MVP.Interfaces.IEvaluate;
 
 import static MVP.Enums.GameMode.*;
-import static BIT_MANAGEMENT.Enums.Direction.*;
 
 
 /**
@@ -35,6 +35,24 @@ public class Evaluate
     public static HashMap<GameMode, IEvaluate> heuristicDic = new HashMap<>();
 
 
+    /**
+     * The heuristics' weight vector (indexed by the 'EvaluateWeights' features), loaded at startup.
+     *
+     * @see EvaluateWeights
+     */
+    public static final int[] weights = EvaluateWeights.load();
+
+
+    /**
+     * The pattern-table heuristic, loaded at startup (HARDCORE's).
+     *
+     * <b>NOTE:</b> null if its weights resource can't be loaded.
+     *
+     * @see PatternEvaluate
+     */
+    public static final PatternEvaluate patternHeuristic = loadPatternHeuristic();
+
+
     /**
      * Constant long value for an empty board.
      */
@@ -44,19 +62,19 @@ public class Evaluate
     /**
      * Constant long value for a Bit Board's edges.
      */
-    private static final long EDGES_MASK = -35604928818740737L;
+    static final long EDGES_MASK = -35604928818740737L;
 
 
     /**
      * Constant long value for a Bit Board's corners.
      */
-    private static final long CORNERS_MASK = -9151314442816847743L;
+    static final long CORNERS_MASK = -9151314442816847743L;
 
 
     /**
      * Constant long value for a Bit Board's X slots.
      */
-    private static final long X_MASK = 18577348462920192L;
+    static final long X_MASK = 18577348462920192L;
 
 
     /**
@@ -78,18 +96,82 @@ public class Evaluate
     }
 
     /**
-     * Uses 'Direction' as KEY to access the opposite 'Direction' on the compass (HashMap).
-     * Used for handling <i>Stable</i> disks.
+     * The inner disks, corners and stable disks heuristic, HARDCORE's if the pattern-table heuristic
+     * can't be loaded.
      */
-    public static HashMap<Direction, Direction> oppositeDirections = new HashMap<>();
+    public static final IEvaluate innerDisksHeuristic = (model, currentPlayer) ->
+    {
+        BitBoard board = model.getBoard();
+        Player currentOpponent = Player.currentOpponent(currentPlayer);
 
-    static {
-        oppositeDirections.put(NORTH_WEST, SOUTH_EAST);
-        oppositeDirections.put(NORTH, SOUTH);
-        oppositeDirections.put(NORTH_EAST, SOUTH_WEST);
-        oppositeDirections.put(EAST, WEST);
+        long availableMovesPlayer = model.availableMoves(currentPlayer);
+        long availableMovesOpponent = model.availableMoves(currentOpponent);
+
+        // If the game has ended: Returns winning evaluation score.
+        if ((availableMovesPlayer | availableMovesOpponent) == EMPTY_BOARD)
+        {
+            return winnerStatement(model, currentPlayer);
+        }
+
+        // Strategy based on the gathering of Corners, stable and inner disks.
+        // Playing hard to catch, sticking to cover the entire match while the
+        // enemy is slowly running out of moves.
+
+
+        long playerPieces = board.getColorBits(currentPlayer);
+        long opponentPieces = board.getColorBits(currentOpponent);
+
+
+        // Calculating inner pieces:
+        long frontierPieces = ~(playerPieces | opponentPieces);
+        long wallShift = 0;
+
+        for (IBitShift shifter : BitShifters.shifters) {
+            wallShift |= shifter.bitShift(frontierPieces);
+        }
+        frontierPieces |= wallShift;
+
+        int innerPlayerPieces = Long.bitCount((~frontierPieces) & playerPieces);
+        int innerOpponentPieces = Long.bitCount((~frontierPieces) & opponentPieces);
+
+//            int frontierPlayerPieces = Long.bitCount(frontierPieces & playerPieces);
+//            int frontierOpponentPieces = Long.bitCount(frontierPieces & opponentPieces);
+
+        // Finding corners:
+        int cPlayerPieces = Long.bitCount(playerPieces & CORNERS_MASK);
+        int cOpponentPieces = Long.bitCount(opponentPieces & CORNERS_MASK);
+
+
+        // Finding stable disks (never flipped again):
+        int sPlayerPieces = Long.bitCount(model.stableDiscs(currentPlayer));
+        int sOpponentPieces = Long.bitCount(model.stableDiscs(currentOpponent));
+
+
+        return (innerPlayerPieces - innerOpponentPieces) * weights[EvaluateWeights.INNER_DISCS]
+                + (cPlayerPieces - cOpponentPieces) * weights[EvaluateWeights.INNER_CORNERS]
+                + (sPlayerPieces - sOpponentPieces) * weights[EvaluateWeights.INNER_STABLE];
+    };
+
+
+    /**
+     * Loads the pattern-table heuristic's weights resource.
+     *
+     * @return 'PatternEvaluate' instance, or null if the weights can't be loaded.
+     */
+    private static PatternEvaluate loadPatternHeuristic()
+    {
+        try
+        {
+            return PatternEvaluate.load();
+        }
+        catch (IOException e)
+        {
+            System.err.println("Pattern weights not loaded: " + e.getMessage());
+            return null;
+        }
     }
 
+
     // 'IEvaluate' static lambda implementations for every game difficulty:
     static {
 
@@ -110,15 +192,15 @@ public class Evaluate
             // Strategy based on having the sides and the corners:
             // It is a beginner strategy, and can be countered easily.
             // Difficulty level made for new players.
-            score += (Long.bitCount(playerPieces) - Long.bitCount(opponentPieces));
+            score += (Long.bitCount(playerPieces) - Long.bitCount(opponentPieces)) * weights[EvaluateWeights.BEGINNER_DISCS];
             playerPieces &= EDGES_MASK;
             opponentPieces &= EDGES_MASK;
 
-            score += (Long.bitCount(playerPieces) - Long.bitCount(opponentPieces));
+            score += (Long.bitCount(playerPieces) - Long.bitCount(opponentPieces)) * weights[EvaluateWeights.BEGINNER_EDGES];
             playerPieces &= CORNERS_MASK;
             opponentPieces &= CORNERS_MASK;
 
-            score += ((Long.bitCount(playerPieces) << 2) - (Long.bitCount(opponentPieces) << 2));
+            score += (Long.bitCount(playerPieces) - Long.bitCount(opponentPieces)) * weights[EvaluateWeights.BEGINNER_CORNERS];
 
             return score;
         });
@@ -154,57 +236,13 @@ public class Evaluate
             int sCountOpponent = Long.bitCount((availableMovesOpponent ^ X_MASK) ^ CORNERS_MASK);
 
 
-            return (cCountPlayer * 4) + (sCountPlayer * 2) + dCountPlayer
-                - (cCountOpponent * 4) - (sCountOpponent * 2) - dCountOpponent;
+            return (cCountPlayer - cCountOpponent) * weights[EvaluateWeights.INTERMEDIATE_CORNER_MOVES]
+                + (sCountPlayer - sCountOpponent) * weights[EvaluateWeights.INTERMEDIATE_OTHER_MOVES]
+                + (dCountPlayer - dCountOpponent) * weights[EvaluateWeights.INTERMEDIATE_X_MOVES];
         });
 
-        // Hardcore heuristic:
-        heuristicDic.put(HARDCORE, (model, currentPlayer) ->
-        {
-            BitBoard board = model.getBoard();
-            Player currentOpponent = Player.currentOpponent(currentPlayer);
-
-            long availableMovesPlayer = model.availableMoves(currentPlayer);
-            long availableMovesOpponent = model.availableMoves(currentOpponent);
-
-            // If the game has ended: Returns winning evaluation score.
-            if ((availableMovesPlayer | availableMovesOpponent) == EMPTY_BOARD)
-            {
-                return winnerStatement(model, currentPlayer);
-            }
-
-            // Strategy based on the gathering of Corners, stable and inner disks.
-            // Playing hard to catch, sticking to cover the entire match while the
-            // enemy is slowly running out of moves.
-            // ! PLANING TO ADD STABLE DISKS !
-
-
-            long playerPieces = board.getColorBits(currentPlayer);
-            long opponentPieces = board.getColorBits(currentOpponent);
-
-
-            // Calculating inner pieces:
-            long frontierPieces = ~(playerPieces | opponentPieces);
-            long wallShift = 0;
-
-            for (Direction d : BitShifters.shiftDict.keySet()) {
-                wallShift |= BitShifters.shiftDict.get(d).bitShift(frontierPieces);
-            }
-            frontierPieces |= wallShift;
-
-            int innerPlayerPieces = Long.bitCount((~frontierPieces) & playerPieces);
-            int innerOpponentPieces = Long.bitCount((~frontierPieces) & opponentPieces);
-
-//            int frontierPlayerPieces = Long.bitCount(frontierPieces & playerPieces);
-//            int frontierOpponentPieces = Long.bitCount(frontierPieces & opponentPieces);
-
-            // Finding corners:
-            int cPlayerPieces = Long.bitCount(playerPieces & CORNERS_MASK);
-            int cOpponentPieces = Long.bitCount(opponentPieces & CORNERS_MASK);
-
-
-            return innerPlayerPieces * 3 + cPlayerPieces * 5 - innerOpponentPieces * 3 - cOpponentPieces * 5;
-        });
+        // Hardcore heuristic (the pattern-table one, or the inner disks one if it can't be loaded):
+        heuristicDic.put(HARDCORE, patternHeuristic != null ? patternHeuristic : innerDisksHeuristic);
 
     }
 }
@@ -0,0 +1,194 @@
+package MVP;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import BIT_MANAGEMENT.BitShifters;
+import BIT_MANAGEMENT.MoveGenerator;
+import BIT_MANAGEMENT.Stability;
+import BIT_MANAGEMENT.Interfaces.IBitShift;
+
+import static MVP.Evaluate.*;
+
+
+/**
+ * <h1>Class type: 'EvaluateWeights'</h1>
+ *
+ * The weight vector of the 'Evaluate' heuristics: every heuristic is a weighted sum of its features
+ * (each a difference between the player's and the opponent's counts), and reads its weights from
+ * the vector.
+ *
+ * The weights are loaded once: from the file of the <i>reversi.weights</i> system property, else from
+ * the <u>WEIGHTS_RESOURCE</u> resource (as written by the tuner), else the hand-picked defaults.
+ *
+ * @author David Salasin
+ * @see Evaluate
+ */
+public class EvaluateWeights
+{
+    // BEGINNER's features: discs, edge discs, corner discs.
+    public static final int BEGINNER_DISCS = 0;
+    public static final int BEGINNER_EDGES = 1;
+    public static final int BEGINNER_CORNERS = 2;
+
+
+    // INTERMEDIATE's features: corner moves, the (X slots and corners toggled) other moves, X slot moves.
+    public static final int INTERMEDIATE_CORNER_MOVES = 3;
+    public static final int INTERMEDIATE_OTHER_MOVES = 4;
+    public static final int INTERMEDIATE_X_MOVES = 5;
+
+
+    // The inner disks heuristic's features (HARDCORE's fallback): inner discs, corner discs, stable discs.
+    public static final int INNER_DISCS = 6;
+    public static final int INNER_CORNERS = 7;
+    public static final int INNER_STABLE = 8;
+
+
+    // Heuristics (BEGINNER, INTERMEDIATE, inner disks), and the weights of each:
+    public static final int HEURISTICS = 3;
+    public static final int HEURISTIC_WEIGHTS = 3;
+
+
+    /**
+     * Amount of weights (a heuristic's weights start at its index times <u>HEURISTIC_WEIGHTS</u>).
+     */
+    public static final int WEIGHTS = HEURISTICS * HEURISTIC_WEIGHTS;
+
+
+    /**
+     * The hand-picked weights.
+     */
+    public static final int[] DEFAULT_WEIGHTS = {1, 1, 4, 4, 2, 1, 3, 5, 6};
+
+
+    /**
+     * Weights resource (relative to the 'EvaluateWeights' class).
+     */
+    public static final String WEIGHTS_RESOURCE = "Resources/weights.bin";
+
+
+    /**
+     * System property of a weights file overriding the resource.
+     */
+    public static final String WEIGHTS_PROPERTY = "reversi.weights";
+
+
+    // Weights file header:
+    private static final int MAGIC = 0x52565745;
+    private static final int VERSION = 1;
+
+
+    /**
+     * Calculates the features of every heuristic for a position with both players to move
+     * (a finished game is scored by <u>Evaluate.winnerStatement</u> instead), in the same way
+     * the heuristics do.
+     *
+     * @param playerPieces Pieces of the evaluated player.
+     * @param opponentPieces Pieces of the opponent.
+     * @param features int[<u>WEIGHTS</u>] to be filled.
+     */
+    public static void features(long playerPieces, long opponentPieces, int[] features)
+    {
+        // BEGINNER: discs, then the edges' and the corners' discs once more.
+        features[BEGINNER_DISCS] = Long.bitCount(playerPieces) - Long.bitCount(opponentPieces);
+        features[BEGINNER_EDGES] = Long.bitCount(playerPieces & EDGES_MASK) - Long.bitCount(opponentPieces & EDGES_MASK);
+        features[BEGINNER_CORNERS] = Long.bitCount(playerPieces & CORNERS_MASK)
+                - Long.bitCount(opponentPieces & CORNERS_MASK);
+
+        // INTERMEDIATE: the players' moves.
+        long playerMoves = MoveGenerator.availableMoves(playerPieces, opponentPieces);
+        long opponentMoves = MoveGenerator.availableMoves(opponentPieces, playerPieces);
+
+        features[INTERMEDIATE_CORNER_MOVES] = Long.bitCount(playerMoves & CORNERS_MASK)
+                - Long.bitCount(opponentMoves & CORNERS_MASK);
+        features[INTERMEDIATE_OTHER_MOVES] = Long.bitCount((playerMoves ^ X_MASK) ^ CORNERS_MASK)
+                - Long.bitCount((opponentMoves ^ X_MASK) ^ CORNERS_MASK);
+        features[INTERMEDIATE_X_MOVES] = Long.bitCount(playerMoves & X_MASK) - Long.bitCount(opponentMoves & X_MASK);
+
+        // Inner disks: discs away from the empty slots, corners, and stable discs.
+        long frontier = ~(playerPieces | opponentPieces);
+        long wallShift = 0;
+
+        for (IBitShift shifter : BitShifters.shifters) wallShift |= shifter.bitShift(frontier);
+        frontier |= wallShift;
+
+        features[INNER_DISCS] = Long.bitCount(~frontier & playerPieces) - Long.bitCount(~frontier & opponentPieces);
+        features[INNER_CORNERS] = features[BEGINNER_CORNERS];
+        features[INNER_STABLE] = Long.bitCount(Stability.stableDiscs(playerPieces, opponentPieces))
+                - Long.bitCount(Stability.stableDiscs(opponentPieces, playerPieces));
+    }
+
+
+    /**
+     * Loads the weights: from the <i>reversi.weights</i> system property's file, else the resource,
+     * else the defaults.
+     *
+     * @return int[<u>WEIGHTS</u>] weights.
+     */
+    public static int[] load()
+    {
+        String file = System.getProperty(WEIGHTS_PROPERTY);
+
+        try (InputStream input = file != null ? Files.newInputStream(Path.of(file))
+                : EvaluateWeights.class.getResourceAsStream(WEIGHTS_RESOURCE))
+        {
+            if (input != null) return read(input);
+        }
+        catch (IOException e)
+        {
+            System.err.println("Evaluation weights not loaded: " + e.getMessage());
+        }
+
+        return Arrays.copyOf(DEFAULT_WEIGHTS, WEIGHTS);
+    }
+
+
+    /**
+     * Reads weights written by <u>write</u>.
+     *
+     * @param input Input stream (closed after reading).
+     * @return int[<u>WEIGHTS</u>] weights.
+     * @throws IOException if the stream can't be read or isn't a weights file.
+     */
+    public static int[] read(InputStream input) throws IOException
+    {
+        try (DataInputStream data = new DataInputStream(input))
+        {
+            if (data.readInt() != MAGIC || data.readInt() != VERSION || data.readInt() != WEIGHTS)
+            {
+                throw new IOException("Not an evaluation weights file (version " + VERSION + ", " + WEIGHTS + " weights)");
+            }
+
+            int[] weights = new int[WEIGHTS];
+            for (int i = 0; i < WEIGHTS; i++) weights[i] = data.readInt();
+
+            return weights;
+        }
+    }
+
+
+    /**
+     * Writes weights.
+     *
+     * @param output Output stream (closed after writing).
+     * @param weights int[<u>WEIGHTS</u>] weights.
+     * @throws IOException if the stream can't be written.
+     */
+    public static void write(OutputStream output, int[] weights) throws IOException
+    {
+        try (DataOutputStream data = new DataOutputStream(output))
+        {
+            data.writeInt(MAGIC);
+            data.writeInt(VERSION);
+            data.writeInt(WEIGHTS);
+
+            for (int weight : weights) data.writeInt(weight);
+        }
+    }
+}
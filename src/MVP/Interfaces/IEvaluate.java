@@ -23,4 +23,21 @@ public interface IEvaluate {
      * @return Evaluated Integer score, by the set heuristic function.
      */
     int evaluate(Model model, Player currentPlayer);
+
+
+    /**
+     * Evaluates a game-tree leaf, whose both players' moves the game-tree has already calculated.
+     * By default the leaf is evaluated as any other board: a heuristic counting the moves overrides
+     * it, to use the passed moves instead of calculating them again.
+     *
+     * @param model 'Model' class, including the 'BitBoard' structure and other bit board operations.
+     * @param currentPlayer Player the score is being evaluated for.
+     * @param playerMoves long value of the player's available moves on the board.
+     * @param opponentMoves long value of the opponent's available moves on the board.
+     * @return Evaluated Integer score, by the set heuristic function.
+     */
+    default int evaluateLeaf(Model model, Player currentPlayer, long playerMoves, long opponentMoves)
+    {
+        return evaluate(model, currentPlayer);
+    }
 }
@@ -1,18 +1,44 @@
 package MVP;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
 import BIT_MANAGEMENT.BitBoard;
-import BIT_MANAGEMENT.BitShifters;
-import BIT_MANAGEMENT.Enums.Direction;
-import BIT_MANAGEMENT.Interfaces.IBitShift;
+import BIT_MANAGEMENT.MoveGenerator;
+import BIT_MANAGEMENT.Stability;
+import BIT_MANAGEMENT.UndoStack;
+import BIT_MANAGEMENT.Zobrist;
 import INFORMATION_ENCAPSULATION.Coordinates;
 import INFORMATION_ENCAPSULATION.Move;
 import MVP.Enums.GameMode;
 import MVP.Enums.GameStatus;
 import MVP.Enums.Player;
 import MVP.Interfaces.IEvaluate;
+import RECORDS.GameRecord;
+import SEARCH.EndgameSolver;
+import SEARCH.MoveOrdering;
+import SEARCH.OpeningBook;
+import SEARCH.RootBound;
+import SEARCH.SearchStatistics;
+import SEARCH.SearchingMoves;
+import SEARCH.Enums.ParallelMode;
+import SEARCH.Enums.SearchAlgorithm;
+import SEARCH.TranspositionTable;
 
 import static MVP.Enums.Player.*;
 import static MVP.Enums.GameStatus.*;
+import static MVP.Enums.GameMode.HARDCORE;
 
 
 /**
@@ -37,6 +63,15 @@ public class Model
      */
     private final BitBoard board;
 
+
+    /**
+     * Moves played by <u>makeMove</u>, with their flipped pieces, used by <u>unmakeMove</u> to revert
+     * each game-tree branch (instead of a new 'BitBoard' copy per node).
+     *
+     * @see UndoStack
+     */
+    private final UndoStack undoStack;
+
     
     /**
      * Game mode (AI Difficulty) of the game.
@@ -56,6 +91,93 @@ public class Model
      */
     private IEvaluate heuristic;
 
+
+    /**
+     * Flag for evaluating with incremental pattern indexes (when the heuristic is a 'PatternEvaluate').
+     */
+    private boolean incrementalEvaluation = false;
+
+
+    /**
+     * Incremental pattern indexes of the searched board, pushed and popped with its moves.
+     *
+     * <b>NOTE:</b> INITIATED TO NULL unless evaluating incrementally by a 'PatternEvaluate'.
+     *
+     * @see PatternAccumulator
+     */
+    private PatternAccumulator patternAccumulator;
+
+
+    /**
+     * Transposition table of the game-tree's searched positions, kept between turns.
+     *
+     * <b>NOTE:</b> INITIATED TO NULL (no table) until an AI game mode is set up.
+     *
+     * @see TranspositionTable
+     */
+    private TranspositionTable transpositionTable;
+
+
+    /**
+     * Size of the transposition table set by <u>setTranspositionTableSize</u> (MB, 0 for no table),
+     * or -1 for the <u>DEFAULT_TRANSPOSITION_TABLE_MB</u> table allocated by <u>init</u>.
+     */
+    private int transpositionTableMegabytes = -1;
+
+
+    /**
+     * Move ordering of the game-tree nodes (killer moves and history scores are kept between turns).
+     *
+     * @see MoveOrdering
+     */
+    private final MoveOrdering moveOrdering;
+
+
+    /**
+     * Exact solver of the game's end, taking over from the game-tree near the end of the game.
+     *
+     * @see EndgameSolver
+     */
+    private final EndgameSolver endgameSolver;
+
+
+    /**
+     * Amount of empty slots from which the AI's move is solved exactly by the endgame solver
+     * (0 for never). Set from the game mode's default.
+     *
+     * @see GameMode
+     */
+    private int endgameEmpties;
+
+
+    /**
+     * Opening book consulted before searching, or null for always searching.
+     *
+     * <b>NOTE:</b> the <u>DEFAULT_OPENING_BOOK</u> file is opened for HARDCORE games, when it exists.
+     *
+     * @see OpeningBook
+     */
+    private OpeningBook openingBook;
+
+
+    // Stable discs of the last position asked for (both players), for repeated calls on one position:
+    private long stableBlackBits = -1L;
+    private long stableWhiteBits = -1L;
+    private long stableBlack;
+    private long stableWhite;
+
+
+    /**
+     * Path of the opening book file opened by default.
+     */
+    public static final String DEFAULT_OPENING_BOOK = "reversi.book";
+
+
+    /**
+     * Transposition table's size (MB) created for AI game modes, when no other size was set.
+     */
+    public static final int DEFAULT_TRANSPOSITION_TABLE_MB = 64;
+
     
     /**
      * Constant long value for the starting board BLACK pieces.
@@ -75,6 +197,187 @@ public class Model
     private static final long EMPTY_BOARD = 0L;
 
 
+    /**
+     * Time budget (milliseconds) of an AI move, searched by iterative deepening.
+     * Set from the game mode's default, 0 for a fixed depth search.
+     *
+     * @see GameMode
+     */
+    private long timeBudget;
+
+
+    /**
+     * Game-tree depth of a fixed depth search (no time budget).
+     * Set from the game mode's default.
+     *
+     * @see GameMode
+     */
+    private int searchDepth;
+
+
+    /**
+     * Deadline (System.nanoTime) of the running search, <u>NO_DEADLINE</u> when unlimited.
+     */
+    private long deadline = NO_DEADLINE;
+
+
+    /**
+     * Flag for the running search has run out of time (or has been stopped): the game-tree
+     * unwinds without storing anything, and the unfinished iteration is thrown away.
+     */
+    private boolean searchAborted;
+
+
+    /**
+     * Flag for stopping the running search from another thread, checked together with the clock.
+     */
+    private volatile boolean stopRequested;
+
+
+    /**
+     * Counter of game-tree nodes, for checking the clock only once every few nodes.
+     */
+    private int nodeCounter;
+
+
+    /**
+     * Share of a CPU core taken by the running search: below 1 only while pondering,
+     * which pauses at the clock checks to stay within it.
+     */
+    private double cpuShare = 1;
+
+
+    /**
+     * Start (System.nanoTime) of the pondering's running slice, between its pauses.
+     */
+    private long sliceStart;
+
+
+    /**
+     * Thread of the running pondering, woken by a stop request when paused (else null).
+     */
+    private volatile Thread ponderThread;
+
+
+    /**
+     * Deadline value of a search without a time limit.
+     */
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+
+    /**
+     * Mask of the node counter, checking the clock every 1024 game-tree nodes.
+     */
+    private static final int CLOCK_CHECK_MASK = 1023;
+
+
+    /**
+     * Maximum iterative deepening depth (every board slot played).
+     */
+    private static final int MAX_DEPTH = 60;
+
+
+    /**
+     * Amount of threads searching (1 for a serial search).
+     */
+    private int searchThreads = 1;
+
+
+    /**
+     * The way the search is split between the threads.
+     *
+     * @see ParallelMode
+     */
+    private ParallelMode parallelMode = ParallelMode.ROOT_SPLIT;
+
+
+    /**
+     * The game-tree search algorithm.
+     *
+     * @see SearchAlgorithm
+     */
+    private SearchAlgorithm searchAlgorithm = SearchAlgorithm.ALPHA_BETA;
+
+
+    /**
+     * Half width of the aspiration window around the previous iteration's score (PVS only).
+     */
+    private static final int ASPIRATION_WINDOW = 32;
+
+
+    /**
+     * Least game-tree depth of a node whose moves a Lazy SMP thread defers while other threads search them
+     * (see 'SearchingMoves'): below it, a move is cheaper to search again than to defer.
+     */
+    private static final int DEFER_DEPTH = 3;
+
+
+    /**
+     * Thread pool of the parallel root search.
+     *
+     * <b>NOTE:</b> INITIATED TO NULL while searching serially.
+     */
+    private ForkJoinPool searchPool;
+
+
+    /**
+     * Helper 'Model' instances of the parallel search, one per thread: each has its
+     * own board and search state, sharing only the transposition table with this instance.
+     */
+    private BlockingQueue<Model> helperModels;
+
+
+    /**
+     * All of the helper 'Model' instances (busy ones included), for stopping their searches.
+     */
+    private List<Model> allHelperModels = List.of();
+
+
+    /**
+     * Moves being searched by the threads of the running <i>Lazy SMP</i> search, shared with its helpers.
+     *
+     * <b>NOTE:</b> INITIATED TO NULL unless searching by Lazy SMP.
+     *
+     * @see SearchingMoves
+     */
+    private SearchingMoves searchingMoves;
+
+
+    /**
+     * The 'SearchingMoves' table of this instance's Lazy SMP searches (allocated with the helpers).
+     */
+    private SearchingMoves lazySmpMoves;
+
+
+    /**
+     * Every game-tree ply's (up to a ply per board slot) moves deferred while other threads search them
+     * (see <u>searchingMoves</u>).
+     */
+    private final long[] deferredMoves = new long[64];
+
+
+    /**
+     * The first Lazy SMP helper search completing the running iteration's depth, which ends the iteration.
+     */
+    private final AtomicReference<Move> completedPlay = new AtomicReference<>();
+
+
+    /**
+     * Searches started (for a helper 'Model': the searching instance's search it has last been prepared for),
+     * so a helper's move ordering is prepared once per new search too.
+     */
+    private long searchCount;
+
+
+    /**
+     * Counters of the running search (counted only when <u>SearchStatistics.ENABLED</u>).
+     * A helper 'Model' counts into its own instance, merged into the searching instance's when it joins.
+     *
+     * @see SearchStatistics
+     */
+    private final SearchStatistics statistics;
+
+
     /**
      * Constructor for 'Model'.
      * Creates an instance of game board's 'BitBoard' database.
@@ -86,6 +389,10 @@ public class Model
     public Model()
     {
         board = new BitBoard();
+        undoStack = new UndoStack(HARDCORE.depth + 2);
+        moveOrdering = new MoveOrdering();
+        endgameSolver = new EndgameSolver();
+        statistics = new SearchStatistics();
         gameMode = null;
     }
 
@@ -105,172 +412,364 @@ public class Model
 
         this.gameMode = gameMode;
         this.heuristic = Evaluate.heuristicDic.get(gameMode);
+        updatePatternAccumulator();
+        this.timeBudget = gameMode.timeBudget;
+        this.searchDepth = gameMode.depth;
+        this.endgameEmpties = gameMode.endgameEmpties;
+
+        if (gameMode != GameMode.PVP && transpositionTable == null && transpositionTableMegabytes < 0)
+        {
+            transpositionTable = new TranspositionTable(DEFAULT_TRANSPOSITION_TABLE_MB);
+        }
+        else if (transpositionTable != null)
+        {
+            transpositionTable.clear();
+        }
+
+        moveOrdering.clear();
+
+        if (gameMode == HARDCORE && openingBook == null && Files.exists(Path.of(DEFAULT_OPENING_BOOK)))
+        {
+            try
+            {
+                openingBook = OpeningBook.open(Path.of(DEFAULT_OPENING_BOOK));
+            }
+            catch (IOException e)
+            {
+                System.err.println("Opening book not loaded: " + e.getMessage());
+            }
+        }
     }
 
 
     /**
-     * Finds who is the winner, according to board's pieces status.
+     * Replaces the AI's transposition table with a new one of the passed size, kept by later <u>init</u> calls.
      *
-     * @return The winning 'Player' enum.
+     * @param megabytes Table's size in MB, or 0 for searching without a table.
      */
-    public Player EndingScenarios()
+    public void setTranspositionTableSize(int megabytes)
     {
-        // Translates 'BitBoard' to score.
-        int scoreBLACK = Long.bitCount(board.getColorBits(BLACK));
-        int scoreWHITE = Long.bitCount(board.getColorBits(WHITE));
+        transpositionTableMegabytes = Math.max(0, megabytes);
+        transpositionTable = megabytes > 0 ? new TranspositionTable(megabytes) : null;
+    }
 
-        // GAME ENDING CASES:
 
-        // BLACK WON.
-        if (scoreBLACK > scoreWHITE)
-            return BLACK;
+    /**
+     * Sets the AI's time budget per move, overriding the game mode's default.
+     *
+     * @param timeBudget Time budget in milliseconds, or 0 for a fixed depth search.
+     */
+    public void setTimeBudget(long timeBudget)
+    {
+        this.timeBudget = timeBudget;
+    }
 
-        // WHITE won.
-        if (scoreBLACK < scoreWHITE)
-            return WHITE;
 
-        // DRAW.
-        return null;
+    /**
+     * Sets the AI's fixed search depth (used when there is no time budget), overriding the game mode's default.
+     *
+     * @param searchDepth Game-tree depth below the root moves (at least 1).
+     */
+    public void setSearchDepth(int searchDepth)
+    {
+        this.searchDepth = Math.max(1, searchDepth);
     }
 
 
     /**
-     * Checks if the game has ended, by both players not being able to play.
+     * Sets the amount of empty slots from which the AI's move is solved exactly,
+     * overriding the game mode's default.
      *
-     * @return boolean for if the game has ended.
+     * @param endgameEmpties Amount of empty slots, or 0 for never solving exactly.
      */
-    public boolean isFinished()
+    public void setEndgameEmpties(int endgameEmpties)
     {
-        return (availableMoves(BLACK) | availableMoves(WHITE)) == EMPTY_BOARD;
+        this.endgameEmpties = endgameEmpties;
     }
 
 
     /**
-     * Checks if the passed player out of moves.
+     * Sets the opening book consulted before searching.
      *
-     * @return boolean for if the player is out of moves.
+     * @param openingBook 'OpeningBook' instance, or null for always searching.
      */
-    public boolean isOutOfMoves(Player player)
+    public void setOpeningBook(OpeningBook openingBook)
     {
-        return availableMoves(player) == EMPTY_BOARD;
+        this.openingBook = openingBook;
     }
 
 
     /**
-     * Checks if there are any available moves for the current searched-for player.
+     * Sets the amount of threads searching in parallel.
      *
-     * @param currentPlayer The player the moves are searched for.
-     * @return long value of all of the available board slots move for the player.
+     * @param threads Amount of threads (1 for a serial search).
      */
-    public long availableMoves(Player currentPlayer)
+    public void setSearchThreads(int threads)
     {
-        // Long variable to act as a bit logical unit for all of the valid player moves.
-        long validMoves = EMPTY_BOARD;
+        if (searchPool != null) searchPool.shutdown();
 
-        long playerPieces = board.getColorBits(currentPlayer);
-        long opponentPieces = board.getColorBits(Player.currentOpponent(currentPlayer));
-        long emptySlots = board.emptySlots();
+        searchThreads = Math.max(1, threads);
+        searchPool = null;
+        helperModels = null;
+        allHelperModels = List.of();
+        lazySmpMoves = null;
 
-        // Checks available moves for each direction from existing player pieces.
-        for (Direction d : BitShifters.shiftDict.keySet())
+        if (searchThreads > 1)
         {
-            IBitShift shifter = BitShifters.shiftDict.get(d);
-            long potentialMoves = shifter.bitShift(playerPieces) & opponentPieces;
-
-            // While there are moves available for a certain direction:
-            // append them to the 'valid moves' long value.
-            while (potentialMoves != EMPTY_BOARD)
-            {
-                validMoves = validMoves | (shifter.bitShift(potentialMoves) & emptySlots);
-                potentialMoves = shifter.bitShift(potentialMoves) & opponentPieces;
-            }
+            searchPool = new ForkJoinPool(searchThreads);
+            helperModels = new ArrayBlockingQueue<>(searchThreads);
+            for (int i = 0; i < searchThreads; i++) helperModels.add(new Model());
+            allHelperModels = List.copyOf(helperModels);
+            lazySmpMoves = new SearchingMoves();
         }
-
-        return validMoves;
     }
 
 
     /**
-     * Check if the passed move is legal for the current player.
+     * Stops the running search from any thread, within about a thousand game-tree nodes: the
+     * search returns the best move found so far (see <u>mostEvaluatedPlay</u>).
      *
-     * @param player The player asking to play the move.
-     * @param position Player's requested move.
-     * @return boolean for if player's move is legal to do.
+     * <b>NOTE:</b> the request stays until <u>clearStopRequest</u> (also stopping the next search
+     * at once, if it comes before it starts).
      */
-    public boolean isLegalMove(Player player, long position)
+    public void requestStop()
     {
-        return (availableMoves(player) & position) != EMPTY_BOARD;
+        stopRequested = true;
+        endgameSolver.requestStop();
+        for (Model helper : allHelperModels) helper.stopRequested = true;
+
+        Thread thread = ponderThread;
+        if (thread != null) LockSupport.unpark(thread);
     }
 
 
     /**
-     * Plays player's move.
-     *
-     * @param currentPlayer Current playing player.
-     * @param coordinates 'Coordinates' instance of the played board slot.
-     * @return 'GameStatus' enum value for if the played move has been done successfully.
+     * Clears a stop request, so that the next search runs.
      */
-    public GameStatus playMove(Player currentPlayer, Coordinates coordinates)
+    public void clearStopRequest()
     {
-        return playMove(currentPlayer, BitBoard.bitPosition(coordinates));
+        stopRequested = false;
+        endgameSolver.clearStopRequest();
     }
 
 
     /**
-     * Plays player's move.
+     * Sets the way a search with more than one thread is split between the threads.
      *
-     * @param currentPlayer Current playing player.
-     * @param position long value of the playing slot of the board.
-     * @return 'GameStatus' enum value for if the played move has been done successfully.
+     * @param parallelMode 'ParallelMode' enum.
      */
-    public GameStatus playMove(Player currentPlayer, long position)
+    public void setParallelMode(ParallelMode parallelMode)
     {
-        // If played move is legal:
-        if (isLegalMove(currentPlayer, position))
-        {
-            Player currentOpponent = Player.currentOpponent(currentPlayer);
-
-            long playerPieces = board.getColorBits(currentPlayer);
-            long opponentPieces = board.getColorBits(currentOpponent);
+        this.parallelMode = parallelMode;
+    }
 
-            // Final bridge mask for the bit board's player pieces to adapt.
-            long bridgesMask = position;
 
-            // For every direction from the current player's played slot:
-            for (Direction d : BitShifters.shiftDict.keySet())
-            {
-                IBitShift shifter = BitShifters.shiftDict.get(d);
-                long bitIterator = shifter.bitShift(position);
-                long bitBridge = 0;
+    /**
+     * Sets the game-tree search algorithm.
+     *
+     * @param searchAlgorithm 'SearchAlgorithm' enum.
+     */
+    public void setSearchAlgorithm(SearchAlgorithm searchAlgorithm)
+    {
+        this.searchAlgorithm = searchAlgorithm;
+    }
 
-                // If the neighboring piece to current player's played slot is an opponent piece:
-                // Checks if there is an available bridge in that direction.
-                if ((bitIterator & opponentPieces) == bitIterator && bitIterator != EMPTY_BOARD)
-                {
-                    // While an opponent piece is in the next direction slot -> expand bit bridge.
-                    do {
-                        bitBridge = bitBridge | bitIterator;
-                        bitIterator = shifter.bitShift(bitIterator);
-                    } while ((bitIterator & opponentPieces) == bitIterator && bitIterator != EMPTY_BOARD);
-
-                    // If the last slot to complete the bridge doesn't contain one of current player's pieces:
-                    // Doesn't add the bridge to the final bridge mask (Resets variable to 0).
-                    if ((bitIterator & playerPieces) != bitIterator || bitIterator == EMPTY_BOARD)
-                    {
-                        bitBridge = EMPTY_BOARD;
-                    }
-                }
 
-                // Adapts bit Bridge for the current direction (if created).
-                bridgesMask = bridgesMask | bitBridge;
-            }
+    /**
+     * Sets the heuristic evaluating the game-tree's leaves, overriding the game mode's.
+     *
+     * @param heuristic 'IEvaluate' instance.
+     */
+    public void setHeuristic(IEvaluate heuristic)
+    {
+        this.heuristic = heuristic;
+        updatePatternAccumulator();
+    }
 
-            // Updates board's pieces by the move mask:
-            playerPieces = playerPieces | bridgesMask;
-            opponentPieces = opponentPieces & ~bridgesMask;
 
-            board.setColorBits(currentPlayer, playerPieces);
-            board.setColorBits(currentOpponent, opponentPieces);
+    /**
+     * Sets whether a 'PatternEvaluate' heuristic evaluates the game-tree's leaves incrementally: by pattern
+     * indexes updated as moves are made and unmade (see 'PatternAccumulator'), instead of reading them
+     * from every leaf's board. Both score exactly the same, but reading a leaf's board is the cheaper of the two:
+     * a leaf's places are looked up either way, and updating them costs more than reading them.
+     *
+     * @param incrementalEvaluation Evaluating incrementally, or from scratch (by default).
+     */
+    public void setIncrementalEvaluation(boolean incrementalEvaluation)
+    {
+        this.incrementalEvaluation = incrementalEvaluation;
+        updatePatternAccumulator();
+    }
+
+
+    /**
+     * Returns the incremental pattern indexes of the searched board.
+     *
+     * @return 'PatternAccumulator' instance, or null when not evaluating incrementally.
+     */
+    public PatternAccumulator getPatternAccumulator()
+    {
+        return patternAccumulator;
+    }
+
+
+    /**
+     * Returns the game's mode.
+     *
+     * @return 'GameMode' enum, or null before the game is initiated.
+     */
+    public GameMode getGameMode()
+    {
+        return gameMode;
+    }
+
+
+    /**
+     * Returns the AI's time budget per move.
+     *
+     * @return Time budget in milliseconds, or 0 for a fixed depth search.
+     */
+    public long getTimeBudget()
+    {
+        return timeBudget;
+    }
+
+
+    /**
+     * Returns the AI's move ordering (for switching its components on/off).
+     *
+     * @return 'MoveOrdering' reference.
+     */
+    public MoveOrdering getMoveOrdering()
+    {
+        return moveOrdering;
+    }
+
+
+    /**
+     * Returns the AI's transposition table (for its hit/cutoff statistics).
+     *
+     * @return 'TranspositionTable' reference, or null when searching without a table.
+     */
+    public TranspositionTable getTranspositionTable()
+    {
+        return transpositionTable;
+    }
+
+
+    /**
+     * Finds who is the winner, according to board's pieces status.
+     *
+     * @return The winning 'Player' enum.
+     */
+    public Player EndingScenarios()
+    {
+        // Translates 'BitBoard' to score.
+        int scoreBLACK = Long.bitCount(board.getColorBits(BLACK));
+        int scoreWHITE = Long.bitCount(board.getColorBits(WHITE));
+
+        // GAME ENDING CASES:
+
+        // BLACK WON.
+        if (scoreBLACK > scoreWHITE)
+            return BLACK;
+
+        // WHITE won.
+        if (scoreBLACK < scoreWHITE)
+            return WHITE;
+
+        // DRAW.
+        return null;
+    }
+
+
+    /**
+     * Checks if the game has ended, by both players not being able to play.
+     *
+     * @return boolean for if the game has ended.
+     */
+    public boolean isFinished()
+    {
+        return (availableMoves(BLACK) | availableMoves(WHITE)) == EMPTY_BOARD;
+    }
+
+
+    /**
+     * Checks if the passed player out of moves.
+     *
+     * @return boolean for if the player is out of moves.
+     */
+    public boolean isOutOfMoves(Player player)
+    {
+        return availableMoves(player) == EMPTY_BOARD;
+    }
+
+
+    /**
+     * Checks if there are any available moves for the current searched-for player.
+     *
+     * @param currentPlayer The player the moves are searched for.
+     * @return long value of all of the available board slots move for the player.
+     * @see MoveGenerator
+     */
+    public long availableMoves(Player currentPlayer)
+    {
+        long playerPieces = board.getColorBits(currentPlayer);
+        long opponentPieces = board.getColorBits(Player.currentOpponent(currentPlayer));
+
+        return MoveGenerator.availableMoves(playerPieces, opponentPieces);
+    }
+
+
+    /**
+     * Check if the passed move is legal for the current player.
+     *
+     * @param player The player asking to play the move.
+     * @param position Player's requested move.
+     * @return boolean for if player's move is legal to do.
+     */
+    public boolean isLegalMove(Player player, long position)
+    {
+        return (availableMoves(player) & position) != EMPTY_BOARD;
+    }
+
+
+    /**
+     * Plays player's move.
+     *
+     * @param currentPlayer Current playing player.
+     * @param coordinates 'Coordinates' instance of the played board slot.
+     * @return 'GameStatus' enum value for if the played move has been done successfully.
+     */
+    public GameStatus playMove(Player currentPlayer, Coordinates coordinates)
+    {
+        return playMove(currentPlayer, BitBoard.bitPosition(coordinates));
+    }
+
+
+    /**
+     * Plays player's move.
+     *
+     * @param currentPlayer Current playing player.
+     * @param position long value of the playing slot of the board.
+     * @return 'GameStatus' enum value for if the played move has been done successfully.
+     */
+    public GameStatus playMove(Player currentPlayer, long position)
+    {
+        // If played move is legal:
+        if (isLegalMove(currentPlayer, position))
+        {
+            Player currentOpponent = Player.currentOpponent(currentPlayer);
+
+            long playerPieces = board.getColorBits(currentPlayer);
+            long opponentPieces = board.getColorBits(currentOpponent);
+
+            // Final bridge mask for the bit board's player pieces to adapt.
+            long bridgesMask = MoveGenerator.computeFlips(playerPieces, opponentPieces, position);
+
+            // Updates board's pieces by the move mask:
+            board.setColorBits(currentPlayer, playerPieces | bridgesMask | position);
+            board.setColorBits(currentOpponent, opponentPieces & ~bridgesMask);
 
             return SUCCESSFUL;
         }
@@ -280,6 +779,105 @@ public class Model
     }
 
 
+    /**
+     * Plays a move taken from <u>availableMoves</u>, saving it on the undo stack.
+     *
+     * <b>NOTE:</b> unlike <u>playMove</u>, the move's legality isn't checked again, as it
+     * has just been generated. Used by the game-tree only, and must be reverted with <u>unmakeMove</u>.
+     *
+     * @param currentPlayer Current playing player.
+     * @param position long value of the playing slot of the board (a legal move).
+     * @see UndoStack
+     */
+    public void makeMove(Player currentPlayer, long position)
+    {
+        Player currentOpponent = Player.currentOpponent(currentPlayer);
+
+        long playerPieces = board.getColorBits(currentPlayer);
+        long opponentPieces = board.getColorBits(currentOpponent);
+        long flips = MoveGenerator.computeFlips(playerPieces, opponentPieces, position);
+
+        board.setColorBits(currentPlayer, playerPieces ^ (flips | position));
+        board.setColorBits(currentOpponent, opponentPieces ^ flips);
+
+        undoStack.push(position, flips);
+        if (patternAccumulator != null) patternAccumulator.push(currentPlayer, position, flips);
+    }
+
+
+    /**
+     * Reverts the last move played by <u>makeMove</u>.
+     *
+     * @param currentPlayer The player who has played the reverted move.
+     */
+    public void unmakeMove(Player currentPlayer)
+    {
+        Player currentOpponent = Player.currentOpponent(currentPlayer);
+        long flips = undoStack.topFlips();
+
+        board.setColorBits(currentPlayer, board.getColorBits(currentPlayer) ^ (flips | undoStack.topPosition()));
+        board.setColorBits(currentOpponent, board.getColorBits(currentOpponent) ^ flips);
+
+        undoStack.pop();
+        if (patternAccumulator != null) patternAccumulator.pop();
+    }
+
+
+    /**
+     * Replays a recorded game's moves from the starting position: the pieces are played on local longs
+     * (no undo stack, no 'Coordinates'), and set to the board once, at the end.
+     *
+     * The players take turns by the moves, a pass included (BLACK first), so the player to move after
+     * the replayed moves is BLACK when their amount is even.
+     *
+     * @param moves Moves, a byte each: the played slot's bit index, or <u>GameRecord.PASS</u>.
+     * @param count Amount of moves.
+     * @param verify Whether every move's legality is checked (a pass only when the player has no move).
+     * @return The amount of replayed moves: <u>count</u>, or the index of the first illegal move
+     *         (the board is left before it).
+     * @see GameRecord
+     */
+    public int replay(byte[] moves, int count, boolean verify)
+    {
+        long playerPieces = FIRST_BITS_BLACK;
+        long opponentPieces = FIRST_BITS_WHITE;
+        int i;
+
+        for (i = 0; i < count; i++)
+        {
+            int slot = moves[i];
+
+            if (slot != GameRecord.PASS)
+            {
+                long position = 1L << slot;
+
+                if (verify && (slot < 0 || slot >= GameRecord.PASS
+                        || (MoveGenerator.availableMoves(playerPieces, opponentPieces) & position) == EMPTY_BOARD))
+                {
+                    break;
+                }
+
+                long flips = MoveGenerator.computeFlips(playerPieces, opponentPieces, position);
+                playerPieces |= flips | position;
+                opponentPieces &= ~flips;
+            }
+            else if (verify && MoveGenerator.availableMoves(playerPieces, opponentPieces) != EMPTY_BOARD)
+            {
+                break;
+            }
+
+            long swap = playerPieces;
+            playerPieces = opponentPieces;
+            opponentPieces = swap;
+        }
+
+        board.setColorBits((i & 1) == 0 ? BLACK : WHITE, playerPieces);
+        board.setColorBits((i & 1) == 0 ? WHITE : BLACK, opponentPieces);
+
+        return i;
+    }
+
+
     /**
      * Returns current 'BitBoard' reference.
      *
@@ -291,6 +889,32 @@ public class Model
     }
 
 
+    /**
+     * Returns the stable discs (which can never be flipped again) of a player.
+     * Both players' stable discs are calculated once per position, and repeated calls
+     * on the same position (e.g. by the heuristic and the search) are answered from a cache.
+     *
+     * @param player The player whose stable discs are returned.
+     * @return long player's stable discs.
+     * @see Stability
+     */
+    public long stableDiscs(Player player)
+    {
+        long blackBits = board.getColorBits(BLACK);
+        long whiteBits = board.getColorBits(WHITE);
+
+        if (blackBits != stableBlackBits || whiteBits != stableWhiteBits)
+        {
+            stableBlackBits = blackBits;
+            stableWhiteBits = whiteBits;
+            stableBlack = Stability.stableDiscs(blackBits, whiteBits);
+            stableWhite = Stability.stableDiscs(whiteBits, blackBits);
+        }
+
+        return player == BLACK ? stableBlack : stableWhite;
+    }
+
+
     // AI related work:
 
 
@@ -316,6 +940,16 @@ public class Model
      */
     public int gameTree(int depth, Player currentPlayer, int alpha, int beta)
     {
+        // Out of time / stopped: unwinds the game-tree (the returned score is thrown away).
+        if ((++nodeCounter & CLOCK_CHECK_MASK) == 0)
+        {
+            if (stopRequested || completedPlay.get() != null || System.nanoTime() >= deadline) searchAborted = true;
+            else if (cpuShare < 1) pause();
+        }
+        if (searchAborted) return 0;
+
+        statistics.countNode();
+
         Player currentOpponent = Player.currentOpponent(currentPlayer);
 
         long playerMoves = availableMoves(currentPlayer);
@@ -323,9 +957,12 @@ public class Model
 
         // Leaf in a game tree:
         // If the game has ended / depth reached to 0.
+        // The score is returned from the point of view of the player who has moved into the leaf.
         if (depth == 0 || (playerMoves | opponentMoves) == EMPTY_BOARD) {
-            int score = heuristic.evaluate(this, currentOpponent);
-            return -1 * currentPlayer.label * score;
+            statistics.countLeaf();
+
+            // Both players' moves are passed on, so a heuristic counting them doesn't calculate them again.
+            return heuristic.evaluateLeaf(this, currentOpponent, opponentMoves, playerMoves);
         }
 
         // Turn skip in a game tree:
@@ -334,116 +971,894 @@ public class Model
             return -1 * gameTree(depth - 1, currentOpponent, -beta, -alpha);
         }
 
-        BitBoard boardCopy = new BitBoard();
-        BitBoard.copyBoard(board, boardCopy);
+        // Transposition table lookup:
+        // A position already searched deep enough may return its stored score (from current player's POV).
+        long key = 0;
+        int alphaOriginal = alpha;
+        int ttMove = TranspositionTable.NO_MOVE;
+
+        if (transpositionTable != null)
+        {
+            key = Zobrist.hash(board, currentPlayer);
+            long entry = transpositionTable.probe(key);
+            statistics.countProbe(entry != TranspositionTable.MISS);
+
+            // Even a too shallow entry's best move is worth searching first.
+            if (entry != TranspositionTable.MISS) ttMove = TranspositionTable.bestMove(entry);
+
+            if (entry != TranspositionTable.MISS && TranspositionTable.depth(entry) >= depth)
+            {
+                int storedScore = TranspositionTable.score(entry);
+                int bound = TranspositionTable.bound(entry);
+
+                if (bound == TranspositionTable.EXACT)
+                {
+                    transpositionTable.countCutoff();
+                    return -storedScore;
+                }
+                if (bound == TranspositionTable.LOWER && storedScore >= beta)
+                {
+                    transpositionTable.countCutoff();
+                    return -beta;
+                }
+                if (bound == TranspositionTable.UPPER && storedScore <= alpha)
+                {
+                    transpositionTable.countCutoff();
+                    return -alpha;
+                }
+            }
+        }
 
         int score = -Integer.MAX_VALUE;
-        long moveIterator = 1L;
+        int bestMove = TranspositionTable.NO_MOVE;
+
+        // Ordering the available moves, best candidates first.
+        int ply = undoStack.size();
+        int moveCount = moveOrdering.orderMoves(ply, playerMoves, ttMove, depth, currentPlayer,
+                board.getColorBits(currentPlayer), board.getColorBits(currentOpponent));
 
-        int bitTrailingZeroCount;
+        // Lazy SMP: the moves other threads are searching are deferred, and searched after the rest (see 'SearchingMoves').
+        SearchingMoves searchingMoves = depth >= DEFER_DEPTH ? this.searchingMoves : null;
+        int searchedMoves = searchingMoves == null ? moveCount : 2 * moveCount;
+        deferredMoves[ply] = EMPTY_BOARD;
 
         /*
-         * While there are still available moves:
+         * For every available move (by order, then the deferred moves by order):
          * Move down on the game-tree as the move was actually played and calculate its
          * score according to heuristic function of its game difficulty.
          */
-        while (playerMoves != EMPTY_BOARD)
+        for (int i = 0; i < searchedMoves; i++)
         {
-            // Retrieving the next bit position available move.
-            bitTrailingZeroCount = Long.numberOfTrailingZeros(playerMoves);
-            moveIterator = moveIterator << bitTrailingZeroCount;
+            int square = moveOrdering.moveAt(ply, i % moveCount);
+            long moveKey = SearchingMoves.moveKey(key, square);
 
-            // Translating move from bit position, playing it as a branch.
-            playMove(currentPlayer, moveIterator);
+            if (searchingMoves != null && !startMove(searchingMoves, moveKey, square, ply, i, moveCount)) continue;
 
-            // Updating the maximum score and alpha's score accordingly.
-            score = Math.max(score, gameTree(depth - 1, currentOpponent, -beta, -alpha));
-            alpha = Math.max(alpha, score);
+            // Playing the generated move as a branch (no legality check needed).
+            makeMove(currentPlayer, 1L << square);
 
-            // Reversing the last move that was made, and moving on to the next bit position move.
-            BitBoard.copyBoard(boardCopy, board);
-            playerMoves = playerMoves >>> bitTrailingZeroCount;
-            playerMoves = playerMoves >>> 1;
-            moveIterator = moveIterator << 1;
+            // Updating the maximum score, best move and alpha's score accordingly.
+            int moveScore;
 
-            // If floor alpha parameter as reached the ceiling: exit.
-            if (alpha >= beta)
+            if (i == 0 || searchAlgorithm == SearchAlgorithm.ALPHA_BETA)
             {
-                return -beta;
+                moveScore = gameTree(depth - 1, currentOpponent, -beta, -alpha);
             }
-        }
-
-        // Returns the negative of the best found score.
-        return -1 * score;
-    }
-
+            else
+            {
+                // PVS: a null window only proves the move isn't better than alpha.
+                // If it is better after all, the move is searched again with the full window.
+                moveScore = gameTree(depth - 1, currentOpponent, -alpha - 1, -alpha);
+
+                if (moveScore > alpha && moveScore < beta && !searchAborted)
+                {
+                    moveScore = gameTree(depth - 1, currentOpponent, -beta, -alpha);
+                }
+            }
+
+            if (searchingMoves != null) searchingMoves.finish(moveKey);
+
+            // An aborted branch's score is meaningless: reverts the move and unwinds.
+            if (searchAborted)
+            {
+                unmakeMove(currentPlayer);
+                return 0;
+            }
+
+            if (moveScore > score)
+            {
+                score = moveScore;
+                bestMove = square;
+            }
+            alpha = Math.max(alpha, score);
+
+            // Reversing the last move that was made.
+            unmakeMove(currentPlayer);
+
+            // If floor alpha parameter as reached the ceiling: exit.
+            if (alpha >= beta)
+            {
+                statistics.countCutoff(i == 0);
+                moveOrdering.recordCutoff(ply, square, depth, currentPlayer);
+
+                if (transpositionTable != null)
+                {
+                    transpositionTable.store(key, depth, TranspositionTable.LOWER, beta, bestMove);
+                }
+                return -beta;
+            }
+        }
+
+        if (transpositionTable != null)
+        {
+            int bound = score <= alphaOriginal ? TranspositionTable.UPPER : TranspositionTable.EXACT;
+            transpositionTable.store(key, depth, bound, score, bestMove);
+        }
+
+        // Returns the negative of the best found score.
+        return -1 * score;
+    }
+
 
     /**
-     * Returns the best position play for the player.
-     * The algorithm runs through all of the available moves for the current
-     * player, and returns the board coordinates for the most evaluated play.
+     * Returns the best position play for the player, searched according to the
+     * AI's time budget (or to its fixed search depth, when there is no budget).
      *
      * @param currentPlayer The player the move is searched for.
      * @return 'Move' instance (sub-class of 'Coordinates').
      */
     public Move mostEvaluatedPlay(Player currentPlayer)
+    {
+        return mostEvaluatedPlay(currentPlayer, timeBudget);
+    }
+
+
+    /**
+     * Returns the best position play for the player.
+     *
+     * An opening book position is answered by the book move. Otherwise, with no time budget, the game-tree is searched once to the search depth.
+     * Otherwise, it is searched by <b>iterative deepening</b>: depth 1, 2, 3... until the budget
+     * runs out. The unfinished iteration is aborted, and the move of the last completed depth
+     * is returned (depth 1 is always completed, so a move is always found).
+     *
+     * A search stopped by <u>requestStop</u> returns the best move found so far: the last completed
+     * depth's, else the best of the root moves searched so far, else the transposition table's (or the
+     * first available) move - flagged as <u>stopped</u>.
+     *
+     * @param currentPlayer The player the move is searched for.
+     * @param timeBudget Time budget in milliseconds, or 0 for a fixed depth search.
+     * @return 'Move' instance (sub-class of 'Coordinates'), including the depth reached.
+     */
+    public Move mostEvaluatedPlay(Player currentPlayer, long timeBudget)
     {
         // "No available move" as the difficult returned move,
         // in the case of player having no available moves.
         Move bestPlay = new Move(0, 0);
 
-        long playerMoves = availableMoves(currentPlayer);
+        if (availableMoves(currentPlayer) == EMPTY_BOARD) return bestPlay;
+
+        statistics.clear();
+
+        // A book position is played without searching (the book move's depth is 0).
+        if (openingBook != null && openingBook.lookup(board.getColorBits(BLACK), board.getColorBits(WHITE),
+                currentPlayer, bestPlay))
+        {
+            return withStatistics(bestPlay);
+        }
+
+        if (transpositionTable != null) transpositionTable.newSearch();
+        moveOrdering.newSearch();
+        searchCount++;
+        resetPatternAccumulator();
+
+        long searchStart = System.nanoTime();
+        int emptySlots = Long.bitCount(board.emptySlots());
+
+        // Endgame: solved exactly when the solver finishes (within half of the time budget, if there is one).
+        if (emptySlots <= endgameEmpties && !stopRequested)
+        {
+            long solverDeadline = timeBudget <= 0 ? NO_DEADLINE : searchStart + timeBudget * 500_000L;
+            boolean solved = solveEndgame(currentPlayer, solverDeadline, bestPlay);
+
+            statistics.countNodes(endgameSolver.getNodes());
+            if (solved)
+            {
+                statistics.endIteration(emptySlots, System.nanoTime() - searchStart);
+                return withStatistics(bestPlay);
+            }
+        }
+
+        // Fixed depth search:
+        if (timeBudget <= 0)
+        {
+            long iterationStart = System.nanoTime();
+            statistics.startIteration();
+
+            searchRoot(currentPlayer, searchDepth, bestPlay, -Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+            if (!searchAborted) statistics.endIteration(searchDepth, System.nanoTime() - iterationStart);
+            return finishSearch(currentPlayer, bestPlay);
+        }
 
-        if (playerMoves == EMPTY_BOARD) return bestPlay;
+        long searchDeadline = searchStart + timeBudget * 1_000_000L;
+        Move iterationPlay = new Move(0, 0);
 
+        for (int depth = 1; depth <= MAX_DEPTH; depth++)
+        {
+            // The first iteration always completes, so there is a move to return.
+            deadline = depth == 1 ? NO_DEADLINE : searchDeadline;
+
+            long iterationStart = System.nanoTime();
+            statistics.startIteration();
+
+            // PVS: the iteration starts with an aspiration window around the previous iteration's score.
+            int alpha = -Integer.MAX_VALUE;
+            int beta = Integer.MAX_VALUE;
+
+            if (usesAspirationWindows() && depth > 1 && Math.abs(bestPlay.score) != Integer.MAX_VALUE)
+            {
+                alpha = (int) Math.max(-Integer.MAX_VALUE, (long) bestPlay.score - ASPIRATION_WINDOW);
+                beta = (int) Math.min(Integer.MAX_VALUE, (long) bestPlay.score + ASPIRATION_WINDOW);
+            }
+
+            // If the score falls outside of the window, the iteration is searched again with
+            // that side of the window opened.
+            while (true)
+            {
+                iterationPlay.updateMove(0, 0, -Integer.MAX_VALUE);
+                searchRoot(currentPlayer, depth, iterationPlay, alpha, beta);
+
+                if (searchAborted) break;
+
+                if (iterationPlay.score <= alpha && alpha != -Integer.MAX_VALUE) alpha = -Integer.MAX_VALUE;
+                else if (iterationPlay.score >= beta && beta != Integer.MAX_VALUE) beta = Integer.MAX_VALUE;
+                else break;
+            }
+
+            if (searchAborted)
+            {
+                // Stopped during the first iteration: its best root move so far.
+                if (bestPlay.x_position == 0 && iterationPlay.x_position != 0)
+                {
+                    bestPlay.updateMove(iterationPlay.y_position, iterationPlay.x_position, iterationPlay.score);
+                    bestPlay.depth = depth;
+                }
+                break;
+            }
+
+            statistics.endIteration(depth, System.nanoTime() - iterationStart);
+
+            bestPlay.updateMove(iterationPlay.y_position, iterationPlay.x_position, iterationPlay.score);
+            bestPlay.depth = depth;
+
+            // Stops deepening when the game's result is known, the whole game has been searched,
+            // the next iteration surely won't finish in time, or the search has been stopped.
+            if (Math.abs(bestPlay.score) == Integer.MAX_VALUE || depth >= emptySlots
+                    || System.nanoTime() >= searchDeadline || stopRequested)
+            {
+                break;
+            }
+        }
+
+        return finishSearch(currentPlayer, bestPlay);
+    }
+
+
+    /**
+     * Ends a game-tree search: resets the search state, and makes sure that a stopped search
+     * still returns a move (the transposition table's best move, or the first available move).
+     *
+     * @param currentPlayer The player the move is searched for.
+     * @param bestPlay The searched 'Move'.
+     * @return The same 'Move' instance.
+     */
+    private Move finishSearch(Player currentPlayer, Move bestPlay)
+    {
+        bestPlay.stopped = stopRequested;
+
+        if (bestPlay.x_position == 0)
+        {
+            long moves = availableMoves(currentPlayer);
+            long position = Long.lowestOneBit(moves);
+
+            if (transpositionTable != null)
+            {
+                long entry = transpositionTable.probe(Zobrist.hash(board, currentPlayer));
+                int square = entry == TranspositionTable.MISS ? TranspositionTable.NO_MOVE : TranspositionTable.bestMove(entry);
+
+                if (square != TranspositionTable.NO_MOVE && (moves & (1L << square)) != EMPTY_BOARD) position = 1L << square;
+            }
+
+            Coordinates coordinates = BitBoard.boardPosition(position);
+            bestPlay.updateMove(coordinates.y_position, coordinates.x_position, bestPlay.score);
+        }
+
+        deadline = NO_DEADLINE;
+        searchAborted = false;
+
+        return withStatistics(bestPlay);
+    }
+
+
+    /**
+     * Ponders on the opponent's time: while the opponent (e.g. the human) thinks, predicts its reply
+     * and searches the position after it for the AI, by iterative deepening, until <u>requestStop</u>.
+     *
+     * The search's results are kept in the transposition table (and move ordering), so when the opponent
+     * plays the predicted reply, the AI's next <u>mostEvaluatedPlay</u> passes the pondered depths
+     * through the table, and goes on deeper within its time budget instead of starting over.
+     *
+     * Pondering searches on one thread, pausing so that it takes at most the passed share of its core.
+     * The board is left as it was.
+     *
+     * @param currentPlayer The player to move (whose reply is predicted).
+     * @param cpuShare Share of a CPU core taken by the pondering (above 0, at most 1).
+     * @return 'Move' of the predicted reply, with the depth pondered after it, or null when there's nothing to ponder.
+     */
+    public Move ponder(Player currentPlayer, double cpuShare)
+    {
+        long moves = availableMoves(currentPlayer);
+        if (moves == EMPTY_BOARD || stopRequested) return null;
+
+        resetPatternAccumulator();
+
+        // The predicted reply: the transposition table's best move (from the AI's last search),
+        // else the best move by a depth 1 search.
+        long predicted = EMPTY_BOARD;
+
+        if (transpositionTable != null)
+        {
+            long entry = transpositionTable.probe(Zobrist.hash(board, currentPlayer));
+            int square = entry == TranspositionTable.MISS ? TranspositionTable.NO_MOVE : TranspositionTable.bestMove(entry);
+
+            if (square != TranspositionTable.NO_MOVE) predicted = moves & (1L << square);
+        }
+        if (predicted == EMPTY_BOARD)
+        {
+            Move reply = new Move(0, 0);
+            searchRootSerial(currentPlayer, 1, reply, -Integer.MAX_VALUE, Integer.MAX_VALUE);
+            predicted = searchAborted ? Long.lowestOneBit(moves) : BitBoard.bitPosition(reply);
+        }
+
+        Coordinates coordinates = BitBoard.boardPosition(predicted);
+        Move ponderPlay = new Move(coordinates.y_position, coordinates.x_position);
+        Player aiPlayer = Player.currentOpponent(currentPlayer);
+
+        if (transpositionTable != null) transpositionTable.newSearch();
+        moveOrdering.newSearch();
+        searchCount++;
+
+        this.cpuShare = cpuShare;
+        ponderThread = Thread.currentThread();
+        sliceStart = System.nanoTime();
+        makeMove(currentPlayer, predicted);
+
+        try
+        {
+            int emptySlots = Long.bitCount(board.emptySlots());
+            Move iterationPlay = new Move(0, 0);
+
+            if (availableMoves(aiPlayer) == EMPTY_BOARD) return ponderPlay;
+
+            for (int depth = 1; depth <= emptySlots && !stopRequested; depth++)
+            {
+                iterationPlay.updateMove(0, 0, -Integer.MAX_VALUE);
+                searchRootSerial(aiPlayer, depth, iterationPlay, -Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+                if (searchAborted) break;
+
+                ponderPlay.depth = depth;
+                if (Math.abs(iterationPlay.score) == Integer.MAX_VALUE) break;
+            }
+        }
+        finally
+        {
+            unmakeMove(currentPlayer);
+
+            this.cpuShare = 1;
+            ponderThread = null;
+            searchAborted = false;
+        }
+
+        return ponderPlay;
+    }
+
+
+    /**
+     * Pauses the pondering at a clock check, for as long as keeps it within its CPU share
+     * (woken at once by a stop request).
+     */
+    private void pause()
+    {
+        long slice = System.nanoTime() - sliceStart;
+        LockSupport.parkNanos((long) (slice * (1 - cpuShare) / cpuShare));
+        sliceStart = System.nanoTime();
+    }
+
+
+    /**
+     * Attaches a copy of the search's statistics to the searched move, when they are counted.
+     *
+     * @param bestPlay The searched 'Move'.
+     * @return The same 'Move' instance.
+     * @see SearchStatistics
+     */
+    private Move withStatistics(Move bestPlay)
+    {
+        if (SearchStatistics.ENABLED) bestPlay.statistics = statistics.copy();
+        return bestPlay;
+    }
+
+
+    /**
+     * Returns the statistics of the last search (empty, unless <u>SearchStatistics.ENABLED</u>).
+     *
+     * @return 'SearchStatistics' reference, reused by the next search.
+     */
+    public SearchStatistics getStatistics()
+    {
+        return statistics;
+    }
+
+
+    /**
+     * Solves the player's best move exactly by the endgame solver, sharing the game-tree's
+     * transposition table. The solved move's score is its final disc differential, and its
+     * depth the amount of empty slots (searched to the end of the game).
+     *
+     * @param currentPlayer The player the move is solved for (must have an available move).
+     * @param solverDeadline System.nanoTime deadline of the solver, or <u>NO_DEADLINE</u>.
+     * @param bestPlay 'Move' instance to be updated.
+     * @return boolean for if the solver has finished before its deadline (else, the 'Move' is left as it was).
+     * @see EndgameSolver
+     */
+    private boolean solveEndgame(Player currentPlayer, long solverDeadline, Move bestPlay)
+    {
+        endgameSolver.setTranspositionTable(transpositionTable);
+        endgameSolver.setDeadline(solverDeadline);
+        endgameSolver.solveRoot(board.getColorBits(currentPlayer),
+                board.getColorBits(Player.currentOpponent(currentPlayer)), false, bestPlay);
+
+        return !endgameSolver.isAborted();
+    }
+
+
+    /**
+     * Searches every available move of the player to the passed depth (the root of the game-tree),
+     * updating the passed 'Move' to the most evaluated play - serially, or in parallel
+     * by the set 'ParallelMode'.
+     *
+     * @param currentPlayer The player the move is searched for (must have an available move).
+     * @param depth Game-tree depth below the root moves.
+     * @param bestPlay 'Move' instance to be updated (its score must be minus infinity).
+     * @param alpha Root's floor score (a score at or below it is only an upper bound).
+     * @param beta Root's ceiling score (a score at or above it is only a lower bound).
+     */
+    private void searchRoot(Player currentPlayer, int depth, Move bestPlay, int alpha, int beta)
+    {
+        if (searchThreads > 1 && parallelMode == ParallelMode.ROOT_SPLIT)
+        {
+            searchRootParallel(currentPlayer, depth, bestPlay);
+        }
+        else if (searchThreads > 1 && parallelMode == ParallelMode.LAZY_SMP)
+        {
+            searchRootLazySmp(currentPlayer, depth, bestPlay, alpha, beta);
+        }
+        else
+        {
+            searchRootSerial(currentPlayer, depth, bestPlay, alpha, beta);
+        }
+    }
+
+
+    /**
+     * Checks if iterative deepening uses aspiration windows: only PVS does, and only when the
+     * root is searched by a single thread (the parallel root search always uses the full window).
+     *
+     * @return boolean for if the iterations start with an aspiration window.
+     */
+    private boolean usesAspirationWindows()
+    {
+        return searchAlgorithm == SearchAlgorithm.PVS && (searchThreads == 1 || parallelMode != ParallelMode.ROOT_SPLIT);
+    }
+
+
+    /**
+     * Serial version of <u>searchRoot</u>, searching the root moves one after the other.
+     *
+     * @param currentPlayer The player the move is searched for (must have an available move).
+     * @param depth Game-tree depth below the root moves.
+     * @param bestPlay 'Move' instance to be updated (its score must be minus infinity).
+     * @param alpha Root's floor score.
+     * @param beta Root's ceiling score.
+     */
+    private void searchRootSerial(Player currentPlayer, int depth, Move bestPlay, int alpha, int beta)
+    {
+        long playerMoves = availableMoves(currentPlayer);
         Player currentOpponent = Player.currentOpponent(currentPlayer);
+        int alphaOriginal = alpha;
+
+        // The previous iteration's (or turn's) best move is searched first.
+        long key = 0;
+        int ttMove = TranspositionTable.NO_MOVE;
+        int bestSquare = TranspositionTable.NO_MOVE;
+
+        if (transpositionTable != null)
+        {
+            key = Zobrist.hash(board, currentPlayer);
+            long entry = transpositionTable.probe(key);
+            statistics.countProbe(entry != TranspositionTable.MISS);
+            if (entry != TranspositionTable.MISS) ttMove = TranspositionTable.bestMove(entry);
+        }
 
-        // Copy of the board, to revert the board after each play.
-        BitBoard boardCopy = new BitBoard();
-        BitBoard.copyBoard(board, boardCopy);
+        int ply = undoStack.size();
+        int moveCount = moveOrdering.orderMoves(ply, playerMoves, ttMove, depth + 1, currentPlayer,
+                board.getColorBits(currentPlayer), board.getColorBits(currentOpponent));
 
-        // Long move iterator, to move through all of the available move positions.
-        long moveIterator = 1L;
+        // Lazy SMP: the root moves other threads are searching are deferred as well.
+        SearchingMoves searchingMoves = this.searchingMoves;
+        int searchedMoves = searchingMoves == null ? moveCount : 2 * moveCount;
+        deferredMoves[ply] = EMPTY_BOARD;
 
-        int bitTrailingZeroCount, currentMoveScore;
+        int currentMoveScore;
 
         /*
-         * While there are still available moves:
+         * For every available move (by order, then the deferred moves by order):
          * Move down on the game-tree as the move was actually played and calculate its
          * score according to heuristic function of its game difficulty.
          */
-        while (playerMoves != EMPTY_BOARD)
+        for (int i = 0; i < searchedMoves; i++)
         {
-            // Retrieving the next bit position available move.
-            bitTrailingZeroCount = Long.numberOfTrailingZeros(playerMoves);
-            moveIterator = moveIterator << bitTrailingZeroCount;
+            int square = moveOrdering.moveAt(ply, i % moveCount);
+            long position = 1L << square;
+            long moveKey = SearchingMoves.moveKey(key, square);
+
+            if (searchingMoves != null && !startMove(searchingMoves, moveKey, square, ply, i, moveCount)) continue;
 
             // Translating move from bit position, playing it as a branch.
-            Coordinates potentialMove = BitBoard.boardPosition(moveIterator);
-            playMove(currentPlayer, moveIterator);
+            Coordinates potentialMove = BitBoard.boardPosition(position);
+            makeMove(currentPlayer, position);
+
+            // Calculate the score of the current tested move (from the player's point of view).
+            if (i == 0 || searchAlgorithm == SearchAlgorithm.ALPHA_BETA)
+            {
+                currentMoveScore = gameTree(depth, currentOpponent, -beta, -alpha);
+            }
+            else
+            {
+                // PVS: null window first, re-searched with the full window only if it fails high.
+                currentMoveScore = gameTree(depth, currentOpponent, -alpha - 1, -alpha);
 
-            // Calculate the score of the current tested move.
-            currentMoveScore = currentPlayer.label * gameTree(gameMode.depth, currentOpponent, -Integer.MAX_VALUE, -bestPlay.score);
+                if (currentMoveScore > alpha && currentMoveScore < beta && !searchAborted)
+                {
+                    currentMoveScore = gameTree(depth, currentOpponent, -beta, -alpha);
+                }
+            }
+
+            if (searchingMoves != null) searchingMoves.finish(moveKey);
+
+            // Reversing the last move that was made.
+            unmakeMove(currentPlayer);
+
+            // Out of time: the unfinished root is thrown away.
+            if (searchAborted) return;
 
             // If found score is better than current's best -> update best play's properties.
-            if (currentMoveScore >= bestPlay.score)
+            // A move which isn't better returns the best score itself (the window's bound), so equal
+            // scores are skipped - except for the first move, which always becomes the best play.
+            if (currentMoveScore > bestPlay.score || bestPlay.x_position == 0)
             {
                 bestPlay.updateMove(potentialMove.y_position, potentialMove.x_position, currentMoveScore);
+                bestPlay.depth = depth;
+                bestSquare = square;
+            }
+
+            alpha = Math.max(alpha, currentMoveScore);
+
+            // If player found a winning play / the score has failed high above the root's ceiling: break.
+            if (bestPlay.score == Integer.MAX_VALUE || alpha >= beta) break;
+        }
+
+        // Stores the root's best move, for ordering the next iteration (its score bounded
+        // as the game-tree's, when the aspiration window has failed low or high).
+        if (transpositionTable != null)
+        {
+            int bound = bestPlay.score <= alphaOriginal ? TranspositionTable.UPPER
+                    : bestPlay.score >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+            transpositionTable.store(key, depth + 1, bound, bestPlay.score, bestSquare);
+        }
+    }
+
+
+    /**
+     * Starts searching a move of a <i>Lazy SMP</i> node - unless it's deferred: a move other than the node's
+     * first one (which all the threads search, for the rest's bound) is deferred while another thread searches
+     * it, and searched by the second pass over the node's moves (<i>moveIndex</i> from <i>moveCount</i> on),
+     * which skips the moves that weren't deferred.
+     *
+     * @param searchingMoves The moves being searched by the Lazy SMP threads.
+     * @param moveKey Key of the move (see <u>SearchingMoves.moveKey</u>).
+     * @param square Board slot index (bit number) of the move.
+     * @param ply Game-tree ply of the node.
+     * @param moveIndex Index of the move in the node's moves order, plus <i>moveCount</i> in the second pass.
+     * @param moveCount Amount of the node's moves.
+     * @return boolean for if the move is searched now (marked as searched until <u>SearchingMoves.finish</u>).
+     */
+    private boolean startMove(SearchingMoves searchingMoves, long moveKey, int square, int ply, int moveIndex, int moveCount)
+    {
+        long position = 1L << square;
+
+        if (moveIndex >= moveCount)
+        {
+            if ((deferredMoves[ply] & position) == EMPTY_BOARD) return false;
+        }
+        else if (moveIndex > 0 && searchingMoves.isSearched(moveKey))
+        {
+            deferredMoves[ply] |= position;
+            return false;
+        }
+
+        searchingMoves.start(moveKey);
+        return true;
+    }
+
+
+    /**
+     * Parallel version of <u>searchRoot</u>: the root moves are ordered the same way, the first
+     * one is searched by this thread, and the rest are spread over the search thread pool.
+     *
+     * Every helper thread searches with its own helper 'Model', and takes its alpha bound from
+     * a shared 'RootBound' when it starts a move, so later moves are still pruned. Ties are
+     * broken by the root order, so the best move is the same as the serial search's.
+     *
+     * @param currentPlayer The player the move is searched for (must have an available move).
+     * @param depth Game-tree depth below the root moves.
+     * @param bestPlay 'Move' instance to be updated.
+     * @see RootBound
+     */
+    private void searchRootParallel(Player currentPlayer, int depth, Move bestPlay)
+    {
+        Player currentOpponent = Player.currentOpponent(currentPlayer);
+
+        long key = 0;
+        int ttMove = TranspositionTable.NO_MOVE;
+
+        if (transpositionTable != null)
+        {
+            key = Zobrist.hash(board, currentPlayer);
+            long entry = transpositionTable.probe(key);
+            statistics.countProbe(entry != TranspositionTable.MISS);
+            if (entry != TranspositionTable.MISS) ttMove = TranspositionTable.bestMove(entry);
+        }
+
+        int ply = undoStack.size();
+        int moveCount = moveOrdering.orderMoves(ply, availableMoves(currentPlayer), ttMove, depth + 1, currentPlayer,
+                board.getColorBits(currentPlayer), board.getColorBits(currentOpponent));
+
+        int[] rootMoves = new int[moveCount];
+        for (int i = 0; i < moveCount; i++) rootMoves[i] = moveOrdering.moveAt(ply, i);
+
+        RootBound rootBound = new RootBound();
+
+        // The first move is searched alone, giving the rest a bound to be pruned by.
+        searchRootMove(currentPlayer, depth, rootMoves, 0, rootBound);
+
+        if (!searchAborted && moveCount > 1)
+        {
+            List<Callable<Void>> tasks = new ArrayList<>(moveCount - 1);
+
+            for (int i = 1; i < moveCount; i++)
+            {
+                int index = i;
+                tasks.add(() -> {
+                    Model helper = helperModels.take();
+                    try {
+                        helper.prepareHelper(this);
+                        helper.searchRootMove(currentPlayer, depth, rootMoves, index, rootBound);
+                        if (helper.searchAborted) searchAborted = true;
+                    } finally {
+                        helperModels.put(helper);
+                    }
+                    return null;
+                });
+            }
+
+            try {
+                for (Future<Void> task : searchPool.invokeAll(tasks)) task.get();
+            } catch (InterruptedException | ExecutionException e) {
+                throw new IllegalStateException("Parallel root search has failed.", e);
             }
 
-            // Reversing the last move that was made, and moving on to the next bit position move.
-            BitBoard.copyBoard(boardCopy, board);
-            playerMoves = playerMoves >>> bitTrailingZeroCount;
-            playerMoves = playerMoves >>> 1;
-            moveIterator = moveIterator << 1;
+            // Every helper is back in the queue once all of the tasks are done.
+            if (SearchStatistics.ENABLED) for (Model helper : helperModels) statistics.merge(helper.statistics);
+        }
+
+        // Out of time: the unfinished root is thrown away.
+        if (searchAborted) return;
+
+        int bestSquare = rootMoves[rootBound.getIndex()];
+        Coordinates potentialMove = BitBoard.boardPosition(1L << bestSquare);
+        bestPlay.updateMove(potentialMove.y_position, potentialMove.x_position, rootBound.getScore());
+        bestPlay.depth = depth;
+
+        // Stores the root's best move, for ordering the next iteration.
+        if (transpositionTable != null)
+        {
+            transpositionTable.store(key, depth + 1, TranspositionTable.EXACT, bestPlay.score, bestSquare);
+        }
+    }
+
+
+    /**
+     * Searches a single root move of a parallel root search, offering its score to the shared bound.
+     *
+     * @param currentPlayer The player the move is searched for.
+     * @param depth Game-tree depth below the root move.
+     * @param rootMoves Ordered board slot indexes of the root moves.
+     * @param index Root order index of the searched move.
+     * @param rootBound Shared best score of the root moves.
+     */
+    private void searchRootMove(Player currentPlayer, int depth, int[] rootMoves, int index, RootBound rootBound)
+    {
+        // If player has already found a winning play: skip.
+        if (rootBound.getScore() == Integer.MAX_VALUE) return;
+
+        long position = 1L << rootMoves[index];
+
+        makeMove(currentPlayer, position);
+        int score = gameTree(depth, Player.currentOpponent(currentPlayer), -Integer.MAX_VALUE,
+                -rootBound.alphaFor(index));
+        unmakeMove(currentPlayer);
+
+        if (!searchAborted) rootBound.offer(score, index);
+    }
+
+
+    /**
+     * Sets up a helper 'Model' of the parallel root search with the searching instance's
+     * position, game mode, transposition table and deadline.
+     *
+     * @param main The searching 'Model' instance.
+     */
+    private void prepareHelper(Model main)
+    {
+        BitBoard.copyBoard(main.board, board);
+        gameMode = main.gameMode;
+        heuristic = main.heuristic;
+        incrementalEvaluation = main.incrementalEvaluation;
+        updatePatternAccumulator();
+        resetPatternAccumulator();
+        transpositionTable = main.transpositionTable;
+        searchingMoves = main.searchingMoves;
+        searchAlgorithm = main.searchAlgorithm;
+
+        // A new search: the helper's killer moves are of the last one's plies, and its history is aged.
+        if (searchCount != main.searchCount)
+        {
+            moveOrdering.newSearch();
+            searchCount = main.searchCount;
+        }
+
+        deadline = main.deadline;
+        searchAborted = false;
+        stopRequested = main.stopRequested;
+    }
+
+
+    /**
+     * Creates (or drops) the incremental pattern indexes, by the heuristic and the evaluation mode.
+     */
+    private void updatePatternAccumulator()
+    {
+        if (!incrementalEvaluation || !(heuristic instanceof PatternEvaluate)) patternAccumulator = null;
+        else if (patternAccumulator == null) patternAccumulator = new PatternAccumulator();
+    }
+
+
+    /**
+     * Reads the board into the incremental pattern indexes, at the root of a search.
+     */
+    private void resetPatternAccumulator()
+    {
+        if (patternAccumulator != null) patternAccumulator.reset(board.getColorBits(BLACK), board.getColorBits(WHITE));
+    }
+
+
+    /**
+     * <i>Lazy SMP</i> version of <u>searchRoot</u>: every helper thread searches the whole
+     * game-tree from the root at the same time as this thread, by iterative deepening from this
+     * thread's depth on.
+     *
+     * The threads share the (lock free) transposition table - filling it with searched positions and
+     * best moves, which the others then cut off and order by - and the moves they are searching, which
+     * the others defer (see 'SearchingMoves'), so they spread over a node's moves.
+     * The first thread to complete this thread's depth ends the search: a helper's result is used when it
+     * completes first, and the helpers are stopped as soon as the search ends.
+     *
+     * @param currentPlayer The player the move is searched for (must have an available move).
+     * @param depth Game-tree depth below the root moves.
+     * @param bestPlay 'Move' instance to be updated (its score must be minus infinity).
+     * @param alpha Root's floor score of this thread's search.
+     * @param beta Root's ceiling score of this thread's search.
+     */
+    private void searchRootLazySmp(Player currentPlayer, int depth, Move bestPlay, int alpha, int beta)
+    {
+        List<Model> helpers = new ArrayList<>(searchThreads - 1);
+        List<Future<?>> searches = new ArrayList<>(searchThreads - 1);
+
+        // Moves are keyed by their nodes' keys, calculated for the transposition table.
+        searchingMoves = transpositionTable != null ? lazySmpMoves : null;
+        completedPlay.set(null);
+
+        // Deeper than the board's empty slots, a search only plays the same whole game again.
+        int lastDepth = Math.max(depth, Math.min(MAX_DEPTH, Long.bitCount(board.emptySlots())));
+
+        for (int i = 1; i < searchThreads; i++)
+        {
+            Model helper = helperModels.remove();
+
+            helper.prepareHelper(this);
+            helpers.add(helper);
+            searches.add(searchPool.submit(() -> helper.searchHelperIterations(this, currentPlayer, depth, lastDepth)));
+        }
+
+        searchRootSerial(currentPlayer, depth, bestPlay, alpha, beta);
+
+        // Ended by a helper's completed search: its result is this depth's.
+        Move helperPlay = completedPlay.getAndSet(null);
+        if (searchAborted && helperPlay != null)
+        {
+            bestPlay.updateMove(helperPlay.y_position, helperPlay.x_position, helperPlay.score);
+            bestPlay.depth = helperPlay.depth;
+            searchAborted = false;
+        }
+
+        // Stops the helpers (their unfinished searches are thrown away).
+        for (Model helper : helpers) helper.stopRequested = true;
+
+        try {
+            for (Future<?> search : searches) search.get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new IllegalStateException("Lazy SMP search has failed.", e);
+        } finally {
+            searchingMoves = null;
+            completedPlay.set(null);
+            if (SearchStatistics.ENABLED) for (Model helper : helpers) statistics.merge(helper.statistics);
+            helperModels.addAll(helpers);
+        }
+    }
 
-            // If player found a winning play: break.
-            if (bestPlay.score == Integer.MAX_VALUE)
+
+    /**
+     * Iterative deepening of a <i>Lazy SMP</i> helper: searches the root from the searching thread's
+     * depth on, until it's stopped. Its first completed search is offered to the searching thread
+     * (the first completed search of its depth ends it), and its other results are only kept in
+     * the transposition table.
+     *
+     * @param main The searching 'Model' instance.
+     * @param currentPlayer The player the move is searched for (must have an available move).
+     * @param depth Game-tree depth of the searching thread.
+     * @param lastDepth Deepest searched depth.
+     */
+    private void searchHelperIterations(Model main, Player currentPlayer, int depth, int lastDepth)
+    {
+        Move iterationPlay = new Move(0, 0);
+
+        for (int helperDepth = depth; helperDepth <= lastDepth && !searchAborted && !stopRequested; helperDepth++)
+        {
+            iterationPlay.updateMove(0, 0, -Integer.MAX_VALUE);
+            searchRootSerial(currentPlayer, helperDepth, iterationPlay, -Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+            if (helperDepth == depth && !searchAborted)
             {
-                playerMoves = EMPTY_BOARD;
+                Move completed = new Move(iterationPlay.y_position, iterationPlay.x_position);
+                completed.updateMove(iterationPlay.y_position, iterationPlay.x_position, iterationPlay.score);
+                completed.depth = depth;
+
+                main.completedPlay.compareAndSet(null, completed);
             }
         }
 
-        return bestPlay;
+        searchingMoves = null;
     }
 }
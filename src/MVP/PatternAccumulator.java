@@ -0,0 +1,356 @@
+package MVP;
+
+import java.util.Arrays;
+
+import MVP.Enums.Player;
+
+import static MVP.Enums.Player.*;
+
+
+/**
+ * <h1>Class type: 'PatternAccumulator'</h1>
+ *
+ * Incremental pattern indexes of the 'PatternEvaluate' heuristic: the weight indexes of every
+ * pattern place, from each player's point of view, kept on a stack with a level per played move.
+ *
+ * A place's index is a ternary number of its slots (see <u>PatternEvaluate.features</u>), so a move only
+ * changes the digits of its played and flipped slots: a level's indexes are its parent's, with those slots'
+ * powers of 3 added to the places they belong to - instead of reading every place of the board again at
+ * every leaf. Levels are updated lazily, only when a move below them is evaluated (so siblings share their
+ * parent's update), and from the evaluated player's point of view only (a fixed depth search evaluates all of
+ * its leaves from the same one). A leaf's score is its parent's sum changed by the weights of its changed places only.
+ * Unmaking a move just pops its level.
+ *
+ * Every level keeps its board, so a level out of sync with the searched board (e.g. after a move not played
+ * by <u>Model.makeMove</u>) is never read: the heuristic evaluates that board from scratch instead.
+ *
+ * @author David Salasin
+ * @see PatternEvaluate
+ */
+public class PatternAccumulator
+{
+    /**
+     * Initial amount of levels (grown when a search goes deeper).
+     */
+    private static final int INITIAL_LEVELS = 32;
+
+
+    /**
+     * Most places a slot belongs to (a corner: its two edges, corner 3x3, two corner 2x5 places and its diagonal).
+     */
+    private static final int SLOT_PLACES = 6;
+
+
+    /**
+     * Place of no pattern, padding the places of a slot in fewer places (its digit's power is 0).
+     */
+    private static final int NO_PLACE = PatternEvaluate.PATTERN_PLACES;
+
+
+    /**
+     * Indexes per level: the pattern places, and <u>NO_PLACE</u>.
+     */
+    private static final int LEVEL_INDEXES = PatternEvaluate.PATTERN_PLACES + 1;
+
+
+    // Every slot's places (by bit index), SLOT_PLACES a slot, each its place and its digit's power of 3 (shifted by
+    // POWER_SHIFT) in a single int - so a slot's places are read without a loop; and the places' bits of every slot:
+    private static final int[] PLACES = new int[64 * SLOT_PLACES];
+    private static final long[] PLACE_BITS = new long[64];
+
+
+    /**
+     * Shift of a place's digit power in a <u>PLACES</u> entry (the place is in its lower bits).
+     */
+    private static final int POWER_SHIFT = 6;
+
+
+    /**
+     * Bits of a place in a <u>PLACES</u> entry.
+     */
+    private static final int PLACE_MASK = (1 << POWER_SHIFT) - 1;
+
+    static {
+        int[] emptyIndexes = new int[PatternEvaluate.PATTERN_PLACES];
+        int[] indexes = new int[PatternEvaluate.PATTERN_PLACES];
+        PatternEvaluate.features(0L, 0L, emptyIndexes);
+
+        // A single player's disc on a slot makes its digit 1: its power of 3 in every place it belongs to.
+        for (int slot = 0; slot < 64; slot++)
+        {
+            PatternEvaluate.features(1L << slot, 0L, indexes);
+            int count = slot * SLOT_PLACES;
+
+            for (int place = 0; place < PatternEvaluate.PATTERN_PLACES; place++)
+            {
+                if (indexes[place] == emptyIndexes[place]) continue;
+
+                PLACES[count++] = (indexes[place] - emptyIndexes[place]) << POWER_SHIFT | place;
+                PLACE_BITS[slot] |= 1L << place;
+            }
+
+            while (count < (slot + 1) * SLOT_PLACES) PLACES[count++] = NO_PLACE;
+        }
+    }
+
+
+    /**
+     * Every updated level's places' indexes, from BLACK's point of view and from WHITE's.
+     */
+    private int[][] indexes = new int[2][INITIAL_LEVELS * LEVEL_INDEXES];
+
+
+    // Every level's move (played slot, flipped slots, and whether BLACK has played it), and board:
+    private long[] positions = new long[INITIAL_LEVELS];
+    private long[] flips = new long[INITIAL_LEVELS];
+    private boolean[] blackMoves = new boolean[INITIAL_LEVELS];
+    private long[] blackBits = new long[INITIAL_LEVELS];
+    private long[] whiteBits = new long[INITIAL_LEVELS];
+
+
+    /**
+     * Current (top) level.
+     */
+    private int level;
+
+
+    /**
+     * Level the indexes of each point of view are of.
+     */
+    private final int[] applied = new int[2];
+
+
+    // Every updated level's sum of weights from each point of view, and the weights it is of:
+    private int[][] sums = new int[2][INITIAL_LEVELS];
+    private short[][][] sumWeights = new short[2][INITIAL_LEVELS][];
+
+
+    /**
+     * Index changes of an evaluated move's places (and of <u>NO_PLACE</u>, always 0).
+     */
+    private final int[] changes = new int[LEVEL_INDEXES];
+
+
+    /**
+     * Constructor for 'PatternAccumulator', out of sync with any board until <u>reset</u>.
+     */
+    public PatternAccumulator()
+    {
+        blackBits[0] = -1L;
+        whiteBits[0] = -1L;
+    }
+
+
+    /**
+     * Empties the stack, and reads every place of a board into its single level.
+     *
+     * @param blackBits BLACK board pieces.
+     * @param whiteBits WHITE board pieces.
+     */
+    public void reset(long blackBits, long whiteBits)
+    {
+        level = 0;
+        applied[0] = 0;
+        applied[1] = 0;
+        sumWeights[0][0] = null;
+        sumWeights[1][0] = null;
+        this.blackBits[0] = blackBits;
+        this.whiteBits[0] = whiteBits;
+
+        PatternEvaluate.features(blackBits, whiteBits, indexes[0]);
+        PatternEvaluate.features(whiteBits, blackBits, indexes[1]);
+    }
+
+
+    /**
+     * Pushes a level of a played move. Its indexes are only updated when it's evaluated, so a
+     * move unmade before any evaluation (e.g. a transposition table cutoff) costs nothing more.
+     *
+     * @param player The player who has played the move.
+     * @param position long value of the played slot.
+     * @param flips long value of the flipped slots.
+     */
+    public void push(Player player, long position, long flips)
+    {
+        if (level + 1 == positions.length)
+        {
+            positions = Arrays.copyOf(positions, positions.length << 1);
+            this.flips = Arrays.copyOf(this.flips, positions.length);
+            blackMoves = Arrays.copyOf(blackMoves, positions.length);
+            blackBits = Arrays.copyOf(blackBits, positions.length);
+            whiteBits = Arrays.copyOf(whiteBits, positions.length);
+
+            for (int view = 0; view < 2; view++)
+            {
+                indexes[view] = Arrays.copyOf(indexes[view], positions.length * LEVEL_INDEXES);
+                sums[view] = Arrays.copyOf(sums[view], positions.length);
+                sumWeights[view] = Arrays.copyOf(sumWeights[view], positions.length);
+            }
+        }
+
+        level++;
+        positions[level] = position;
+        this.flips[level] = flips;
+        blackMoves[level] = player == BLACK;
+
+        long moved = flips | position;
+        blackBits[level] = player == BLACK ? blackBits[level - 1] | moved : blackBits[level - 1] & ~flips;
+        whiteBits[level] = player == WHITE ? whiteBits[level - 1] | moved : whiteBits[level - 1] & ~flips;
+    }
+
+
+    /**
+     * Pops the level of an unmade move (a pop below the first level leaves the stack out of sync).
+     */
+    public void pop()
+    {
+        if (level == 0)
+        {
+            blackBits[0] = -1L;
+            whiteBits[0] = -1L;
+            return;
+        }
+
+        level--;
+        applied[0] = Math.min(applied[0], level);
+        applied[1] = Math.min(applied[1], level);
+    }
+
+
+    /**
+     * Returns whether the top level is of the passed board.
+     *
+     * @param blackBits BLACK board pieces.
+     * @param whiteBits WHITE board pieces.
+     * @return boolean for if the top level's indexes can be read for the board.
+     */
+    public boolean isSynced(long blackBits, long whiteBits)
+    {
+        return this.blackBits[level] == blackBits && this.whiteBits[level] == whiteBits;
+    }
+
+
+    /**
+     * Sums the weights of the top level's places, from a player's point of view: the sum of the
+     * level below (kept for its other moves' levels), changed by the weights of the places of the
+     * top level's played and flipped slots only.
+     *
+     * @param phaseWeights Weights of the board's game phase.
+     * @param player The evaluated player.
+     * @return int sum of the places' weights.
+     */
+    public int sum(short[] phaseWeights, Player player)
+    {
+        int view = player == BLACK ? 0 : 1;
+        if (level == 0) return levelSum(view, 0, phaseWeights);
+
+        while (applied[view] < level - 1) update(view, ++applied[view]);
+        if (applied[view] == level) return levelSum(view, level, phaseWeights);
+
+        // The player's own move: its played slot's digit becomes 1, its flipped slots' digits 2 become 1.
+        // The opponent's move: the played slot's digit becomes 2, the flipped slots' digits 1 become 2.
+        boolean ownMove = blackMoves[level] == (view == 0);
+        int flipChange = ownMove ? -1 : 1;
+
+        int slot = Long.numberOfTrailingZeros(positions[level]);
+        add(slot, ownMove ? 1 : 2);
+        long changed = PLACE_BITS[slot];
+
+        for (long bits = flips[level]; bits != 0L; bits &= bits - 1)
+        {
+            slot = Long.numberOfTrailingZeros(bits);
+            add(slot, flipChange);
+            changed |= PLACE_BITS[slot];
+        }
+
+        int[] viewIndexes = indexes[view];
+        int from = (level - 1) * LEVEL_INDEXES;
+        int score = levelSum(view, level - 1, phaseWeights);
+
+        for (; changed != 0L; changed &= changed - 1)
+        {
+            int place = Long.numberOfTrailingZeros(changed);
+            int index = viewIndexes[from + place];
+
+            score += phaseWeights[index + changes[place]] - phaseWeights[index];
+            changes[place] = 0;
+        }
+
+        return score;
+    }
+
+
+    /**
+     * Adds a slot's digit change to the changes of its places.
+     */
+    private void add(int slot, int digitChange)
+    {
+        int i = slot * SLOT_PLACES;
+
+        changes[PLACES[i] & PLACE_MASK] += digitChange * (PLACES[i] >>> POWER_SHIFT);
+        changes[PLACES[i + 1] & PLACE_MASK] += digitChange * (PLACES[i + 1] >>> POWER_SHIFT);
+        changes[PLACES[i + 2] & PLACE_MASK] += digitChange * (PLACES[i + 2] >>> POWER_SHIFT);
+        changes[PLACES[i + 3] & PLACE_MASK] += digitChange * (PLACES[i + 3] >>> POWER_SHIFT);
+        changes[PLACES[i + 4] & PLACE_MASK] += digitChange * (PLACES[i + 4] >>> POWER_SHIFT);
+        changes[PLACES[i + 5] & PLACE_MASK] += digitChange * (PLACES[i + 5] >>> POWER_SHIFT);
+    }
+
+
+    /**
+     * Sums the weights of an updated level's places, from a point of view (kept for the same weights).
+     */
+    private int levelSum(int view, int level, short[] phaseWeights)
+    {
+        if (sumWeights[view][level] == phaseWeights) return sums[view][level];
+
+        int[] viewIndexes = indexes[view];
+        int from = level * LEVEL_INDEXES;
+        int score = 0;
+
+        for (int i = from; i < from + PatternEvaluate.PATTERN_PLACES; i++) score += phaseWeights[viewIndexes[i]];
+
+        sums[view][level] = score;
+        sumWeights[view][level] = phaseWeights;
+        return score;
+    }
+
+
+    /**
+     * Updates a point of view's indexes by a level's move, in a copy of the level below's indexes: its played
+     * slot becomes the player's (the digit 0 becomes 1 in the player's view, 2 in the opponent's), and its
+     * flipped slots turn from the opponent's to the player's (2 becomes 1 in the player's view, 1 becomes 2
+     * in the opponent's).
+     */
+    private void update(int view, int level)
+    {
+        int[] viewIndexes = indexes[view];
+        int to = level * LEVEL_INDEXES;
+        System.arraycopy(viewIndexes, to - LEVEL_INDEXES, viewIndexes, to, LEVEL_INDEXES);
+        sumWeights[view][level] = null;
+
+        boolean ownMove = blackMoves[level] == (view == 0);
+        int flipChange = ownMove ? -1 : 1;
+        update(viewIndexes, to, Long.numberOfTrailingZeros(positions[level]), ownMove ? 1 : 2);
+
+        for (long bits = flips[level]; bits != 0L; bits &= bits - 1)
+        {
+            update(viewIndexes, to, Long.numberOfTrailingZeros(bits), flipChange);
+        }
+    }
+
+
+    /**
+     * Adds a slot's digit change to the indexes of its places, in a level's indexes.
+     */
+    private static void update(int[] viewIndexes, int to, int slot, int digitChange)
+    {
+        int i = slot * SLOT_PLACES;
+
+        viewIndexes[to + (PLACES[i] & PLACE_MASK)] += digitChange * (PLACES[i] >>> POWER_SHIFT);
+        viewIndexes[to + (PLACES[i + 1] & PLACE_MASK)] += digitChange * (PLACES[i + 1] >>> POWER_SHIFT);
+        viewIndexes[to + (PLACES[i + 2] & PLACE_MASK)] += digitChange * (PLACES[i + 2] >>> POWER_SHIFT);
+        viewIndexes[to + (PLACES[i + 3] & PLACE_MASK)] += digitChange * (PLACES[i + 3] >>> POWER_SHIFT);
+        viewIndexes[to + (PLACES[i + 4] & PLACE_MASK)] += digitChange * (PLACES[i + 4] >>> POWER_SHIFT);
+        viewIndexes[to + (PLACES[i + 5] & PLACE_MASK)] += digitChange * (PLACES[i + 5] >>> POWER_SHIFT);
+    }
+}
@@ -0,0 +1,476 @@
+package MVP;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import BIT_MANAGEMENT.MoveGenerator;
+import BIT_MANAGEMENT.Symmetry;
+import MVP.Enums.Player;
+import MVP.Interfaces.IEvaluate;
+
+
+/**
+ * <h1>Class type: 'PatternEvaluate'</h1>
+ *
+ * Pattern-table heuristic: the board is split into patterns of slots, and every pattern's
+ * configuration (each slot empty / player / opponent, read as a ternary number) has its own
+ * weight, learned from game results, in a lookup table per game phase (by empty slots).
+ *
+ * Patterns, each evaluated at all of its symmetric places on the board by the same table:
+ * - <b>edge + 2X</b>: an edge and its two X slots (4 places).
+ * - <b>corner 3x3</b>: the 3x3 block of a corner (4 places).
+ * - <b>corner 2x5</b>: a 2x5 block along an edge from a corner (8 places).
+ * - <b>diagonals</b>: the two 8 slots diagonals (2 places).
+ * plus a mobility weight and a bias (the tempo) per phase.
+ *
+ * <u>features</u> reads a pattern's symmetric places by transforming the whole board (see 'Symmetry') and
+ * reading the pattern's base place. <u>evaluateLeaf</u> reads the same places from the board and its
+ * transposition only: a mirrored place is gathered with its slots in reverse order (a mirrored table turns
+ * them back), and the slots of both colors are gathered at once, from rows 1 - 4 and rows 5 - 8 of both
+ * packed into a long each.
+ *
+ * A model set to evaluate incrementally keeps the places' indexes up to date as it plays and
+ * unmakes moves instead (see 'PatternAccumulator'), and a leaf's mobility is the moves its game-tree node has calculated
+ * (see <u>evaluateLeaf</u>).
+ *
+ * It's HARDCORE's heuristic (see 'Evaluate').
+ *
+ * The score is from the point of view of the passed player, with the <b>opponent to move</b>
+ * (as the game-tree evaluates its leaves), in 1/<u>UNITS_PER_DISC</u> of a disc.
+ *
+ * @author David Salasin
+ * @see Symmetry
+ */
+public class PatternEvaluate implements IEvaluate
+{
+    /**
+     * Score units of a single disc (the weights' scale).
+     */
+    public static final int UNITS_PER_DISC = 16;
+
+
+    /**
+     * Amount of game phases with their own weights.
+     */
+    public static final int PHASES = 6;
+
+
+    /**
+     * Weights resource, loaded by <u>load</u> (written by 'PatternTrainer').
+     */
+    public static final String WEIGHTS_RESOURCE = "Resources/patterns.bin";
+
+
+    /**
+     * Empty slots per game phase.
+     */
+    private static final int PHASE_EMPTIES = 10;
+
+
+    // Feature table offsets in a phase's weights:
+    public static final int EDGE_2X = 0;
+    public static final int CORNER_3X3 = EDGE_2X + 59049;
+    public static final int CORNER_2X5 = CORNER_3X3 + 19683;
+    public static final int DIAGONAL_8 = CORNER_2X5 + 59049;
+    public static final int MOBILITY = DIAGONAL_8 + 6561;
+    public static final int BIAS = MOBILITY + 1;
+
+
+    /**
+     * Amount of weights per game phase.
+     */
+    public static final int PHASE_WEIGHTS = BIAS + 1;
+
+
+    /**
+     * Amount of pattern places (features read from a position, besides mobility and bias).
+     */
+    public static final int PATTERN_PLACES = 4 + 4 + 8 + 2;
+
+
+    // Slots of the diagonals: the base place (A1 - H8), and the mirrored place (H1 - A8).
+    private static final long DIAGONAL_8_MASK = diagonalMask(0);
+    private static final long MIRRORED_DIAGONAL_8_MASK = 0x8040201008040201L;
+
+
+    // Gathering masks of packed rows (see lowRows), in both the player's and the opponent's halves:
+    private static final long BITS_0_2 = bothHalves(0x7);
+    private static final long BITS_0_4 = bothHalves(0x1F);
+    private static final long BITS_0_7 = bothHalves(0xFF);
+    private static final long BITS_3_5 = bothHalves(0x38);
+    private static final long BITS_5_9 = bothHalves(0x3E0);
+    private static final long BITS_6_8 = bothHalves(0x1C0);
+    private static final long BIT_8 = bothHalves(0x100);
+    private static final long BIT_9 = bothHalves(0x200);
+
+
+    /**
+     * Multiplier gathering the one slot per row of a diagonal into the top byte.
+     */
+    private static final long GATHER = 0x0101010101010101L;
+
+
+    /**
+     * Ternary value of every 10 bit pattern: bit i counts as 3^i (a player's slots).
+     * An opponent's slots count twice as much, so a place's index is T[player] + 2 * T[opponent],
+     * with up to 10 slots gathered into the bits of a single lookup.
+     */
+    private static final int[] TERNARY = new int[1024];
+
+    static {
+        for (int bits = 1; bits < 1024; bits++)
+        {
+            int lowestBit = Integer.numberOfTrailingZeros(bits);
+            TERNARY[bits] = TERNARY[bits & (bits - 1)] + (int) Math.pow(3, lowestBit);
+        }
+    }
+
+
+    // Ternary values of mirrored places' gathered slots, bit i counting as the 3^i of its slot in the base place:
+    private static final int[] MIRRORED_2X5 = mirroredTernary(1024, 5);
+    private static final int[] MIRRORED_3X3 = mirroredTernary(512, 3);
+    private static final int[] MIRRORED_DIAGONAL_8 = mirroredTernary(256, 8);
+
+
+    /**
+     * Weights of every game phase.
+     */
+    private final short[][] weights;
+
+
+    /**
+     * Constructor for 'PatternEvaluate'.
+     *
+     * @param weights Weights of every game phase (<u>PHASES</u> x <u>PHASE_WEIGHTS</u>).
+     */
+    public PatternEvaluate(short[][] weights)
+    {
+        this.weights = weights;
+    }
+
+
+    @Override
+    public int evaluate(Model model, Player currentPlayer)
+    {
+        long playerPieces = model.getBoard().getColorBits(currentPlayer);
+        long opponentPieces = model.getBoard().getColorBits(Player.currentOpponent(currentPlayer));
+
+        return evaluateLeaf(model, currentPlayer, MoveGenerator.availableMoves(playerPieces, opponentPieces),
+                MoveGenerator.availableMoves(opponentPieces, playerPieces));
+    }
+
+
+    @Override
+    public int evaluateLeaf(Model model, Player currentPlayer, long playerMoves, long opponentMoves)
+    {
+        long playerPieces = model.getBoard().getColorBits(currentPlayer);
+        long opponentPieces = model.getBoard().getColorBits(Player.currentOpponent(currentPlayer));
+
+        // If the game has ended: Returns winning evaluation score.
+        if ((playerMoves | opponentMoves) == 0L) return Evaluate.winnerStatement(model, currentPlayer);
+
+        short[] phaseWeights = weights[phase(playerPieces, opponentPieces)];
+
+        int score = phaseWeights[BIAS]
+                + phaseWeights[MOBILITY] * (Long.bitCount(playerMoves) - Long.bitCount(opponentMoves));
+
+        // The places' indexes kept by the model's moves, when they are of this board.
+        PatternAccumulator accumulator = model.getPatternAccumulator();
+        if (accumulator != null)
+        {
+            boolean black = currentPlayer == Player.BLACK;
+            if (accumulator.isSynced(black ? playerPieces : opponentPieces, black ? opponentPieces : playerPieces))
+            {
+                return score + accumulator.sum(phaseWeights, currentPlayer);
+            }
+        }
+
+        // The board's places, then the places of its transposition (the columns' edges and corner 2x5 blocks).
+        long p = Symmetry.transform(playerPieces, Symmetry.TRANSPOSE);
+        long o = Symmetry.transform(opponentPieces, Symmetry.TRANSPOSE);
+
+        score += rowsPlaces(phaseWeights, lowRows(playerPieces, opponentPieces), highRows(playerPieces, opponentPieces))
+                + rowsPlaces(phaseWeights, lowRows(p, o), highRows(p, o));
+
+        return score + cornerPlaces(phaseWeights, playerPieces, opponentPieces);
+    }
+
+
+    /**
+     * Sums the weights of the corner 2x5 and edge + 2X places of rows 1, 2 and 7, 8.
+     *
+     * @param low Rows 1 - 4 of both colors (see <u>lowRows</u>).
+     * @param high Rows 5 - 8 of both colors (see <u>highRows</u>).
+     */
+    private static int rowsPlaces(short[] phaseWeights, long low, long high)
+    {
+        int score = phaseWeights[CORNER_2X5 + index(TERNARY, ((low >>> 3) & BITS_0_4) | ((low >>> 6) & BITS_5_9))]
+                + phaseWeights[CORNER_2X5 + index(MIRRORED_2X5, (low & BITS_0_4) | ((low >>> 3) & BITS_5_9))]
+                + phaseWeights[CORNER_2X5 + index(TERNARY, ((high >>> 27) & BITS_0_4) | ((high >>> 14) & BITS_5_9))]
+                + phaseWeights[CORNER_2X5 + index(MIRRORED_2X5, ((high >>> 24) & BITS_0_4) | ((high >>> 11) & BITS_5_9))];
+
+        return score + phaseWeights[EDGE_2X + index(TERNARY, (low & BITS_0_7) | ((low >>> 6) & BIT_8) | (low & BIT_9))]
+                + phaseWeights[EDGE_2X + index(TERNARY, ((high >>> 24) & BITS_0_7) | ((high >>> 14) & BIT_8) | ((high >>> 8) & BIT_9))];
+    }
+
+
+    /**
+     * Sums the weights of the corner 3x3 and diagonal places.
+     */
+    private static int cornerPlaces(short[] phaseWeights, long p, long o)
+    {
+        long low = lowRows(p, o);
+        long high = highRows(p, o);
+
+        int score = phaseWeights[CORNER_3X3 + index(TERNARY, ((low >>> 5) & BITS_0_2) | ((low >>> 10) & BITS_3_5) | ((low >>> 15) & BITS_6_8))]
+                + phaseWeights[CORNER_3X3 + index(MIRRORED_3X3, (low & BITS_0_2) | ((low >>> 5) & BITS_3_5) | ((low >>> 10) & BITS_6_8))]
+                + phaseWeights[CORNER_3X3 + index(TERNARY, ((high >>> 29) & BITS_0_2) | ((high >>> 18) & BITS_3_5) | ((high >>> 7) & BITS_6_8))]
+                + phaseWeights[CORNER_3X3 + index(MIRRORED_3X3, ((high >>> 24) & BITS_0_2) | ((high >>> 13) & BITS_3_5) | ((high >>> 2) & BITS_6_8))];
+
+        return score + phaseWeights[DIAGONAL_8 + diagonal(p, o, DIAGONAL_8_MASK)]
+                + phaseWeights[DIAGONAL_8 + MIRRORED_DIAGONAL_8[(int) (((p & MIRRORED_DIAGONAL_8_MASK) * GATHER) >>> 56)]
+                        + 2 * MIRRORED_DIAGONAL_8[(int) (((o & MIRRORED_DIAGONAL_8_MASK) * GATHER) >>> 56)]];
+    }
+
+
+    /**
+     * @return Rows 1 - 4 of the player in the low half and of the opponent in the high half.
+     */
+    private static long lowRows(long p, long o)
+    {
+        return (p & 0xFFFFFFFFL) | (o << 32);
+    }
+
+
+    /**
+     * @return Rows 5 - 8 of the player in the low half and of the opponent in the high half.
+     */
+    private static long highRows(long p, long o)
+    {
+        return (p >>> 32) | (o & 0xFFFFFFFF00000000L);
+    }
+
+
+    /**
+     * Index of a place whose slots are gathered into the low bits of both halves (see <u>lowRows</u>).
+     */
+    private static int index(int[] ternary, long bits)
+    {
+        return ternary[(int) bits] + 2 * ternary[(int) (bits >>> 32)];
+    }
+
+
+    /**
+     * @return A mask of a half's low bits, in both halves of a long.
+     */
+    private static long bothHalves(long mask)
+    {
+        return mask | (mask << 32);
+    }
+
+
+    /**
+     * Ternary values of mirrored places' gathered slots: the slots of each row of <i>width</i> slots
+     * (up to 10 slots) gathered in reverse order.
+     */
+    private static int[] mirroredTernary(int size, int width)
+    {
+        int[] ternary = new int[size];
+        for (int bits = 1; bits < size; bits++)
+        {
+            int lowestBit = Integer.numberOfTrailingZeros(bits);
+            int row = lowestBit / width;
+            ternary[bits] = ternary[bits & (bits - 1)] + (int) Math.pow(3, row * width + width - 1 - lowestBit % width);
+        }
+        return ternary;
+    }
+
+
+    /**
+     * Collects the feature indexes of a position (for learning the weights), in the same places
+     * <u>evaluate</u> reads them.
+     *
+     * @param playerPieces Pieces of the evaluated player.
+     * @param opponentPieces Pieces of the opponent (to move).
+     * @param indexes Array of at least <u>PATTERN_PLACES</u> indexes, filled with the pattern places' weight indexes.
+     * @return The position's game phase.
+     */
+    public static int features(long playerPieces, long opponentPieces, int[] indexes)
+    {
+        int count = 0;
+
+        for (int symmetry = 0; symmetry < Symmetry.SYMMETRIES; symmetry++)
+        {
+            long p = Symmetry.transform(playerPieces, symmetry);
+            long o = Symmetry.transform(opponentPieces, symmetry);
+
+            indexes[count++] = CORNER_2X5 + corner2x5(p, o);
+
+            // Edge places: row 1, row 8, column H, column A.
+            if ((symmetry & Symmetry.MIRROR) == 0)
+            {
+                indexes[count++] = EDGE_2X + edge2X(p, o);
+            }
+
+            if ((symmetry & Symmetry.TRANSPOSE) == 0)
+            {
+                indexes[count++] = CORNER_3X3 + corner3x3(p, o);
+                if ((symmetry & Symmetry.FLIP) == 0) indexes[count++] = DIAGONAL_8 + diagonal(p, o, DIAGONAL_8_MASK);
+            }
+        }
+
+        return phase(playerPieces, opponentPieces);
+    }
+
+
+    /**
+     * @return Game phase of a position (by its empty slots).
+     */
+    public static int phase(long playerPieces, long opponentPieces)
+    {
+        return Math.min(PHASES - 1, Math.max(0, Long.bitCount(~(playerPieces | opponentPieces)) - 1) / PHASE_EMPTIES);
+    }
+
+
+    /**
+     * Edge + 2X base place: row 1 and the X slots B2, G2.
+     */
+    private static int edge2X(long p, long o)
+    {
+        return TERNARY[edge2XBits(p)] + 2 * TERNARY[edge2XBits(o)];
+    }
+
+
+    /**
+     * Corner 3x3 base place: A1 - C3.
+     */
+    private static int corner3x3(long p, long o)
+    {
+        return TERNARY[corner3x3Bits(p)] + 2 * TERNARY[corner3x3Bits(o)];
+    }
+
+
+    /**
+     * Corner 2x5 base place: A1 - E2.
+     */
+    private static int corner2x5(long p, long o)
+    {
+        return TERNARY[corner2x5Bits(p)] + 2 * TERNARY[corner2x5Bits(o)];
+    }
+
+
+    /**
+     * Gathers row 1 into bits 0 - 7, B2 into bit 8 and G2 into bit 9.
+     */
+    private static int edge2XBits(long x)
+    {
+        return ((int) x & 0xFF) | ((int) (x >>> 6) & 0x100) | ((int) x & 0x200);
+    }
+
+
+    /**
+     * Gathers A1 - C1 into bits 0 - 2, A2 - C2 into bits 3 - 5 and A3 - C3 into bits 6 - 8.
+     */
+    private static int corner3x3Bits(long x)
+    {
+        return ((int) (x >>> 5) & 7) | ((int) (x >>> 10) & 0x38) | ((int) (x >>> 15) & 0x1C0);
+    }
+
+
+    /**
+     * Gathers A1 - E1 into bits 0 - 4 and A2 - E2 into bits 5 - 9.
+     */
+    private static int corner2x5Bits(long x)
+    {
+        return ((int) (x >>> 3) & 31) | ((int) (x >>> 6) & 0x3E0);
+    }
+
+
+    /**
+     * Diagonal base place: its one slot per row gathered into a byte.
+     */
+    private static int diagonal(long p, long o, long mask)
+    {
+        return TERNARY[(int) (((p & mask) * GATHER) >>> 56)] + 2 * TERNARY[(int) (((o & mask) * GATHER) >>> 56)];
+    }
+
+
+    /**
+     * Slots of the diagonal parallel to A1 - H8, starting <i>shift</i> slots right of A1 on row 1.
+     */
+    private static long diagonalMask(int shift)
+    {
+        long mask = 0L;
+        for (int row = 0; row + shift < 8; row++) mask |= 1L << (7 - shift - row + 8 * row);
+        return mask;
+    }
+
+
+    /**
+     * Loads the weights resource.
+     *
+     * @return 'PatternEvaluate' instance of the resource's weights.
+     * @throws IOException if the resource is missing or can't be read.
+     */
+    public static PatternEvaluate load() throws IOException
+    {
+        InputStream input = PatternEvaluate.class.getResourceAsStream(WEIGHTS_RESOURCE);
+        if (input == null) throw new IOException("Missing resource " + WEIGHTS_RESOURCE);
+
+        return new PatternEvaluate(read(input));
+    }
+
+
+    /**
+     * Reads weights written by <u>write</u>.
+     *
+     * @param input Input stream (closed after reading).
+     * @return Weights of every game phase.
+     * @throws IOException if the stream can't be read or isn't a weights file.
+     */
+    public static short[][] read(InputStream input) throws IOException
+    {
+        try (DataInputStream data = new DataInputStream(new InflaterInputStream(input)))
+        {
+            if (data.readInt() != PHASES || data.readInt() != PHASE_WEIGHTS)
+            {
+                throw new IOException("Pattern weights don't match the patterns layout");
+            }
+
+            short[][] weights = new short[PHASES][PHASE_WEIGHTS];
+            for (short[] phaseWeights : weights)
+            {
+                for (int i = 0; i < PHASE_WEIGHTS; i++) phaseWeights[i] = data.readShort();
+            }
+
+            return weights;
+        }
+    }
+
+
+    /**
+     * Writes weights, compressed (mostly unseen, zero weight pattern configurations).
+     *
+     * @param output Output stream (closed after writing).
+     * @param weights Weights of every game phase.
+     * @throws IOException if the stream can't be written.
+     */
+    public static void write(OutputStream output, short[][] weights) throws IOException
+    {
+        try (DataOutputStream data = new DataOutputStream(new DeflaterOutputStream(output)))
+        {
+            data.writeInt(PHASES);
+            data.writeInt(PHASE_WEIGHTS);
+
+            for (short[] phaseWeights : weights)
+            {
+                for (short weight : phaseWeights) data.writeShort(weight);
+            }
+        }
+    }
+}
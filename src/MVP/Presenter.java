@@ -3,9 +3,20 @@ package MVP;
 import BIT_MANAGEMENT.BitBoard;
 import INFORMATION_ENCAPSULATION.Coordinates;
 import INFORMATION_ENCAPSULATION.Information;
+import INFORMATION_ENCAPSULATION.Move;
 import MVP.Enums.GameMode;
 import MVP.Enums.GameStatus;
 import MVP.Enums.Player;
+import SEARCH.SearchStatistics;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
 
 import static MVP.Enums.Player.*;
 import static MVP.Enums.GameStatus.*;
@@ -35,6 +46,30 @@ public class Presenter
     private Player currentPlayer;
 
 
+    /**
+     * Default share of a CPU core taken by pondering, set by <i>-Dreversi.ponderShare</i>: 0 (off)
+     * unless set, so a game only ponders when its front end turns it on (see <u>setPonderShare</u>).
+     */
+    public static final double DEFAULT_PONDER_SHARE = Double.parseDouble(System.getProperty("reversi.ponderShare", "0"));
+
+
+    /**
+     * Share of a CPU core taken by pondering (0 when off).
+     */
+    private double ponderShare = DEFAULT_PONDER_SHARE;
+
+
+    /**
+     * Thread of the requested AI moves (<u>requestAiMove</u>) and of pondering, created with the first request.
+     */
+    private ExecutorService aiThread;
+
+
+    // The last requested AI move (or pondering), and its task on the AI thread:
+    private CompletableFuture<Move> aiRequest;
+    private Future<?> aiTask;
+
+
     /**
      * Constructor for 'Presenter'.
      *
@@ -57,6 +92,8 @@ public class Presenter
      */
     public Information startGame(GameMode gameMode)
     {
+        cancelAiMove();
+
         // Initiating values: Starting player and board's pieces.
         currentPlayer = BLACK;
 
@@ -67,6 +104,34 @@ public class Presenter
     }
 
 
+    /**
+     * Resumes a game at the BACKEND level from a saved position (e.g. a server session's),
+     * instead of starting it over.
+     *
+     * The MODEL layer is initiated only when the game mode changes, so the AI keeps its
+     * transposition table and move ordering between the games resumed with the same mode.
+     *
+     * @param gameMode The game's mode (PVP / AI difficulty).
+     * @param currentPlayer The player to move.
+     * @param blackBits BLACK's pieces.
+     * @param whiteBits WHITE's pieces.
+     * @return 'Information' reference about the resumed game.
+     */
+    public Information resumeGame(GameMode gameMode, Player currentPlayer, long blackBits, long whiteBits)
+    {
+        cancelAiMove();
+
+        if (model.getGameMode() != gameMode) model.init(gameMode);
+
+        BitBoard board = model.getBoard();
+        board.setColorBits(BLACK, blackBits);
+        board.setColorBits(WHITE, whiteBits);
+        this.currentPlayer = currentPlayer;
+
+        return new Information(SUCCESSFUL, currentPlayer, board);
+    }
+
+
     /**
      * Plays the board coordinates for the current player.
      *
@@ -77,15 +142,28 @@ public class Presenter
      * - a <b>skip</b> situation (where a move was legal, but the opponent can't play after the player).
      * - a <b>game ending</b> situation (where one of the sides or neither, has won).
      *
+     * The information of an AI move (searched here, or requested by <u>requestAiMove</u>)
+     * also carries the statistics of its search (when they are counted).
+     *
+     * A move stops the pondering at once (see <u>startPondering</u>).
+     *
      * @param coordinates Board's move coordinates.
      * @return 'Information' reference according to the just played move.
      */
     public Information playerTurn(Coordinates coordinates)
     {
+        SearchStatistics statistics = null;
+
+        cancelAiMove();
+
         // If player didn't pass coordinates -> play with the set difficulty AI.
-        coordinates = coordinates == null ? model.mostEvaluatedPlay(currentPlayer) : coordinates;
+        if (coordinates == null)
+        {
+            model.clearStopRequest();
+            coordinates = model.mostEvaluatedPlay(currentPlayer);
+        }
 
-        System.out.println("Y POS:   " + coordinates.y_position + "   |   X POS:   " + coordinates.x_position);
+        if (coordinates instanceof Move) statistics = ((Move) coordinates).statistics;
 
         GameStatus status = model.playMove(currentPlayer, coordinates);
 
@@ -93,17 +171,188 @@ public class Presenter
         if (status == FAILED) return new Information(FAILED, null, null);
 
         BitBoard board = model.getBoard();
+        Player opponent = Player.currentOpponent(currentPlayer);
+        Information information;
 
         // In case no player can make a move:
-        if (model.isFinished()) return new Information(ENDED, model.EndingScenarios(), board);
-
-        Player opponent = Player.currentOpponent(currentPlayer);
+        if (model.isFinished()) information = new Information(ENDED, model.EndingScenarios(), board, statistics);
 
         // In case of a SKIP scenario:
-        if (model.isOutOfMoves(opponent)) return new Information(SKIPPED, opponent, board);
+        else if (model.isOutOfMoves(opponent)) information = new Information(SKIPPED, opponent, board, statistics);
 
         // In case of a successful move:
-        currentPlayer = opponent;
-        return new Information(SUCCESSFUL, currentPlayer, board);
+        else
+        {
+            currentPlayer = opponent;
+            information = new Information(SUCCESSFUL, currentPlayer, board, statistics);
+        }
+
+        information.move = coordinates;
+        return information;
+    }
+
+
+    /**
+     * Plays the current player's move by the AI, searched on the calling thread (unlike <u>requestAiMove</u>,
+     * for callers which run their own search threads). <u>stopAiMove</u>, from any thread, ends the search
+     * with the best move found so far.
+     *
+     * @param cancelled Checked once the last stop request is cleared, before searching: a stop requested by
+     *                  a canceller which sets it first is never lost.
+     * @return 'Information' of the AI's move, or null when cancelled before the search.
+     */
+    public Information aiTurn(BooleanSupplier cancelled)
+    {
+        cancelAiMove();
+
+        // Cleared before the cancellation check, so that a cancellation is never lost.
+        model.clearStopRequest();
+        if (cancelled.getAsBoolean()) return null;
+
+        return playerTurn(model.mostEvaluatedPlay(currentPlayer));
+    }
+
+
+    /**
+     * Requests the current player's move from the AI, within the game mode's time budget.
+     *
+     * @return 'CompletableFuture' of the AI's 'Move'.
+     * @see #requestAiMove(long)
+     */
+    public CompletableFuture<Move> requestAiMove()
+    {
+        return requestAiMove(model.getTimeBudget());
+    }
+
+
+    /**
+     * Requests the current player's move from the AI, searched on the presenter's own AI thread,
+     * so that the caller isn't blocked by the search. The returned move isn't played: it's played
+     * by passing it to <u>playerTurn</u>, once the future completes.
+     *
+     * A search can end early from any thread:
+     * - <u>stopAiMove</u>: the future completes with the best move found so far (flagged as <u>stopped</u>).
+     * - cancelling the future: the search stops, and its move is thrown away.
+     * Both take effect within about a thousand game-tree nodes (well below a millisecond).
+     *
+     * <b>NOTE:</b> the game mustn't be played while the move is searched. Starting or resuming
+     * a game, or requesting another move, cancels the running request.
+     *
+     * @param timeBudget Time budget in milliseconds (the search's deadline), or 0 for the game mode's fixed depth.
+     * @return 'CompletableFuture' of the AI's 'Move'.
+     */
+    public CompletableFuture<Move> requestAiMove(long timeBudget)
+    {
+        Player player = currentPlayer;
+        return submitAiTask(() -> model.mostEvaluatedPlay(player, timeBudget));
+    }
+
+
+    /**
+     * Starts pondering on the human's time, right after the AI's move: the AI searches ahead
+     * on its own thread, until the human's move (<u>playerTurn</u>) stops it at once. When the human
+     * plays the predicted reply, the AI's next search goes on from the pondered depths.
+     *
+     * @see Model#ponder
+     */
+    public void startPondering()
+    {
+        if (ponderShare <= 0) return;
+
+        Player player = currentPlayer;
+        double cpuShare = ponderShare;
+        submitAiTask(() -> model.ponder(player, cpuShare));
+    }
+
+
+    /**
+     * Sets the share of a CPU core taken by pondering, overriding <u>DEFAULT_PONDER_SHARE</u>.
+     *
+     * @param ponderShare Share of a core (at most 1), or 0 for no pondering.
+     */
+    public void setPonderShare(double ponderShare)
+    {
+        this.ponderShare = Math.min(1, Math.max(0, ponderShare));
+    }
+
+
+    /**
+     * Stops the AI's running search (from any thread): the requested move completes with the best
+     * move found so far, or the searching <u>playerTurn</u> plays it.
+     */
+    public void stopAiMove()
+    {
+        model.requestStop();
+    }
+
+
+    /**
+     * Runs an AI search on the AI thread (cancelling the last one first).
+     *
+     * @param search The search, run on the AI thread.
+     * @return 'CompletableFuture' of the search's 'Move', whose cancellation stops the search.
+     */
+    private CompletableFuture<Move> submitAiTask(Supplier<Move> search)
+    {
+        cancelAiMove();
+
+        if (aiThread == null)
+        {
+            aiThread = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "AI search");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        CompletableFuture<Move> request = new CompletableFuture<>();
+
+        aiTask = aiThread.submit(() -> {
+            // Cleared before the cancellation check, so that a cancellation is never lost.
+            model.clearStopRequest();
+            if (request.isDone()) return;
+
+            try
+            {
+                request.complete(search.get());
+            }
+            catch (RuntimeException e)
+            {
+                request.completeExceptionally(e);
+            }
+        });
+
+        request.whenComplete((move, e) -> {
+            if (request.isCancelled()) model.requestStop();
+        });
+
+        aiRequest = request;
+        return request;
+    }
+
+
+    /**
+     * Cancels the last requested AI move, and waits for its search to end (the 'Model' is free again).
+     */
+    private void cancelAiMove()
+    {
+        if (aiRequest == null) return;
+
+        aiRequest.cancel(false);
+        try
+        {
+            aiTask.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        catch (ExecutionException | CancellationException e)
+        {
+            // The request has already failed.
+        }
+
+        aiRequest = null;
+        aiTask = null;
     }
 }
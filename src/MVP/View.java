@@ -49,6 +49,13 @@ public class View
     }
 
 
+    // Sets the share of a CPU core the AI ponders with on the player's time (0 for not pondering, the default).
+    public void setPonderShare(double ponderShare)
+    {
+        presenter.setPonderShare(ponderShare);
+    }
+
+
     // Prints current game board positions.
     public void printBoard(BitBoard board)
     {
@@ -181,6 +188,11 @@ public class View
     // Presenting an information after a current player play.
     public void presentInformation(Information pInfo)
     {
+        if (pInfo.move != null)
+        {
+            System.out.println("Y POS:   " + pInfo.move.y_position + "   |   X POS:   " + pInfo.move.x_position);
+        }
+
         if (pInfo.status == SUCCESSFUL)
         {
             printBoard(pInfo.board);
@@ -250,6 +262,9 @@ public class View
                 inputFlag = true;
                 while (inputFlag)
                 {
+                    // Player vs AI: the AI ponders (when set to) while the player thinks (again after an illegal move, which stops it).
+                    if (AIFlag) presenter.startPondering();
+
                     Coordinates coordinates = playerInput();
                     pInfo = presenter.playerTurn(coordinates);
                     presentInformation(pInfo);
@@ -270,6 +285,7 @@ public class View
                 pInfo = presenter.playerTurn(null);
                 long finish = System.currentTimeMillis();
                 System.out.printf("Finished in %f seconds.\n", (float)(finish - start) / 1000);
+                if (pInfo.statistics != null) System.out.println(pInfo.statistics);
                 presentInformation(pInfo);
             }
 
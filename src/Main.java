@@ -5,9 +5,13 @@ import static MVP.Enums.GameMode.HARDCORE;
 public class Main
 {
     // Runs as main program.
+    // Argument: share of a CPU core the AI ponders with on the player's time (0 - 1, no pondering by default).
     public static void main(String[] args)
     {
+        View view = new View();
+        if (args.length > 0) view.setPonderShare(Double.parseDouble(args[0]));
+
         // Plays Reversi (WITH INSERTED GAME MODE)
-        new View().play(HARDCORE);
+        view.play(HARDCORE);
     }
 }
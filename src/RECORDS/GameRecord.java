@@ -0,0 +1,158 @@
+package RECORDS;
+
+import BIT_MANAGEMENT.BitBoard;
+import INFORMATION_ENCAPSULATION.Coordinates;
+import MVP.Enums.GameMode;
+import MVP.Enums.Player;
+import MVP.Model;
+
+import static MVP.Enums.Player.*;
+
+
+/**
+ * <h1>Class type: 'GameRecord'</h1>
+ *
+ * A played game, as archived in the game-record format: its header (game mode, final discs and timing)
+ * and its moves from the starting position, a byte each - the played slot's bit index (as in 'BitBoard'),
+ * or <u>PASS</u> for a skipped turn.
+ *
+ * A single instance is reused for every record read by 'GameRecordReader', so streaming records
+ * allocates nothing.
+ *
+ * @author David Salasin
+ * @see GameRecordWriter
+ * @see GameRecordReader
+ */
+public class GameRecord
+{
+    /**
+     * Move byte of a skipped turn.
+     */
+    public static final byte PASS = 64;
+
+
+    /**
+     * Maximum amount of moves in a game: 60 slots, and a pass before every move but the first.
+     */
+    public static final int MAX_MOVES = 119;
+
+
+    /**
+     * Game mode (AI difficulty) of the game.
+     */
+    public GameMode gameMode;
+
+
+    // Final discs of the game:
+    public int blackDiscs;
+    public int whiteDiscs;
+
+
+    /**
+     * Start of the game (epoch milliseconds).
+     */
+    public long startTime;
+
+
+    /**
+     * Duration of the game (milliseconds).
+     */
+    public int duration;
+
+
+    /**
+     * The game's moves (the first <u>moveCount</u> bytes).
+     */
+    public final byte[] moves = new byte[MAX_MOVES];
+
+
+    /**
+     * Amount of moves in the game.
+     */
+    public int moveCount;
+
+
+    /**
+     * Starts recording a new game.
+     *
+     * @param gameMode Game mode of the game.
+     * @param startTime Start of the game (epoch milliseconds).
+     */
+    public void start(GameMode gameMode, long startTime)
+    {
+        this.gameMode = gameMode;
+        this.startTime = startTime;
+        blackDiscs = 0;
+        whiteDiscs = 0;
+        duration = 0;
+        moveCount = 0;
+    }
+
+
+    /**
+     * Records a played move.
+     *
+     * @param coordinates The played move's coordinates.
+     */
+    public void addMove(Coordinates coordinates)
+    {
+        addSlot(Long.numberOfTrailingZeros(BitBoard.bitPosition(coordinates)));
+    }
+
+
+    /**
+     * Records a played move, or a pass.
+     *
+     * @param slot The played slot's bit index, or <u>PASS</u>.
+     */
+    public void addSlot(int slot)
+    {
+        if (moveCount == MAX_MOVES) throw new IllegalStateException("A game has at most " + MAX_MOVES + " moves");
+        moves[moveCount++] = (byte) slot;
+    }
+
+
+    /**
+     * Records the game's end.
+     *
+     * @param board The final board.
+     * @param endTime End of the game (epoch milliseconds).
+     */
+    public void finish(BitBoard board, long endTime)
+    {
+        blackDiscs = Long.bitCount(board.getColorBits(BLACK));
+        whiteDiscs = Long.bitCount(board.getColorBits(WHITE));
+        duration = (int) Math.min(Integer.MAX_VALUE, endTime - startTime);
+    }
+
+
+    /**
+     * Returns the game's winner.
+     *
+     * @return 'Player' enum of the winner, or null for a draw.
+     */
+    public Player winner()
+    {
+        if (blackDiscs == whiteDiscs) return null;
+        return blackDiscs > whiteDiscs ? BLACK : WHITE;
+    }
+
+
+    /**
+     * Replays the game on a 'Model' (see <u>Model.replay</u>), leaving it at the game's final position.
+     *
+     * @param model 'Model' instance, its board replaced by the game's.
+     * @param verify Whether the game is verified: every move legal, the game ended, and the final discs
+     *               those of the header.
+     * @return boolean for if the game has been replayed (and verified, when asked).
+     */
+    public boolean replay(Model model, boolean verify)
+    {
+        if (model.replay(moves, moveCount, verify) != moveCount) return false;
+        if (!verify) return true;
+
+        BitBoard board = model.getBoard();
+        return model.isFinished() && Long.bitCount(board.getColorBits(BLACK)) == blackDiscs
+                && Long.bitCount(board.getColorBits(WHITE)) == whiteDiscs;
+    }
+}
@@ -0,0 +1,248 @@
+package RECORDS;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+import MVP.Enums.GameMode;
+
+import static RECORDS.GameRecordWriter.*;
+
+
+/**
+ * <h1>Class type: 'GameRecordReader'</h1>
+ *
+ * Streams the game records of segment files (written by 'GameRecordWriter'), in order, into a
+ * reused 'GameRecord' instance: the files are read through their channels a large block at a time,
+ * and reading a record allocates nothing.
+ *
+ * Every record's checksum can be verified as it's read (a corrupt record throws an IOException).
+ * A segment's torn tail (a record cut short by a crash) ends the segment, and is counted.
+ *
+ * @author David Salasin
+ * @see GameRecordWriter
+ */
+public class GameRecordReader implements Closeable
+{
+    /**
+     * Size of the read buffer (bytes).
+     */
+    private static final int BUFFER_BYTES = 1 << 20;
+
+
+    /**
+     * The game modes, by ordinal.
+     */
+    private static final GameMode[] GAME_MODES = GameMode.values();
+
+
+    /**
+     * The segment files.
+     */
+    private final List<Path> segments;
+
+
+    /**
+     * Flag for verifying every record's checksum.
+     */
+    private final boolean verifyChecksums;
+
+
+    // Read buffer, and the checksum of a record:
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.BIG_ENDIAN);
+    private final CRC32C checksum = new CRC32C();
+
+
+    // Current segment:
+    private FileChannel channel;
+    private int segmentIndex = -1;
+    private boolean segmentEnded = true;
+
+
+    /**
+     * Amount of torn segment tails.
+     */
+    private int tornTails;
+
+
+    /**
+     * Constructor for 'GameRecordReader'.
+     *
+     * @param segments The segment files, read in order.
+     * @param verifyChecksums Whether every record's checksum is verified.
+     */
+    public GameRecordReader(List<Path> segments, boolean verifyChecksums)
+    {
+        this.segments = List.copyOf(segments);
+        this.verifyChecksums = verifyChecksums;
+    }
+
+
+    /**
+     * Opens the segment files of a directory, or a single segment file.
+     *
+     * @param path The segments' directory, or a segment file.
+     * @param verifyChecksums Whether every record's checksum is verified.
+     * @return 'GameRecordReader' instance.
+     * @throws IOException if the directory can't be read.
+     */
+    public static GameRecordReader open(Path path, boolean verifyChecksums) throws IOException
+    {
+        List<Path> segments = Files.isDirectory(path) ? GameRecordWriter.segments(path) : List.of(path);
+        return new GameRecordReader(segments, verifyChecksums);
+    }
+
+
+    /**
+     * Reads the next game record.
+     *
+     * @param record 'GameRecord' instance to be filled.
+     * @return boolean for if a record has been read (false after the last one).
+     * @throws IOException if a segment can't be read, isn't a segment file, or has a corrupt record.
+     */
+    public boolean next(GameRecord record) throws IOException
+    {
+        while (true)
+        {
+            if (segmentEnded && !nextSegment()) return false;
+
+            if (!fill(1))
+            {
+                segmentEnded = true;
+                continue;
+            }
+
+            int start = buffer.position();
+            int length = buffer.get(start) & 0xFF;
+            int moveCount = length - RECORD_HEADER_BYTES - CHECKSUM_BYTES;
+
+            if (moveCount < 0 || moveCount > GameRecord.MAX_MOVES) throw corrupt("bad record length " + length);
+
+            if (!fill(1 + length))
+            {
+                // A record cut short by a crash.
+                tornTails++;
+                segmentEnded = true;
+                continue;
+            }
+
+            start = buffer.position();
+
+            if (verifyChecksums)
+            {
+                ByteBuffer bytes = buffer.duplicate();
+                bytes.position(start + 1).limit(start + 1 + length - CHECKSUM_BYTES);
+
+                checksum.reset();
+                checksum.update(bytes);
+                if ((int) checksum.getValue() != buffer.getInt(start + 1 + length - CHECKSUM_BYTES))
+                {
+                    throw corrupt("checksum mismatch");
+                }
+            }
+
+            int gameMode = buffer.get(start + 1);
+            if (gameMode < 0 || gameMode >= GAME_MODES.length) throw corrupt("bad game mode " + gameMode);
+
+            record.gameMode = GAME_MODES[gameMode];
+            record.blackDiscs = buffer.get(start + 2);
+            record.whiteDiscs = buffer.get(start + 3);
+            record.startTime = buffer.getLong(start + 4);
+            record.duration = buffer.getInt(start + 12);
+            record.moveCount = moveCount;
+            buffer.get(start + 1 + RECORD_HEADER_BYTES, record.moves, 0, moveCount);
+
+            buffer.position(start + 1 + length);
+            return true;
+        }
+    }
+
+
+    /**
+     * Returns the amount of torn segment tails read so far (records cut short by a crash).
+     *
+     * @return int torn tails.
+     */
+    public int getTornTails()
+    {
+        return tornTails;
+    }
+
+
+    /**
+     * Closes the current segment file.
+     *
+     * @throws IOException if the file can't be closed.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        if (channel != null) channel.close();
+        channel = null;
+    }
+
+
+    /**
+     * Opens the next segment file, and checks its header.
+     *
+     * @return boolean for if there is a next segment.
+     */
+    private boolean nextSegment() throws IOException
+    {
+        close();
+        if (++segmentIndex >= segments.size()) return false;
+
+        channel = FileChannel.open(segments.get(segmentIndex), StandardOpenOption.READ);
+        buffer.clear().flip();
+        segmentEnded = false;
+
+        if (!fill(HEADER_BYTES) || buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+        {
+            throw new IOException("Not a game record segment (version " + VERSION + "): " + segments.get(segmentIndex));
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Makes sure that the buffer holds the passed amount of bytes, reading more of the segment if needed.
+     *
+     * @return boolean for if the segment had enough bytes left.
+     */
+    private boolean fill(int bytes) throws IOException
+    {
+        if (buffer.remaining() >= bytes) return true;
+
+        buffer.compact();
+        try
+        {
+            while (buffer.position() < bytes)
+            {
+                if (channel.read(buffer) < 0) return false;
+            }
+        }
+        finally
+        {
+            buffer.flip();
+        }
+
+        return true;
+    }
+
+
+    /**
+     * @return IOException of a corrupt record in the current segment.
+     */
+    private IOException corrupt(String message)
+    {
+        return new IOException("Corrupt game record (" + message + "): " + segments.get(segmentIndex));
+    }
+}
@@ -0,0 +1,310 @@
+package RECORDS;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+
+/**
+ * <h1>Class type: 'GameRecordWriter'</h1>
+ *
+ * Appends game records to segment files of a directory (<i>games-000000.rec</i>, <i>games-000001.rec</i>...),
+ * starting a new segment when the current one reaches its size limit. Records are buffered, and
+ * written to the file channel a block at a time.
+ *
+ * Segment layout (big endian):
+ * - header: magic "RVGR" (int), version (int).
+ * - records, each prefixed by its length: length of the rest of the record (byte), game mode's ordinal (byte),
+ *   BLACK's and WHITE's final discs (byte each), start time (long, epoch ms), duration (int, ms),
+ *   the moves (a byte each, see 'GameRecord'), and the CRC-32C of the record from the game mode
+ *   to the last move (int).
+ *
+ * A writer never appends to an existing segment (it starts a new one), so a segment torn by a crash
+ * only loses its unwritten tail.
+ *
+ * <b>NOTE:</b> thread safe - records are appended holding a lock (and not a synchronized block,
+ * which would pin a virtual thread to its carrier while it writes).
+ *
+ * @author David Salasin
+ * @see GameRecordReader
+ */
+public class GameRecordWriter implements Closeable
+{
+    // Segment layout:
+    public static final int MAGIC = 0x52564752;
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 8;
+
+
+    // Record layout: game mode, discs, start time and duration / checksum.
+    public static final int RECORD_HEADER_BYTES = 15;
+    public static final int CHECKSUM_BYTES = 4;
+
+
+    /**
+     * Maximum size of a record, its length byte included.
+     */
+    public static final int MAX_RECORD_BYTES = 1 + RECORD_HEADER_BYTES + GameRecord.MAX_MOVES + CHECKSUM_BYTES;
+
+
+    /**
+     * Default size limit of a segment file (bytes).
+     */
+    public static final long DEFAULT_SEGMENT_BYTES = 64L << 20;
+
+
+    // Segment files' name:
+    private static final String SEGMENT_PREFIX = "games-";
+    private static final String SEGMENT_SUFFIX = ".rec";
+
+
+    /**
+     * Size of the write buffer (bytes).
+     */
+    private static final int BUFFER_BYTES = 1 << 16;
+
+
+    /**
+     * The segments' directory.
+     */
+    private final Path directory;
+
+
+    /**
+     * Size limit of a segment file (bytes).
+     */
+    private final long segmentBytes;
+
+
+    /**
+     * Lock held while appending.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+
+    // Write buffer, and a record's encoding buffer:
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.BIG_ENDIAN);
+    private final byte[] encoded = new byte[MAX_RECORD_BYTES];
+    private final CRC32C checksum = new CRC32C();
+
+
+    // Current segment:
+    private FileChannel channel;
+    private int segmentNumber;
+    private long segmentSize;
+
+
+    /**
+     * Constructor for 'GameRecordWriter', starting a new segment after the directory's existing ones.
+     *
+     * @param directory The segments' directory (created if it doesn't exist).
+     * @param segmentBytes Size limit of a segment file (bytes).
+     * @throws IOException if the segment can't be created.
+     */
+    public GameRecordWriter(Path directory, long segmentBytes) throws IOException
+    {
+        this.directory = directory;
+        this.segmentBytes = Math.max(HEADER_BYTES + MAX_RECORD_BYTES, segmentBytes);
+
+        Files.createDirectories(directory);
+
+        List<Path> segments = segments(directory);
+        segmentNumber = segments.isEmpty() ? 0 : segmentNumber(segments.get(segments.size() - 1)) + 1;
+
+        openSegment();
+    }
+
+
+    /**
+     * Returns the segment files of a directory, in order.
+     *
+     * @param directory The segments' directory.
+     * @return List of the segment files' paths.
+     * @throws IOException if the directory can't be read.
+     */
+    public static List<Path> segments(Path directory) throws IOException
+    {
+        List<Path> segments = new ArrayList<>();
+
+        try (Stream<Path> files = Files.list(directory))
+        {
+            files.filter(GameRecordWriter::isSegment).sorted().forEach(segments::add);
+        }
+
+        return segments;
+    }
+
+
+    /**
+     * Appends a game record.
+     *
+     * @param record The game's record.
+     * @throws IOException if the record can't be written.
+     */
+    public void append(GameRecord record) throws IOException
+    {
+        lock.lock();
+        try
+        {
+            int length = encode(record);
+
+            if (segmentSize + length > segmentBytes)
+            {
+                closeSegment();
+                segmentNumber++;
+                openSegment();
+            }
+
+            if (buffer.remaining() < length) writeBuffer();
+            buffer.put(encoded, 0, length);
+            segmentSize += length;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Writes the buffered records to the segment file.
+     *
+     * @throws IOException if the records can't be written.
+     */
+    public void flush() throws IOException
+    {
+        lock.lock();
+        try
+        {
+            writeBuffer();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Writes the buffered records, and closes the segment file.
+     *
+     * @throws IOException if the records can't be written.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        lock.lock();
+        try
+        {
+            closeSegment();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Encodes a record into the encoding buffer.
+     *
+     * <b>NOTE:</b> called holding the lock.
+     *
+     * @return Length of the encoded record (bytes).
+     */
+    private int encode(GameRecord record)
+    {
+        int length = 1 + RECORD_HEADER_BYTES + record.moveCount + CHECKSUM_BYTES;
+        ByteBuffer bytes = ByteBuffer.wrap(encoded, 0, length);
+
+        bytes.put((byte) (length - 1))
+                .put((byte) record.gameMode.ordinal())
+                .put((byte) record.blackDiscs)
+                .put((byte) record.whiteDiscs)
+                .putLong(record.startTime)
+                .putInt(record.duration)
+                .put(record.moves, 0, record.moveCount);
+
+        checksum.reset();
+        checksum.update(encoded, 1, length - 1 - CHECKSUM_BYTES);
+        bytes.putInt((int) checksum.getValue());
+
+        return length;
+    }
+
+
+    /**
+     * Opens the current segment file, and writes its header.
+     */
+    private void openSegment() throws IOException
+    {
+        channel = FileChannel.open(directory.resolve(segmentName(segmentNumber)), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE);
+
+        buffer.putInt(MAGIC).putInt(VERSION);
+        segmentSize = HEADER_BYTES;
+    }
+
+
+    /**
+     * Writes the buffered records, and closes the current segment file.
+     */
+    private void closeSegment() throws IOException
+    {
+        if (channel == null) return;
+
+        writeBuffer();
+        channel.close();
+        channel = null;
+    }
+
+
+    /**
+     * Writes the buffer to the segment file, and clears it.
+     */
+    private void writeBuffer() throws IOException
+    {
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+
+
+    /**
+     * @return The name of a segment file.
+     */
+    private static String segmentName(int number)
+    {
+        return String.format("%s%06d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX);
+    }
+
+
+    /**
+     * @return Whether a file is a segment file.
+     */
+    private static boolean isSegment(Path path)
+    {
+        String name = path.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+
+    /**
+     * @return The number of a segment file.
+     */
+    private static int segmentNumber(Path segment)
+    {
+        String name = segment.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
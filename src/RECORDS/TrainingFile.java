@@ -0,0 +1,439 @@
+package RECORDS;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantLock;
+
+import BIT_MANAGEMENT.Symmetry;
+import BIT_MANAGEMENT.Zobrist;
+import MVP.Enums.Player;
+
+import static MVP.Enums.Player.*;
+
+
+/**
+ * <h1>Class type: 'TrainingFile'</h1>
+ *
+ * A memory-mapped file of labelled positions (see 'TrainingPosition'), of fixed-size records, so
+ * a position is read at its index without parsing the file.
+ *
+ * File layout (big endian):
+ * - header: magic "RVTD" (int), version (int), capacity (long, positions), size (long, positions),
+ *   next game (long, the game a resumed generator starts from).
+ * - records: BLACK's pieces (long), WHITE's pieces (long), score (int), player to move (byte, 0 for BLACK),
+ *   label (byte), depth (byte), and a reserved byte.
+ *
+ * Positions are appended a game at a time, and deduplicated: a position already in the file (in any of
+ * its symmetries, see <u>Symmetry.canonicalize</u>) isn't appended again. The header's size is updated
+ * after the game's records are written, so a file cut short by a crash only loses the games being appended,
+ * and is resumed by <u>resume</u>.
+ *
+ * <b>NOTE:</b> appending is thread safe - games are appended holding a lock. Reading isn't synchronized
+ * with appending.
+ *
+ * @author David Salasin
+ * @see TrainingPosition
+ */
+public class TrainingFile implements Closeable
+{
+    // File layout:
+    public static final int MAGIC = 0x52565444;
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 32;
+    public static final int RECORD_BYTES = 24;
+
+
+    /**
+     * Maximum capacity of a file (positions), as it's mapped by a single buffer.
+     */
+    public static final long MAX_CAPACITY = (Integer.MAX_VALUE - HEADER_BYTES) / RECORD_BYTES;
+
+
+    // Header fields' offsets:
+    private static final int CAPACITY_OFFSET = 8;
+    private static final int SIZE_OFFSET = 16;
+    private static final int NEXT_GAME_OFFSET = 24;
+
+
+    // Record fields' offsets:
+    private static final int WHITE_OFFSET = 8;
+    private static final int SCORE_OFFSET = 16;
+    private static final int TO_MOVE_OFFSET = 20;
+    private static final int LABEL_OFFSET = 21;
+    private static final int DEPTH_OFFSET = 22;
+
+
+    /**
+     * The file's path.
+     */
+    private final Path path;
+
+
+    /**
+     * The mapped file.
+     */
+    private final MappedByteBuffer buffer;
+
+
+    /**
+     * Capacity of the file (positions).
+     */
+    private final long capacity;
+
+
+    /**
+     * Lock held while appending.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+
+    /**
+     * Open addressing set of the appended positions' keys (0 for an empty entry), or null for a read-only file.
+     */
+    private final long[] keys;
+
+
+    // Canonical pair of a position being appended.
+    private final long[] pieces = new long[2];
+
+
+    // Appended positions, the next game, and the positions found already in the file:
+    private long size;
+    private long nextGame;
+    private long duplicates;
+
+
+    /**
+     * Constructor for 'TrainingFile', mapping an opened file.
+     */
+    private TrainingFile(Path path, FileChannel channel, long capacity, boolean writable) throws IOException
+    {
+        this.path = path;
+        this.capacity = capacity;
+
+        buffer = channel.map(writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY,
+                0, HEADER_BYTES + capacity * RECORD_BYTES);
+
+        keys = writable ? new long[Integer.highestOneBit((int) Math.max(1, capacity)) << 2] : null;
+    }
+
+
+    /**
+     * Creates a new, empty file.
+     *
+     * @param path The file's path (mustn't exist).
+     * @param capacity Capacity of the file (positions, at most <u>MAX_CAPACITY</u>).
+     * @return 'TrainingFile' instance, open for appending.
+     * @throws IOException if the file exists or can't be created.
+     */
+    public static TrainingFile create(Path path, long capacity) throws IOException
+    {
+        if (capacity < 1 || capacity > MAX_CAPACITY)
+        {
+            throw new IllegalArgumentException("A capacity of 1 - " + MAX_CAPACITY + " positions: " + capacity);
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE))
+        {
+            TrainingFile file = new TrainingFile(path, channel, capacity, true);
+
+            file.buffer.putInt(0, MAGIC).putInt(4, VERSION).putLong(CAPACITY_OFFSET, capacity);
+            file.writeHeader();
+
+            return file;
+        }
+    }
+
+
+    /**
+     * Opens an existing file for appending to it, e.g. after a crash: the positions of its header's size
+     * are kept (and deduplicated against), and generating resumes from its next game.
+     *
+     * @param path The file's path.
+     * @return 'TrainingFile' instance, open for appending.
+     * @throws IOException if the file can't be read or isn't a training data file.
+     */
+    public static TrainingFile resume(Path path) throws IOException
+    {
+        TrainingFile file = open(path, true);
+
+        for (long index = 0; index < file.size; index++)
+        {
+            file.pieces[0] = file.buffer.getLong(file.offset(index));
+            file.pieces[1] = file.buffer.getLong(file.offset(index) + WHITE_OFFSET);
+            file.insertKey(file.key(file.pieces, file.toMove(index)));
+        }
+
+        return file;
+    }
+
+
+    /**
+     * Opens an existing file for reading.
+     *
+     * @param path The file's path.
+     * @return 'TrainingFile' instance, read-only.
+     * @throws IOException if the file can't be read or isn't a training data file.
+     */
+    public static TrainingFile open(Path path) throws IOException
+    {
+        return open(path, false);
+    }
+
+
+    /**
+     * Returns the amount of positions in the file.
+     *
+     * @return long positions.
+     */
+    public long size()
+    {
+        return size;
+    }
+
+
+    /**
+     * Returns the capacity of the file.
+     *
+     * @return long positions.
+     */
+    public long capacity()
+    {
+        return capacity;
+    }
+
+
+    /**
+     * Returns whether the file has been filled to its capacity.
+     *
+     * @return boolean for if no more positions can be appended.
+     */
+    public boolean isFull()
+    {
+        return size >= capacity;
+    }
+
+
+    /**
+     * Returns the game a generator starts (or resumes) from: the game after the last appended one.
+     *
+     * @return long game number.
+     */
+    public long nextGame()
+    {
+        return nextGame;
+    }
+
+
+    /**
+     * Returns the amount of positions not appended (since the file was opened) as they were already in it.
+     *
+     * @return long positions.
+     */
+    public long duplicates()
+    {
+        return duplicates;
+    }
+
+
+    /**
+     * Reads a position.
+     *
+     * @param index The position's index (below <u>size</u>).
+     * @param position 'TrainingPosition' instance to be filled.
+     */
+    public void read(long index, TrainingPosition position)
+    {
+        int offset = offset(index);
+
+        position.set(buffer.getLong(offset), buffer.getLong(offset + WHITE_OFFSET), toMove(index),
+                buffer.getInt(offset + SCORE_OFFSET), buffer.get(offset + LABEL_OFFSET),
+                buffer.get(offset + DEPTH_OFFSET));
+    }
+
+
+    /**
+     * Appends a game's positions, skipping those already in the file, and those beyond its capacity.
+     *
+     * @param game The game's number (the next game is then at least the one after it).
+     * @param positions The game's positions.
+     * @param count Amount of positions.
+     * @return int amount of appended positions.
+     */
+    public int append(long game, TrainingPosition[] positions, int count)
+    {
+        if (keys == null) throw new IllegalStateException("Read-only training data file: " + path);
+
+        lock.lock();
+        try
+        {
+            int appended = 0;
+
+            for (int i = 0; i < count && size < capacity; i++)
+            {
+                TrainingPosition position = positions[i];
+
+                pieces[0] = position.blackBits;
+                pieces[1] = position.whiteBits;
+
+                if (!insertKey(key(pieces, position.toMove)))
+                {
+                    duplicates++;
+                    continue;
+                }
+
+                int offset = offset(size++);
+
+                buffer.putLong(offset, position.blackBits)
+                        .putLong(offset + WHITE_OFFSET, position.whiteBits)
+                        .putInt(offset + SCORE_OFFSET, position.score)
+                        .put(offset + TO_MOVE_OFFSET, (byte) (position.toMove == BLACK ? 0 : 1))
+                        .put(offset + LABEL_OFFSET, position.label)
+                        .put(offset + DEPTH_OFFSET, (byte) position.depth);
+
+                appended++;
+            }
+
+            nextGame = Math.max(nextGame, game + 1);
+            writeHeader();
+
+            return appended;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Writes the mapped file's changes to the storage device (they survive a crash of the process
+     * without it, but not of the system).
+     */
+    public void force()
+    {
+        lock.lock();
+        try
+        {
+            if (keys != null) buffer.force();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Writes the file's changes to the storage device. The buffer stays mapped until it's collected.
+     */
+    @Override
+    public void close()
+    {
+        force();
+    }
+
+
+    /**
+     * Opens an existing file, and checks its header.
+     */
+    private static TrainingFile open(Path path, boolean writable) throws IOException
+    {
+        try (FileChannel channel = writable
+                ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ))
+        {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(HEADER_BYTES, channel.size()));
+
+            if (header.limit() < HEADER_BYTES || header.getInt(0) != MAGIC || header.getInt(4) != VERSION)
+            {
+                throw new IOException("Not a training data file (version " + VERSION + "): " + path);
+            }
+
+            long capacity = header.getLong(CAPACITY_OFFSET);
+            long size = header.getLong(SIZE_OFFSET);
+
+            if (capacity < 1 || capacity > MAX_CAPACITY || size < 0 || size > capacity)
+            {
+                throw new IOException("Corrupt training data file header (capacity " + capacity + ", size " + size
+                        + "): " + path);
+            }
+
+            TrainingFile file = new TrainingFile(path, channel, capacity, writable);
+            file.size = size;
+            file.nextGame = header.getLong(NEXT_GAME_OFFSET);
+
+            return file;
+        }
+    }
+
+
+    /**
+     * Writes the size and the next game to the header.
+     *
+     * <b>NOTE:</b> called holding the lock.
+     */
+    private void writeHeader()
+    {
+        buffer.putLong(SIZE_OFFSET, size).putLong(NEXT_GAME_OFFSET, nextGame);
+    }
+
+
+    /**
+     * @return The player to move of a record.
+     */
+    private Player toMove(long index)
+    {
+        return buffer.get(offset(index) + TO_MOVE_OFFSET) == 0 ? BLACK : WHITE;
+    }
+
+
+    /**
+     * @return The offset of a record in the file.
+     */
+    private int offset(long index)
+    {
+        return (int) (HEADER_BYTES + index * RECORD_BYTES);
+    }
+
+
+    /**
+     * Calculates a position's key: the hash key of its canonical pair (never 0, the empty entry).
+     *
+     * @param pieces long[2] of BLACK's and WHITE's pieces, replaced by the canonical pair.
+     */
+    private long key(long[] pieces, Player toMove)
+    {
+        Symmetry.canonicalize(pieces);
+
+        long key = Zobrist.hash(pieces[0], pieces[1], toMove);
+        return key != 0L ? key : 1L;
+    }
+
+
+    /**
+     * Inserts a key into the set, by linear probing.
+     *
+     * @return boolean for if the key wasn't in the set.
+     */
+    private boolean insertKey(long key)
+    {
+        int mask = keys.length - 1;
+
+        for (int i = (int) (key ^ key >>> 32) & mask; ; i = (i + 1) & mask)
+        {
+            if (keys[i] == key) return false;
+
+            if (keys[i] == 0L)
+            {
+                keys[i] = key;
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package RECORDS;
+
+import MVP.Enums.Player;
+
+
+/**
+ * <h1>Class type: 'TrainingPosition'</h1>
+ *
+ * A labelled position of a training data file (see 'TrainingFile'): the board, the player to move,
+ * and the score of the position for the player to move - in 'PatternEvaluate' units (1/16 disc),
+ * either searched by the heuristic or solved exactly.
+ *
+ * A single instance is reused for every position read, so streaming a file allocates nothing.
+ *
+ * @author David Salasin
+ * @see TrainingFile
+ */
+public class TrainingPosition
+{
+    // Labels of the score:
+    public static final byte SEARCHED = 1;
+    public static final byte SOLVED = 2;
+
+
+    // The board:
+    public long blackBits;
+    public long whiteBits;
+
+
+    /**
+     * The player to move.
+     */
+    public Player toMove;
+
+
+    /**
+     * Score of the position for the player to move (1/16 disc).
+     */
+    public int score;
+
+
+    /**
+     * How the score was found: <u>SEARCHED</u> or <u>SOLVED</u>.
+     */
+    public byte label;
+
+
+    /**
+     * Depth of the search (or empty slots of the solved position) the score was found at.
+     */
+    public int depth;
+
+
+    /**
+     * Sets the labelled position.
+     *
+     * @param blackBits BLACK board pieces.
+     * @param whiteBits WHITE board pieces.
+     * @param toMove The player to move.
+     * @param score Score of the position for the player to move (1/16 disc).
+     * @param label <u>SEARCHED</u> or <u>SOLVED</u>.
+     * @param depth Depth of the search, or empty slots of the solved position.
+     */
+    public void set(long blackBits, long whiteBits, Player toMove, int score, byte label, int depth)
+    {
+        this.blackBits = blackBits;
+        this.whiteBits = whiteBits;
+        this.toMove = toMove;
+        this.score = score;
+        this.label = label;
+        this.depth = depth;
+    }
+
+
+    /**
+     * Returns the pieces of the player to move.
+     *
+     * @return long board pieces.
+     */
+    public long playerBits()
+    {
+        return toMove == Player.BLACK ? blackBits : whiteBits;
+    }
+
+
+    /**
+     * Returns the pieces of the player not to move.
+     *
+     * @return long board pieces.
+     */
+    public long opponentBits()
+    {
+        return toMove == Player.BLACK ? whiteBits : blackBits;
+    }
+}
@@ -0,0 +1,867 @@
+package SEARCH;
+
+import BIT_MANAGEMENT.BitBoard;
+import BIT_MANAGEMENT.MoveGenerator;
+import BIT_MANAGEMENT.Stability;
+import BIT_MANAGEMENT.Zobrist;
+import INFORMATION_ENCAPSULATION.Coordinates;
+import INFORMATION_ENCAPSULATION.Move;
+import MVP.Enums.Player;
+
+
+/**
+ * <h1>Class type: 'EndgameSolver'</h1>
+ *
+ * Exact solver for the last empty slots of the game: searches every line to the end of the game,
+ * scoring by the final <b>disc differential</b> (the empty slots left go to the winner), instead of
+ * by a heuristic evaluation.
+ *
+ * The search is a fail-soft negamax over two raw pieces longs (player to move, opponent), scored
+ * from the point of view of the player to move, switching its method as the empty slots run out:
+ * - <b>fastest-first</b> (7 empty slots and more): moves ordered by the fewest replies left to the
+ *   opponent, searched by PVS, with the transposition table.
+ * - <b>parity</b> (5 - 6 empty slots): moves in the board quadrants holding an odd amount of empty
+ *   slots first (the player who plays last in a region is usually the one who gains from it).
+ * - <b>unrolled</b> (1 - 4 empty slots): the empty slots are tried directly, without generating
+ *   moves or ordering them.
+ *
+ * Positions of which even winning all of the unstable discs can't beat alpha are cut off
+ * (<b>stability cutoff</b>) before being searched.
+ *
+ * Besides the exact score, the root can be solved for <b>win / loss / draw</b> only, by a (-1, 1)
+ * null window, which is much faster than the exact score.
+ *
+ * <b>NOTE:</b> holds per-search state - every searching thread needs its own instance.
+ *
+ * @author David Salasin
+ */
+public class EndgameSolver
+{
+    /**
+     * Highest possible disc differential.
+     */
+    public static final int SCORE_MAX = 64;
+
+
+    /**
+     * Score of a node without any searched move yet (below any possible score).
+     */
+    private static final int NO_SCORE = -SCORE_MAX - 1;
+
+
+    /**
+     * Minimum empty slots for fastest-first ordering (below it, ordering costs more than it saves).
+     */
+    private static final int FASTEST_FIRST_MIN_EMPTIES = 7;
+
+
+    /**
+     * Minimum empty slots for probing/storing the transposition table.
+     */
+    private static final int TABLE_MIN_EMPTIES = 7;
+
+
+    /**
+     * Maximum amount of available moves in a position.
+     */
+    private static final int MAX_MOVES = 64;
+
+
+    /**
+     * Key added (XOR) to the solver's positions keys, so the solver's entries (disc differentials)
+     * never match the heuristic game-tree's entries of the same position.
+     */
+    private static final long SOLVER_KEY = 0x9E3779B97F4A7C15L;
+
+
+    /**
+     * The board's four quadrants (A1-D4, E1-H4, A5-D8, E5-H8), for the parity ordering.
+     */
+    private static final long[] QUADRANTS = {
+            0x00000000F0F0F0F0L, 0x000000000F0F0F0FL, 0xF0F0F0F000000000L, 0x0F0F0F0F00000000L
+    };
+
+
+    /**
+     * Minimum empty slots for ordering the moves by a shallow mobility search, instead of by
+     * the replies count alone (worth its cost only far from the leaves).
+     */
+    private static final int SHALLOW_ORDERING_MIN_EMPTIES = 14;
+
+
+    /**
+     * Depth of the shallow mobility search ordering the moves.
+     */
+    private static final int SHALLOW_ORDERING_DEPTH = 1;
+
+
+    /**
+     * Constant long value for a Bit Board's corners.
+     */
+    private static final long CORNERS_MASK = 0x8100000000000081L;
+
+
+    // Search control:
+    private static final int CLOCK_CHECK_MASK = 1023;
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+
+    /**
+     * Transposition table shared with the game-tree, or null for solving without one.
+     */
+    private TranspositionTable transpositionTable;
+
+
+    /**
+     * Deadline (System.nanoTime) of the running solve, <u>NO_DEADLINE</u> when unlimited.
+     */
+    private long deadline = NO_DEADLINE;
+
+
+    /**
+     * Set (by any thread) to stop the running solve.
+     */
+    private volatile boolean stopRequested;
+
+
+    /**
+     * Whether the running solve has been stopped by its deadline / a stop request.
+     */
+    private boolean aborted;
+
+
+    /**
+     * Nodes searched by the last solve.
+     */
+    private long nodes;
+
+
+    // Fastest-first move lists, per amount of empty slots (so nodes of different depths don't share them):
+    private final long[][] movePositions = new long[SCORE_MAX + 1][MAX_MOVES];
+    private final long[][] moveFlips = new long[SCORE_MAX + 1][MAX_MOVES];
+    private final int[][] moveRanks = new int[SCORE_MAX + 1][MAX_MOVES];
+
+
+    /**
+     * Sets the transposition table the solver shares with the game-tree.
+     *
+     * @param transpositionTable 'TranspositionTable' instance, or null for solving without one.
+     */
+    public void setTranspositionTable(TranspositionTable transpositionTable)
+    {
+        this.transpositionTable = transpositionTable;
+    }
+
+
+    /**
+     * Sets the deadline of the next solves.
+     *
+     * @param deadline System.nanoTime deadline, or Long.MAX_VALUE for unlimited.
+     */
+    public void setDeadline(long deadline)
+    {
+        this.deadline = deadline;
+    }
+
+
+    /**
+     * Stops the running solve (from any thread). The request stays until <u>clearStopRequest</u>
+     * (also stopping the next solve at once, if it comes before it starts).
+     */
+    public void requestStop()
+    {
+        stopRequested = true;
+    }
+
+
+    /**
+     * Clears a stop request, so that the next solve runs.
+     */
+    public void clearStopRequest()
+    {
+        stopRequested = false;
+    }
+
+
+    /**
+     * @return Whether the last solve has been stopped before it finished (its result is meaningless).
+     */
+    public boolean isAborted()
+    {
+        return aborted;
+    }
+
+
+    /**
+     * @return Nodes searched by the last solve.
+     */
+    public long getNodes()
+    {
+        return nodes;
+    }
+
+
+    /**
+     * Solves the exact final disc differential of a position.
+     *
+     * @param player Pieces of the player to move.
+     * @param opponent Pieces of the opponent.
+     * @return int disc differential from the point of view of the player to move (with perfect play).
+     */
+    public int solveExact(long player, long opponent)
+    {
+        startSolve();
+        return search(player, opponent, -SCORE_MAX, SCORE_MAX);
+    }
+
+
+    /**
+     * Solves the game's result of a position only, by a (-1, 1) null window.
+     *
+     * @param player Pieces of the player to move.
+     * @param opponent Pieces of the opponent.
+     * @return 1 for a win of the player to move, 0 for a draw, -1 for a loss.
+     */
+    public int solveWinLossDraw(long player, long opponent)
+    {
+        startSolve();
+        return Integer.signum(search(player, opponent, -1, 1));
+    }
+
+
+    /**
+     * Solves the best move of a position, updating the passed 'Move' to it: its score is the exact
+     * disc differential (or 1 / 0 / -1 when solving for win / loss / draw only), and its depth the
+     * amount of empty slots searched to the end of the game.
+     *
+     * <b>NOTE:</b> when the solve is aborted, the passed 'Move' is left as it was (see <u>isAborted</u>).
+     *
+     * @param player Pieces of the player to move (must have an available move).
+     * @param opponent Pieces of the opponent.
+     * @param winLossDraw Solving for the game's result only, instead of the exact score.
+     * @param bestPlay 'Move' instance to be updated.
+     */
+    public void solveRoot(long player, long opponent, boolean winLossDraw, Move bestPlay)
+    {
+        startSolve();
+
+        int alpha = winLossDraw ? -1 : -SCORE_MAX;
+        int beta = winLossDraw ? 1 : SCORE_MAX;
+
+        int emptyCount = Long.bitCount(~(player | opponent));
+        int moveCount = orderMoves(player, opponent, emptyCount, rootTableMove(player, opponent));
+
+        long[] positions = movePositions[emptyCount];
+        long[] flips = moveFlips[emptyCount];
+
+        int best = NO_SCORE;
+        long bestPosition = 0L;
+
+        for (int i = 0; i < moveCount; i++)
+        {
+            long nextPlayer = opponent ^ flips[i];
+            long nextOpponent = player ^ (flips[i] | positions[i]);
+            int score;
+
+            // PVS: the first move sets the score, the rest only have to be proven worse.
+            if (i == 0)
+            {
+                score = -search(nextPlayer, nextOpponent, -beta, -alpha);
+            }
+            else
+            {
+                score = -search(nextPlayer, nextOpponent, -alpha - 1, -alpha);
+                if (score > alpha && score < beta && !aborted)
+                {
+                    score = -search(nextPlayer, nextOpponent, -beta, -alpha);
+                }
+            }
+
+            if (aborted) return;
+
+            if (score > best)
+            {
+                best = score;
+                bestPosition = positions[i];
+            }
+            if (best > alpha) alpha = best;
+            if (alpha >= beta) break;
+        }
+
+        Coordinates coordinates = BitBoard.boardPosition(bestPosition);
+        bestPlay.updateMove(coordinates.y_position, coordinates.x_position, winLossDraw ? Integer.signum(best) : best);
+        bestPlay.depth = emptyCount;
+    }
+
+
+    /**
+     * Resets the search state of a new solve.
+     */
+    private void startSolve()
+    {
+        nodes = 0;
+        aborted = false;
+    }
+
+
+    /**
+     * Solves a position inside the passed window, dispatching to the search method fitting
+     * its amount of empty slots.
+     *
+     * @param player Pieces of the player to move.
+     * @param opponent Pieces of the opponent.
+     * @param alpha floor score.
+     * @param beta ceiling score.
+     * @return int disc differential from the point of view of the player to move (a bound outside the window).
+     */
+    private int search(long player, long opponent, int alpha, int beta)
+    {
+        // Out of time / stopped: unwinds the search (the returned score is thrown away).
+        if ((++nodes & CLOCK_CHECK_MASK) == 0 && (stopRequested || System.nanoTime() >= deadline))
+        {
+            aborted = true;
+        }
+        if (aborted) return 0;
+
+        long empties = ~(player | opponent);
+        int emptyCount = Long.bitCount(empties);
+
+        if (emptyCount >= FASTEST_FIRST_MIN_EMPTIES) return searchFastestFirst(player, opponent, alpha, beta, emptyCount);
+        if (emptyCount > 4) return searchParity(player, opponent, alpha, beta, empties);
+
+        return searchUnrolled(player, opponent, alpha, beta, empties, emptyCount);
+    }
+
+
+    /**
+     * Searches a position by fastest-first ordering and PVS, with the transposition table.
+     *
+     * @param player Pieces of the player to move.
+     * @param opponent Pieces of the opponent.
+     * @param alpha floor score.
+     * @param beta ceiling score.
+     * @param emptyCount Amount of empty slots.
+     * @return int disc differential from the point of view of the player to move.
+     */
+    private int searchFastestFirst(long player, long opponent, int alpha, int beta, int emptyCount)
+    {
+        if (MoveGenerator.availableMoves(player, opponent) == 0L) return searchPass(player, opponent, alpha, beta);
+
+        int upperBound = stabilityBound(player, opponent, alpha);
+        if (upperBound <= alpha) return upperBound;
+
+        // Transposition table lookup (the entry's depth is its amount of empty slots, so any match is deep enough).
+        boolean useTable = transpositionTable != null && emptyCount >= TABLE_MIN_EMPTIES;
+        long key = 0L;
+        int tableMove = TranspositionTable.NO_MOVE;
+        int alphaOriginal = alpha;
+
+        if (useTable)
+        {
+            key = Zobrist.hash(player, opponent, Player.BLACK) ^ SOLVER_KEY;
+            long entry = transpositionTable.probe(key);
+
+            if (entry != TranspositionTable.MISS)
+            {
+                int storedScore = TranspositionTable.score(entry);
+                int bound = TranspositionTable.bound(entry);
+                tableMove = TranspositionTable.bestMove(entry);
+
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER && storedScore >= beta)
+                        || (bound == TranspositionTable.UPPER && storedScore <= alpha))
+                {
+                    transpositionTable.countCutoff();
+                    return storedScore;
+                }
+                if (bound == TranspositionTable.LOWER) alpha = Math.max(alpha, storedScore);
+                else beta = Math.min(beta, storedScore);
+                alphaOriginal = alpha;
+            }
+        }
+
+        int moveCount = orderMoves(player, opponent, emptyCount, tableMove);
+        long[] positions = movePositions[emptyCount];
+        long[] flips = moveFlips[emptyCount];
+
+        int best = NO_SCORE;
+        int bestMove = TranspositionTable.NO_MOVE;
+
+        for (int i = 0; i < moveCount; i++)
+        {
+            long nextPlayer = opponent ^ flips[i];
+            long nextOpponent = player ^ (flips[i] | positions[i]);
+            int score;
+
+            if (i == 0)
+            {
+                score = -search(nextPlayer, nextOpponent, -beta, -alpha);
+            }
+            else
+            {
+                score = -search(nextPlayer, nextOpponent, -alpha - 1, -alpha);
+                if (score > alpha && score < beta && !aborted)
+                {
+                    score = -search(nextPlayer, nextOpponent, -beta, -alpha);
+                }
+            }
+
+            if (aborted) return 0;
+
+            if (score > best)
+            {
+                best = score;
+                bestMove = Long.numberOfTrailingZeros(positions[i]);
+                if (best > alpha) alpha = best;
+                if (alpha >= beta) break;
+            }
+        }
+
+        if (useTable)
+        {
+            int bound = best >= beta ? TranspositionTable.LOWER
+                    : best <= alphaOriginal ? TranspositionTable.UPPER : TranspositionTable.EXACT;
+            transpositionTable.store(key, emptyCount, bound, best, bestMove);
+        }
+
+        return best;
+    }
+
+
+    /**
+     * Stability cutoff's bound: the opponent keeps its stable discs to the end of the game, so even
+     * winning all of the other discs scores at most <u>SCORE_MAX</u> - 2 * its stable discs.
+     * The stable discs are only calculated when the bound may reach alpha (the opponent's discs
+     * being an upper bound of its stable discs).
+     *
+     * @param player Pieces of the player to move.
+     * @param opponent Pieces of the opponent.
+     * @param alpha floor score.
+     * @return int highest possible score of the player to move (<u>SCORE_MAX</u> when not calculated).
+     */
+    private static int stabilityBound(long player, long opponent, int alpha)
+    {
+        if (SCORE_MAX - 2 * Long.bitCount(opponent) > alpha) return SCORE_MAX;
+
+        return SCORE_MAX - 2 * Long.bitCount(Stability.stableDiscs(opponent, player));
+    }
+
+
+    /**
+     * Ranks and orders the available moves of a position, fastest-first: the transposition table's
+     * move first, then the moves leaving the fewest replies to the opponent (corner replies count
+     * twice). Far from the leaves, the replies are ranked by a shallow mobility search instead.
+     *
+     * @param player Pieces of the player to move.
+     * @param opponent Pieces of the opponent.
+     * @param emptyCount Amount of empty slots (the index of the move lists filled).
+     * @param tableMove Transposition table's best move slot index, or <u>TranspositionTable.NO_MOVE</u>.
+     * @return Amount of ordered moves.
+     */
+    private int orderMoves(long player, long opponent, int emptyCount, int tableMove)
+    {
+        long[] positions = movePositions[emptyCount];
+        long[] flips = moveFlips[emptyCount];
+        int[] ranks = moveRanks[emptyCount];
+
+        int count = 0;
+
+        for (long iterator = MoveGenerator.availableMoves(player, opponent); iterator != 0L; iterator &= iterator - 1)
+        {
+            long position = Long.lowestOneBit(iterator);
+            long flipped = MoveGenerator.computeFlips(player, opponent, position);
+
+            long nextPlayer = opponent ^ flipped;
+            long nextOpponent = player ^ (flipped | position);
+            int rank;
+
+            // The opponent's score after the move: the lower, the better the move.
+            if (Long.numberOfTrailingZeros(position) == tableMove)
+            {
+                rank = Integer.MIN_VALUE;
+            }
+            else if (emptyCount >= SHALLOW_ORDERING_MIN_EMPTIES)
+            {
+                rank = mobilitySearch(nextPlayer, nextOpponent, SHALLOW_ORDERING_DEPTH, -Integer.MAX_VALUE, Integer.MAX_VALUE);
+            }
+            else
+            {
+                long replies = MoveGenerator.availableMoves(nextPlayer, nextOpponent);
+                rank = Long.bitCount(replies) + Long.bitCount(replies & CORNERS_MASK);
+            }
+
+            // Insertion sort (few moves): fewer replies first, equal ranks keep bit order.
+            int i = count++;
+            while (i > 0 && ranks[i - 1] > rank)
+            {
+                positions[i] = positions[i - 1];
+                flips[i] = flips[i - 1];
+                ranks[i] = ranks[i - 1];
+                i--;
+            }
+            positions[i] = position;
+            flips[i] = flipped;
+            ranks[i] = rank;
+        }
+
+        return count;
+    }
+
+
+    /**
+     * @return The transposition table's best move of the root position, or <u>TranspositionTable.NO_MOVE</u>.
+     */
+    private int rootTableMove(long player, long opponent)
+    {
+        if (transpositionTable == null) return TranspositionTable.NO_MOVE;
+
+        long entry = transpositionTable.probe(Zobrist.hash(player, opponent, Player.BLACK) ^ SOLVER_KEY);
+        return entry == TranspositionTable.MISS ? TranspositionTable.NO_MOVE : TranspositionTable.bestMove(entry);
+    }
+
+
+    /**
+     * Shallow alpha-beta search scored by mobility (corner moves and corners count extra), for ordering
+     * the moves far from the leaves.
+     *
+     * @param player Pieces of the player to move.
+     * @param opponent Pieces of the opponent.
+     * @param depth Remaining depth.
+     * @param alpha floor score.
+     * @param beta ceiling score.
+     * @return int mobility score from the point of view of the player to move.
+     */
+    private static int mobilitySearch(long player, long opponent, int depth, int alpha, int beta)
+    {
+        long moves = MoveGenerator.availableMoves(player, opponent);
+
+        if (depth == 0)
+        {
+            long replies = MoveGenerator.availableMoves(opponent, player);
+
+            return Long.bitCount(moves) + Long.bitCount(moves & CORNERS_MASK)
+                    - Long.bitCount(replies) - Long.bitCount(replies & CORNERS_MASK)
+                    + 4 * (Long.bitCount(player & CORNERS_MASK) - Long.bitCount(opponent & CORNERS_MASK));
+        }
+
+        if (moves == 0L) return -mobilitySearch(opponent, player, depth - 1, -beta, -alpha);
+
+        int best = -Integer.MAX_VALUE;
+
+        for (; moves != 0L; moves &= moves - 1)
+        {
+            long position = Long.lowestOneBit(moves);
+            long flips = MoveGenerator.computeFlips(player, opponent, position);
+            int score = -mobilitySearch(opponent ^ flips, player ^ (flips | position), depth - 1, -beta, -alpha);
+
+            if (score > best)
+            {
+                best = score;
+                if (best > alpha) alpha = best;
+                if (alpha >= beta) break;
+            }
+        }
+
+        return best;
+    }
+
+
+    /**
+     * Searches a position of few empty slots, playing the moves in odd parity quadrants first.
+     *
+     * @param player Pieces of the player to move.
+     * @param opponent Pieces of the opponent.
+     * @param alpha floor score.
+     * @param beta ceiling score.
+     * @param empties Empty slots of the board.
+     * @return int disc differential from the point of view of the player to move.
+     */
+    private int searchParity(long player, long opponent, int alpha, int beta, long empties)
+    {
+        long moves = MoveGenerator.availableMoves(player, opponent);
+        if (moves == 0L) return searchPass(player, opponent, alpha, beta);
+
+        long oddMoves = moves & oddQuadrants(empties);
+        int best = NO_SCORE;
+
+        while (moves != 0L)
+        {
+            long position = Long.lowestOneBit(oddMoves != 0L ? oddMoves : moves);
+            oddMoves &= ~position;
+            moves &= ~position;
+
+            long flips = MoveGenerator.computeFlips(player, opponent, position);
+            int score = -search(opponent ^ flips, player ^ (flips | position), -beta, -alpha);
+
+            if (score > best)
+            {
+                best = score;
+                if (best > alpha) alpha = best;
+                if (alpha >= beta) break;
+            }
+        }
+
+        return best;
+    }
+
+
+    /**
+     * Searches a position whose player to move has no available move: the opponent plays
+     * instead, or the game ends when neither player can move.
+     *
+     * @param player Pieces of the player to move.
+     * @param opponent Pieces of the opponent.
+     * @param alpha floor score.
+     * @param beta ceiling score.
+     * @return int disc differential from the point of view of the player to move.
+     */
+    private int searchPass(long player, long opponent, int alpha, int beta)
+    {
+        if (MoveGenerator.availableMoves(opponent, player) == 0L) return finalScore(player, opponent);
+
+        return -search(opponent, player, -beta, -alpha);
+    }
+
+
+    /**
+     * Solves a position of 1 - 4 empty slots, passing its empty slots (odd parity quadrants first)
+     * to the unrolled solvers.
+     *
+     * @param player Pieces of the player to move.
+     * @param opponent Pieces of the opponent.
+     * @param alpha floor score.
+     * @param beta ceiling score.
+     * @param empties Empty slots of the board.
+     * @param emptyCount Amount of empty slots.
+     * @return int disc differential from the point of view of the player to move.
+     */
+    private int searchUnrolled(long player, long opponent, int alpha, int beta, long empties, int emptyCount)
+    {
+        // Odd parity quadrants' slots first, then the rest (each in bit order).
+        long odd = empties & oddQuadrants(empties);
+
+        long slot1 = Long.lowestOneBit(odd != 0L ? odd : empties);
+        empties &= ~slot1;
+        odd &= ~slot1;
+        long slot2 = Long.lowestOneBit(odd != 0L ? odd : empties);
+        empties &= ~slot2;
+        odd &= ~slot2;
+        long slot3 = Long.lowestOneBit(odd != 0L ? odd : empties);
+        long slot4 = empties & ~slot3;
+
+        switch (emptyCount)
+        {
+            case 4: return solve4(player, opponent, alpha, beta, slot1, slot2, slot3, slot4, false);
+            case 3: return solve3(player, opponent, alpha, beta, slot1, slot2, slot3, false);
+            case 2: return solve2(player, opponent, alpha, beta, slot1, slot2, false);
+            case 1: return solve1(player, opponent, slot1);
+            default: return finalScore(player, opponent);
+        }
+    }
+
+
+    /**
+     * Solves a position of 4 empty slots.
+     *
+     * @param player Pieces of the player to move.
+     * @param opponent Pieces of the opponent.
+     * @param alpha floor score.
+     * @param beta ceiling score.
+     * @param slot1 First empty slot to try.
+     * @param slot2 Second empty slot to try.
+     * @param slot3 Third empty slot to try.
+     * @param slot4 Fourth empty slot to try.
+     * @param passed Whether the previous player has passed (a second pass ends the game).
+     * @return int disc differential from the point of view of the player to move.
+     */
+    private int solve4(long player, long opponent, int alpha, int beta,
+                       long slot1, long slot2, long slot3, long slot4, boolean passed)
+    {
+        nodes++;
+
+        int best = NO_SCORE;
+        int score;
+        long flips;
+
+        if ((flips = MoveGenerator.computeFlips(player, opponent, slot1)) != 0L)
+        {
+            best = -solve3(opponent ^ flips, player ^ (flips | slot1), -beta, -alpha, slot2, slot3, slot4, false);
+            if (best >= beta) return best;
+            if (best > alpha) alpha = best;
+        }
+        if ((flips = MoveGenerator.computeFlips(player, opponent, slot2)) != 0L)
+        {
+            score = -solve3(opponent ^ flips, player ^ (flips | slot2), -beta, -alpha, slot1, slot3, slot4, false);
+            if (score >= beta) return score;
+            if (score > best) best = score;
+            if (best > alpha) alpha = best;
+        }
+        if ((flips = MoveGenerator.computeFlips(player, opponent, slot3)) != 0L)
+        {
+            score = -solve3(opponent ^ flips, player ^ (flips | slot3), -beta, -alpha, slot1, slot2, slot4, false);
+            if (score >= beta) return score;
+            if (score > best) best = score;
+            if (best > alpha) alpha = best;
+        }
+        if ((flips = MoveGenerator.computeFlips(player, opponent, slot4)) != 0L)
+        {
+            score = -solve3(opponent ^ flips, player ^ (flips | slot4), -beta, -alpha, slot1, slot2, slot3, false);
+            if (score > best) best = score;
+        }
+
+        if (best != NO_SCORE) return best;
+        if (passed) return finalScore(player, opponent);
+
+        return -solve4(opponent, player, -beta, -alpha, slot1, slot2, slot3, slot4, true);
+    }
+
+
+    /**
+     * Solves a position of 3 empty slots.
+     *
+     * @param player Pieces of the player to move.
+     * @param opponent Pieces of the opponent.
+     * @param alpha floor score.
+     * @param beta ceiling score.
+     * @param slot1 First empty slot to try.
+     * @param slot2 Second empty slot to try.
+     * @param slot3 Third empty slot to try.
+     * @param passed Whether the previous player has passed (a second pass ends the game).
+     * @return int disc differential from the point of view of the player to move.
+     */
+    private int solve3(long player, long opponent, int alpha, int beta,
+                       long slot1, long slot2, long slot3, boolean passed)
+    {
+        nodes++;
+
+        int best = NO_SCORE;
+        int score;
+        long flips;
+
+        if ((flips = MoveGenerator.computeFlips(player, opponent, slot1)) != 0L)
+        {
+            best = -solve2(opponent ^ flips, player ^ (flips | slot1), -beta, -alpha, slot2, slot3, false);
+            if (best >= beta) return best;
+            if (best > alpha) alpha = best;
+        }
+        if ((flips = MoveGenerator.computeFlips(player, opponent, slot2)) != 0L)
+        {
+            score = -solve2(opponent ^ flips, player ^ (flips | slot2), -beta, -alpha, slot1, slot3, false);
+            if (score >= beta) return score;
+            if (score > best) best = score;
+            if (best > alpha) alpha = best;
+        }
+        if ((flips = MoveGenerator.computeFlips(player, opponent, slot3)) != 0L)
+        {
+            score = -solve2(opponent ^ flips, player ^ (flips | slot3), -beta, -alpha, slot1, slot2, false);
+            if (score > best) best = score;
+        }
+
+        if (best != NO_SCORE) return best;
+        if (passed) return finalScore(player, opponent);
+
+        return -solve3(opponent, player, -beta, -alpha, slot1, slot2, slot3, true);
+    }
+
+
+    /**
+     * Solves a position of 2 empty slots.
+     *
+     * @param player Pieces of the player to move.
+     * @param opponent Pieces of the opponent.
+     * @param alpha floor score.
+     * @param beta ceiling score.
+     * @param slot1 First empty slot to try.
+     * @param slot2 Second empty slot to try.
+     * @param passed Whether the previous player has passed (a second pass ends the game).
+     * @return int disc differential from the point of view of the player to move.
+     */
+    private int solve2(long player, long opponent, int alpha, int beta, long slot1, long slot2, boolean passed)
+    {
+        nodes++;
+
+        int best = NO_SCORE;
+        int score;
+        long flips;
+
+        if ((flips = MoveGenerator.computeFlips(player, opponent, slot1)) != 0L)
+        {
+            best = -solve1(opponent ^ flips, player ^ (flips | slot1), slot2);
+            if (best >= beta) return best;
+        }
+        if ((flips = MoveGenerator.computeFlips(player, opponent, slot2)) != 0L)
+        {
+            score = -solve1(opponent ^ flips, player ^ (flips | slot2), slot1);
+            if (score > best) best = score;
+        }
+
+        if (best != NO_SCORE) return best;
+        if (passed) return finalScore(player, opponent);
+
+        return -solve2(opponent, player, -beta, -alpha, slot1, slot2, true);
+    }
+
+
+    /**
+     * Solves a position of a single empty slot (no window needed: there is at most one line).
+     *
+     * @param player Pieces of the player to move.
+     * @param opponent Pieces of the opponent.
+     * @param slot The empty slot.
+     * @return int disc differential from the point of view of the player to move.
+     */
+    private int solve1(long player, long opponent, long slot)
+    {
+        nodes++;
+
+        int differential = Long.bitCount(player) - Long.bitCount(opponent);
+        long flips;
+
+        // The player plays the last slot, or else the opponent does, or else it goes to the winner.
+        if ((flips = MoveGenerator.computeFlips(player, opponent, slot)) != 0L)
+        {
+            return differential + 1 + 2 * Long.bitCount(flips);
+        }
+        if ((flips = MoveGenerator.computeFlips(opponent, player, slot)) != 0L)
+        {
+            return differential - 1 - 2 * Long.bitCount(flips);
+        }
+
+        return differential > 0 ? differential + 1 : differential < 0 ? differential - 1 : 0;
+    }
+
+
+    /**
+     * Scores an ended game: the disc differential, with the empty slots going to the winner.
+     *
+     * @param player Pieces of the player to move.
+     * @param opponent Pieces of the opponent.
+     * @return int final disc differential from the point of view of the player to move.
+     */
+    private static int finalScore(long player, long opponent)
+    {
+        int differential = Long.bitCount(player) - Long.bitCount(opponent);
+        int emptyCount = Long.bitCount(~(player | opponent));
+
+        if (differential > 0) return differential + emptyCount;
+        if (differential < 0) return differential - emptyCount;
+        return 0;
+    }
+
+
+    /**
+     * @param empties Empty slots of the board.
+     * @return The slots of the quadrants holding an odd amount of empty slots.
+     */
+    private static long oddQuadrants(long empties)
+    {
+        long odd = 0L;
+
+        for (long quadrant : QUADRANTS)
+        {
+            if ((Long.bitCount(empties & quadrant) & 1) != 0) odd |= quadrant;
+        }
+
+        return odd;
+    }
+}
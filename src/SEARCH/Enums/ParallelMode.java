@@ -0,0 +1,22 @@
+package SEARCH.Enums;
+
+import MVP.Model;
+
+
+/**
+ * <h1>Enum type: 'ParallelMode'</h1>
+ *
+ * Used to represent the way the AI's game-tree search is split between threads,
+ * when searching with more than one thread.
+ *
+ * - <b>ROOT_SPLIT</b>: the root moves are spread over the threads, sharing their alpha bound.
+ * - <b>LAZY_SMP</b>: every thread searches the whole tree, sharing the transposition table.
+ *
+ * @author David Salasin
+ * @see Model
+ */
+public enum ParallelMode
+{
+    ROOT_SPLIT,
+    LAZY_SMP
+}
@@ -0,0 +1,24 @@
+package SEARCH.Enums;
+
+import MVP.Model;
+
+
+/**
+ * <h1>Enum type: 'SearchAlgorithm'</h1>
+ *
+ * Used to represent the algorithm of the AI's game-tree search.
+ *
+ * - <b>ALPHA_BETA</b>: negamax alpha-beta, searching every move with the full window.
+ * - <b>PVS</b>: principal variation search (<i>NegaScout</i>): the first move is searched
+ *   with the full window and the rest with a null window, re-searched only when they fail high.
+ *   Iterative deepening also starts every iteration with an aspiration window around the
+ *   previous iteration's score.
+ *
+ * @author David Salasin
+ * @see Model
+ */
+public enum SearchAlgorithm
+{
+    ALPHA_BETA,
+    PVS
+}
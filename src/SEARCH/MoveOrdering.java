@@ -0,0 +1,254 @@
+package SEARCH;
+
+import java.util.Arrays;
+
+import BIT_MANAGEMENT.MoveGenerator;
+import MVP.Enums.Player;
+
+
+/**
+ * <h1>Class type: 'MoveOrdering'</h1>
+ *
+ * Orders the available moves of a game-tree node, so that the moves most likely to be
+ * the best are searched first, and alpha-beta pruning cuts off the rest sooner.
+ *
+ * Moves are ranked, in order:
+ * - the <b>transposition table move</b>: the best move stored for the position (by the
+ *   previous iteration / turn).
+ * - the two <b>killer moves</b> of the ply: the last moves which have cut off a sibling node.
+ * - the <b>history</b> score: how often (and how deep) the move has cut off a node before.
+ * - the opponent's <b>mobility</b> after the move: the fewer moves left to the opponent, the better.
+ *
+ * Every component can be switched off, for measuring what it's worth. The per-ply move lists
+ * are preallocated primitive arrays, so ordering allocates nothing.
+ *
+ * <b>NOTE:</b> holds per-search state - every searching thread needs its own instance.
+ *
+ * @author David Salasin
+ */
+public class MoveOrdering
+{
+    /**
+     * Maximum game-tree ply (every board slot played).
+     */
+    private static final int MAX_PLY = 64;
+
+
+    /**
+     * Maximum amount of available moves in a position.
+     */
+    private static final int MAX_MOVES = 64;
+
+
+    // Ranking scores of the ordering stages, above any history/mobility score.
+    private static final int TT_MOVE_SCORE = 1 << 30;
+    private static final int KILLER_SCORE = 1 << 29;
+
+
+    /**
+     * Maximum history score, below the killer moves' (a long run's history can't outrank them, or overflow).
+     */
+    private static final int MAX_HISTORY = KILLER_SCORE - 1;
+
+
+    /**
+     * Weight of a single opponent available move, against the history scores.
+     */
+    private static final int MOBILITY_WEIGHT = 1 << 16;
+
+
+    /**
+     * Minimum remaining depth for ranking by mobility (not worth its cost near the leaves).
+     */
+    private static final int MOBILITY_MIN_DEPTH = 3;
+
+
+    /**
+     * Ordered board slot indexes of each ply's moves.
+     */
+    private final int[][] moves = new int[MAX_PLY][MAX_MOVES];
+
+
+    /**
+     * Ranking scores of each ply's moves.
+     */
+    private final int[][] scores = new int[MAX_PLY][MAX_MOVES];
+
+
+    /**
+     * Two killer moves (board slot indexes) of each ply.
+     */
+    private final int[][] killers = new int[MAX_PLY][2];
+
+
+    /**
+     * History scores of each player's (by ordinal) moves, per board slot index.
+     */
+    private final int[][] history = new int[2][64];
+
+
+    // Ordering components switches:
+    private boolean useTranspositionMove = true;
+    private boolean useKillers = true;
+    private boolean useHistory = true;
+    private boolean useMobility = true;
+
+
+    /**
+     * Constructor for 'MoveOrdering'.
+     * Initiates the killer moves to no move.
+     */
+    public MoveOrdering()
+    {
+        clear();
+    }
+
+
+    /**
+     * Ranks and orders the available moves of a node.
+     *
+     * @param ply Game-tree ply of the node (moves made from the root).
+     * @param availableMoves long value of the player's available moves.
+     * @param ttMove Transposition table's best move of the node, or <u>TranspositionTable.NO_MOVE</u>.
+     * @param depth Remaining game-tree depth of the node.
+     * @param player The player to move.
+     * @param playerPieces long board pieces of the player to move.
+     * @param opponentPieces long board pieces of the opponent.
+     * @return Amount of ordered moves (read with <u>moveAt</u>).
+     */
+    public int orderMoves(int ply, long availableMoves, int ttMove, int depth, Player player,
+                          long playerPieces, long opponentPieces)
+    {
+        int[] plyMoves = moves[ply];
+        int[] plyScores = scores[ply];
+        int[] playerHistory = history[player.ordinal()];
+        boolean rankMobility = useMobility && depth >= MOBILITY_MIN_DEPTH;
+
+        int count = 0;
+
+        for (long iterator = availableMoves; iterator != 0L; iterator &= iterator - 1)
+        {
+            int square = Long.numberOfTrailingZeros(iterator);
+            int score = 0;
+
+            if (useTranspositionMove && square == ttMove)
+            {
+                score = TT_MOVE_SCORE;
+            }
+            else if (useKillers && square == killers[ply][0])
+            {
+                score = KILLER_SCORE + 1;
+            }
+            else if (useKillers && square == killers[ply][1])
+            {
+                score = KILLER_SCORE;
+            }
+            else
+            {
+                if (useHistory) score += playerHistory[square];
+
+                if (rankMobility)
+                {
+                    long position = 1L << square;
+                    long flips = MoveGenerator.computeFlips(playerPieces, opponentPieces, position);
+                    long opponentMoves = MoveGenerator.availableMoves(opponentPieces ^ flips,
+                            playerPieces ^ (flips | position));
+                    score -= Long.bitCount(opponentMoves) * MOBILITY_WEIGHT;
+                }
+            }
+
+            // Insertion sort (few moves): a higher ranked move is placed first, equal ranks keep bit order.
+            int i = count++;
+            while (i > 0 && plyScores[i - 1] < score)
+            {
+                plyMoves[i] = plyMoves[i - 1];
+                plyScores[i] = plyScores[i - 1];
+                i--;
+            }
+            plyMoves[i] = square;
+            plyScores[i] = score;
+        }
+
+        return count;
+    }
+
+
+    /**
+     * Gets an ordered move of a ply.
+     *
+     * @param ply Game-tree ply of the node.
+     * @param index Move's index in the order.
+     * @return Board slot index of the move.
+     */
+    public int moveAt(int ply, int index)
+    {
+        return moves[ply][index];
+    }
+
+
+    /**
+     * Updates the killer moves and history scores with a move which has cut off its node.
+     *
+     * @param ply Game-tree ply of the node.
+     * @param square Board slot index of the move.
+     * @param depth Remaining game-tree depth of the node.
+     * @param player The player who has played the move.
+     */
+    public void recordCutoff(int ply, int square, int depth, Player player)
+    {
+        if (killers[ply][0] != square)
+        {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = square;
+        }
+
+        int[] playerHistory = history[player.ordinal()];
+        playerHistory[square] = Math.min(MAX_HISTORY, playerHistory[square] + depth * depth);
+    }
+
+
+    /**
+     * Prepares the ordering for a new search: halves the history scores, so that the
+     * latest searches count more, and resets the killer moves (their plies have moved).
+     */
+    public void newSearch()
+    {
+        for (int[] playerHistory : history)
+        {
+            for (int i = 0; i < playerHistory.length; i++) playerHistory[i] >>= 1;
+        }
+
+        for (int[] plyKillers : killers)
+        {
+            plyKillers[0] = TranspositionTable.NO_MOVE;
+            plyKillers[1] = TranspositionTable.NO_MOVE;
+        }
+    }
+
+
+    /**
+     * Resets the killer moves and history scores.
+     */
+    public void clear()
+    {
+        for (int[] playerHistory : history) Arrays.fill(playerHistory, 0);
+        newSearch();
+    }
+
+
+    /**
+     * Switches the ordering components on/off.
+     *
+     * @param transpositionMove Searching the transposition table's best move first.
+     * @param killers Searching the killer moves next.
+     * @param history Ranking the rest by their history scores.
+     * @param mobility Ranking the rest by the opponent's mobility after them.
+     */
+    public void setComponents(boolean transpositionMove, boolean killers, boolean history, boolean mobility)
+    {
+        this.useTranspositionMove = transpositionMove;
+        this.useKillers = killers;
+        this.useHistory = history;
+        this.useMobility = mobility;
+    }
+}
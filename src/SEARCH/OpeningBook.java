@@ -0,0 +1,294 @@
+package SEARCH;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import BIT_MANAGEMENT.MoveGenerator;
+import BIT_MANAGEMENT.Symmetry;
+import BIT_MANAGEMENT.Zobrist;
+import INFORMATION_ENCAPSULATION.Move;
+import MVP.Enums.Player;
+
+import static MVP.Enums.Player.*;
+
+
+/**
+ * <h1>Class type: 'OpeningBook'</h1>
+ *
+ * Read-only opening book: a binary file of already searched opening positions, each with its
+ * best move, score and visit count, memory-mapped and looked up by binary search - a lookup
+ * reads a few cached pages and allocates nothing.
+ *
+ * Every position is stored once, by its canonical form (see 'Symmetry'), so the book matches
+ * all 8 symmetric positions, and the stored move is mapped back to the looked up position.
+ *
+ * File layout (big endian):
+ * - header: magic "RVBK" (int), version (int), record count (long).
+ * - records sorted by key (unsigned): canonical 'Zobrist' key (long), visit count (int),
+ *   score (short), best move slot index in the canonical position (byte), reserved (byte).
+ *
+ * @author David Salasin
+ * @see Symmetry
+ */
+public class OpeningBook
+{
+    /**
+     * Book lookup result for a position which isn't in the book.
+     */
+    public static final int NO_MOVE = -1;
+
+
+    // File layout:
+    public static final int MAGIC = 0x5256424B;
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 16;
+    public static final int RECORD_BYTES = 16;
+
+
+    // Record field offsets:
+    private static final int VISITS_OFFSET = 8;
+    private static final int SCORE_OFFSET = 12;
+    private static final int MOVE_OFFSET = 14;
+
+
+    /**
+     * The memory-mapped book file.
+     */
+    private final MappedByteBuffer buffer;
+
+
+    /**
+     * Amount of records in the book.
+     */
+    private final int recordCount;
+
+
+    /**
+     * Constructor for 'OpeningBook', mapping an open book file.
+     *
+     * @param buffer The mapped file.
+     * @throws IOException if the file isn't a book file.
+     */
+    private OpeningBook(MappedByteBuffer buffer) throws IOException
+    {
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION)
+        {
+            throw new IOException("Not an opening book file (version " + VERSION + ")");
+        }
+
+        long records = buffer.getLong(8);
+        if (records < 0 || HEADER_BYTES + records * RECORD_BYTES > buffer.capacity())
+        {
+            throw new IOException("Opening book file is truncated");
+        }
+
+        this.buffer = buffer;
+        this.recordCount = (int) records;
+    }
+
+
+    /**
+     * Opens a book file (the mapping stays valid after the channel is closed).
+     *
+     * @param path Book file's path.
+     * @return 'OpeningBook' instance.
+     * @throws IOException if the file can't be read or isn't a book file.
+     */
+    public static OpeningBook open(Path path) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            return new OpeningBook(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+
+    /**
+     * Looks a position up in the book.
+     *
+     * @param blackBits BLACK board pieces.
+     * @param whiteBits WHITE board pieces.
+     * @param toMove The player to move.
+     * @return Record index of the position, or <u>NO_MOVE</u> if it isn't in the book.
+     */
+    public int find(long blackBits, long whiteBits, Player toMove)
+    {
+        int symmetry = Symmetry.canonicalSymmetry(blackBits, whiteBits, toMove);
+
+        return search(canonicalKey(blackBits, whiteBits, toMove, symmetry));
+    }
+
+
+    /**
+     * Binary search of a canonical key.
+     *
+     * @param key Canonical 'Zobrist' key.
+     * @return Record index of the key, or <u>NO_MOVE</u>.
+     */
+    private int search(long key)
+    {
+        int low = 0;
+        int high = recordCount - 1;
+
+        while (low <= high)
+        {
+            int middle = (low + high) >>> 1;
+            int compare = Long.compareUnsigned(buffer.getLong(HEADER_BYTES + middle * RECORD_BYTES), key);
+
+            if (compare < 0) low = middle + 1;
+            else if (compare > 0) high = middle - 1;
+            else return middle;
+        }
+
+        return NO_MOVE;
+    }
+
+
+    /**
+     * Looks up the book's move of a position, mapped back from the stored canonical position.
+     *
+     * @param blackBits BLACK board pieces.
+     * @param whiteBits WHITE board pieces.
+     * @param toMove The player to move.
+     * @param bookPlay 'Move' instance updated to the book move and its score.
+     * @return boolean for if the position is in the book (else, or if the stored move isn't
+     *         legal in the position on a key collision, the 'Move' is left as it was).
+     */
+    public boolean lookup(long blackBits, long whiteBits, Player toMove, Move bookPlay)
+    {
+        int symmetry = Symmetry.canonicalSymmetry(blackBits, whiteBits, toMove);
+        int index = search(canonicalKey(blackBits, whiteBits, toMove, symmetry));
+        if (index == NO_MOVE) return false;
+
+        long move = Symmetry.revert(1L << canonicalMove(index), symmetry);
+
+        long playerBits = toMove == BLACK ? blackBits : whiteBits;
+        long opponentBits = toMove == BLACK ? whiteBits : blackBits;
+        if ((MoveGenerator.availableMoves(playerBits, opponentBits) & move) == 0L) return false;
+
+        // Slot index to coordinates (as 'BitBoard.boardPosition', without a new instance).
+        int square = Long.numberOfTrailingZeros(move);
+        bookPlay.updateMove(square / 8 + 1, 8 - square % 8, score(index));
+
+        return true;
+    }
+
+
+    /**
+     * Calculates the key of a position's canonical form.
+     *
+     * @param blackBits BLACK board pieces.
+     * @param whiteBits WHITE board pieces.
+     * @param toMove The player to move.
+     * @param symmetry The position's canonical symmetry.
+     * @return long canonical 'Zobrist' key.
+     */
+    public static long canonicalKey(long blackBits, long whiteBits, Player toMove, int symmetry)
+    {
+        return Zobrist.hash(Symmetry.transform(blackBits, symmetry), Symmetry.transform(whiteBits, symmetry), toMove);
+    }
+
+
+    /**
+     * @param index Record index.
+     * @return The record's canonical key.
+     */
+    public long key(int index)
+    {
+        return buffer.getLong(HEADER_BYTES + index * RECORD_BYTES);
+    }
+
+
+    /**
+     * @param index Record index.
+     * @return The record's best move slot index, in the canonical position.
+     */
+    public int canonicalMove(int index)
+    {
+        return buffer.get(HEADER_BYTES + index * RECORD_BYTES + MOVE_OFFSET);
+    }
+
+
+    /**
+     * @param index Record index (found by <u>find</u>).
+     * @return The record's score, from the point of view of the player to move.
+     */
+    public int score(int index)
+    {
+        return buffer.getShort(HEADER_BYTES + index * RECORD_BYTES + SCORE_OFFSET);
+    }
+
+
+    /**
+     * @param index Record index (found by <u>find</u>).
+     * @return The record's visit count.
+     */
+    public int visits(int index)
+    {
+        return buffer.getInt(HEADER_BYTES + index * RECORD_BYTES + VISITS_OFFSET);
+    }
+
+
+    /**
+     * @return Amount of positions in the book.
+     */
+    public int size()
+    {
+        return recordCount;
+    }
+
+
+    /**
+     * Writes a book file from already sorted records.
+     *
+     * @param path Book file's path (replaced if it exists).
+     * @param keys Canonical keys, sorted as unsigned.
+     * @param moves Best move slot indexes (in the canonical positions).
+     * @param scores Scores.
+     * @param visits Visit counts.
+     * @param count Amount of records.
+     * @throws IOException if the file can't be written.
+     */
+    public static void write(Path path, long[] keys, byte[] moves, short[] scores, int[] visits, int count)
+            throws IOException
+    {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            ByteBuffer block = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.BIG_ENDIAN);
+            block.putInt(MAGIC).putInt(VERSION).putLong(count);
+
+            for (int i = 0; i < count; i++)
+            {
+                if (block.remaining() < RECORD_BYTES) writeBlock(channel, block);
+                block.putLong(keys[i]).putInt(visits[i]).putShort(scores[i]).put(moves[i]).put((byte) 0);
+            }
+
+            writeBlock(channel, block);
+            channel.force(true);
+        }
+
+        // Replaced at once, so a reader never maps a half written book.
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+
+    /**
+     * Writes a filled buffer to the channel, and clears it.
+     */
+    private static void writeBlock(FileChannel channel, ByteBuffer block) throws IOException
+    {
+        block.flip();
+        while (block.hasRemaining()) channel.write(block);
+        block.clear();
+    }
+}
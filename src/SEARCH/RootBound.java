@@ -0,0 +1,94 @@
+package SEARCH;
+
+
+/**
+ * <h1>Class type: 'RootBound'</h1>
+ *
+ * Best score found so far among the root moves of a parallel root search, shared by
+ * all of the searching threads so that every root move is searched with the tightest
+ * alpha bound known when it starts.
+ *
+ * Ties are broken by the root moves order (the first best move wins), so a parallel
+ * search returns the same move as a serial search of the same order.
+ *
+ * <b>NOTE:</b> thread safe.
+ *
+ * @author David Salasin
+ */
+public class RootBound
+{
+    /**
+     * Best score found so far.
+     */
+    private int score;
+
+
+    /**
+     * Root order index of the best move, -1 when no move has been searched yet.
+     */
+    private int index;
+
+
+    /**
+     * Constructor for 'RootBound'.
+     * Initiates the best score to minus infinity, without a best move.
+     */
+    public RootBound()
+    {
+        score = -Integer.MAX_VALUE;
+        index = -1;
+    }
+
+
+    /**
+     * Returns the alpha bound a root move should be searched with.
+     *
+     * A move ordered before the current best only needs to tie it, so its bound is one lower.
+     *
+     * @param moveIndex Root order index of the move.
+     * @return int alpha bound (a score above it is exact).
+     */
+    public synchronized int alphaFor(int moveIndex)
+    {
+        if (index >= 0 && moveIndex < index && score > -Integer.MAX_VALUE) return score - 1;
+        return score;
+    }
+
+
+    /**
+     * Offers a searched root move's score.
+     *
+     * @param moveScore The move's score.
+     * @param moveIndex Root order index of the move.
+     * @return boolean for if the move has become the best move.
+     */
+    public synchronized boolean offer(int moveScore, int moveIndex)
+    {
+        if (index < 0 || moveScore > score || (moveScore == score && moveIndex < index))
+        {
+            score = moveScore;
+            index = moveIndex;
+            return true;
+        }
+
+        return false;
+    }
+
+
+    /**
+     * @return Best score found so far.
+     */
+    public synchronized int getScore()
+    {
+        return score;
+    }
+
+
+    /**
+     * @return Root order index of the best move, -1 when none.
+     */
+    public synchronized int getIndex()
+    {
+        return index;
+    }
+}
@@ -0,0 +1,351 @@
+package SEARCH;
+
+import MVP.Model;
+
+
+/**
+ * <h1>Class type: 'SearchStatistics'</h1>
+ *
+ * Counters of an AI move's search: nodes, leaf evaluations, alpha-beta cutoffs (and how many
+ * of them by the first searched move), transposition table probes and hits, and the nodes and
+ * time of every iterative deepening iteration - from which the depth reached and the effective
+ * branching factor are derived.
+ *
+ * Every searching 'Model' (the main one and each parallel helper) counts into its own instance,
+ * touched by one thread at a time, so the counters are plain fields without any synchronisation;
+ * the helpers' counts are merged into the main instance after the threads have joined.
+ *
+ * Counting is switched on by the <i>reversi.searchStatistics</i> system property. Otherwise
+ * <u>ENABLED</u> is a false constant, and the JIT compiler removes the counting calls altogether.
+ *
+ * @author David Salasin
+ * @see Model
+ */
+public class SearchStatistics
+{
+    /**
+     * Whether the searches are counted (the <i>reversi.searchStatistics</i> system property).
+     */
+    public static final boolean ENABLED = Boolean.getBoolean("reversi.searchStatistics");
+
+
+    /**
+     * Maximum amount of recorded iterations (every board slot played).
+     */
+    private static final int MAX_ITERATIONS = 64;
+
+
+    // Counters:
+    private long nodes;
+    private long leafEvaluations;
+    private long cutoffs;
+    private long firstMoveCutoffs;
+    private long probes;
+    private long hits;
+
+
+    // Completed iterations: their depth, nodes and time (nanoseconds).
+    private int iterations;
+    private final int[] iterationDepths = new int[MAX_ITERATIONS];
+    private final long[] iterationNodes = new long[MAX_ITERATIONS];
+    private final long[] iterationTimes = new long[MAX_ITERATIONS];
+
+
+    /**
+     * Nodes counted when the running iteration started.
+     */
+    private long iterationStartNodes;
+
+
+    /**
+     * Resets all of the counters, for a new search.
+     */
+    public void clear()
+    {
+        nodes = 0;
+        leafEvaluations = 0;
+        cutoffs = 0;
+        firstMoveCutoffs = 0;
+        probes = 0;
+        hits = 0;
+        iterations = 0;
+        iterationStartNodes = 0;
+    }
+
+
+    /**
+     * Counts a searched game-tree node.
+     */
+    public void countNode()
+    {
+        if (ENABLED) nodes++;
+    }
+
+
+    /**
+     * Counts a heuristic evaluation of a leaf.
+     */
+    public void countLeaf()
+    {
+        if (ENABLED) leafEvaluations++;
+    }
+
+
+    /**
+     * Counts an alpha-beta cutoff.
+     *
+     * @param firstMove Whether the cutoff has been made by the node's first searched move.
+     */
+    public void countCutoff(boolean firstMove)
+    {
+        if (ENABLED)
+        {
+            cutoffs++;
+            if (firstMove) firstMoveCutoffs++;
+        }
+    }
+
+
+    /**
+     * Counts a transposition table probe.
+     *
+     * @param hit Whether the probe has found its position.
+     */
+    public void countProbe(boolean hit)
+    {
+        if (ENABLED)
+        {
+            probes++;
+            if (hit) hits++;
+        }
+    }
+
+
+    /**
+     * Counts the nodes of a search outside of the game-tree (e.g. the endgame solver's).
+     *
+     * @param searchedNodes Amount of nodes.
+     */
+    public void countNodes(long searchedNodes)
+    {
+        if (ENABLED) nodes += searchedNodes;
+    }
+
+
+    /**
+     * Starts an iteration: its nodes are the nodes counted from now on.
+     */
+    public void startIteration()
+    {
+        iterationStartNodes = nodes;
+    }
+
+
+    /**
+     * Records a completed iteration.
+     *
+     * @param depth The iteration's depth.
+     * @param time The iteration's time (nanoseconds).
+     */
+    public void endIteration(int depth, long time)
+    {
+        if (ENABLED && iterations < MAX_ITERATIONS)
+        {
+            iterationDepths[iterations] = depth;
+            iterationNodes[iterations] = nodes - iterationStartNodes;
+            iterationTimes[iterations] = time;
+            iterations++;
+        }
+    }
+
+
+    /**
+     * Adds another instance's counters to this instance's (not its iterations), and clears them.
+     *
+     * @param other 'SearchStatistics' of a helper search, whose thread has joined.
+     */
+    public void merge(SearchStatistics other)
+    {
+        nodes += other.nodes;
+        leafEvaluations += other.leafEvaluations;
+        cutoffs += other.cutoffs;
+        firstMoveCutoffs += other.firstMoveCutoffs;
+        probes += other.probes;
+        hits += other.hits;
+
+        other.clear();
+    }
+
+
+    /**
+     * @return A copy of the counters (which isn't changed by later searches).
+     */
+    public SearchStatistics copy()
+    {
+        SearchStatistics copy = new SearchStatistics();
+
+        copy.nodes = nodes;
+        copy.leafEvaluations = leafEvaluations;
+        copy.cutoffs = cutoffs;
+        copy.firstMoveCutoffs = firstMoveCutoffs;
+        copy.probes = probes;
+        copy.hits = hits;
+        copy.iterations = iterations;
+        copy.iterationStartNodes = iterationStartNodes;
+        System.arraycopy(iterationDepths, 0, copy.iterationDepths, 0, iterations);
+        System.arraycopy(iterationNodes, 0, copy.iterationNodes, 0, iterations);
+        System.arraycopy(iterationTimes, 0, copy.iterationTimes, 0, iterations);
+
+        return copy;
+    }
+
+
+    /**
+     * @return Searched nodes.
+     */
+    public long getNodes()
+    {
+        return nodes;
+    }
+
+
+    /**
+     * @return Heuristic evaluations of leaves.
+     */
+    public long getLeafEvaluations()
+    {
+        return leafEvaluations;
+    }
+
+
+    /**
+     * @return Alpha-beta cutoffs.
+     */
+    public long getCutoffs()
+    {
+        return cutoffs;
+    }
+
+
+    /**
+     * @return Cutoffs made by the first searched move out of all cutoffs (0 - 1): how good the move ordering is.
+     */
+    public double firstMoveCutoffRate()
+    {
+        return cutoffs == 0 ? 0 : (double) firstMoveCutoffs / cutoffs;
+    }
+
+
+    /**
+     * @return Transposition table probes.
+     */
+    public long getProbes()
+    {
+        return probes;
+    }
+
+
+    /**
+     * @return Transposition table probes which have found their position.
+     */
+    public long getHits()
+    {
+        return hits;
+    }
+
+
+    /**
+     * @return Hits out of probes (0 - 1).
+     */
+    public double hitRate()
+    {
+        return probes == 0 ? 0 : (double) hits / probes;
+    }
+
+
+    /**
+     * @return Depth of the last completed iteration (0 when none was completed, e.g. a book move).
+     */
+    public int depthReached()
+    {
+        return iterations == 0 ? 0 : iterationDepths[iterations - 1];
+    }
+
+
+    /**
+     * @return Amount of completed iterations.
+     */
+    public int getIterations()
+    {
+        return iterations;
+    }
+
+
+    /**
+     * @return Depth of a completed iteration.
+     */
+    public int iterationDepth(int iteration)
+    {
+        return iterationDepths[iteration];
+    }
+
+
+    /**
+     * @return Nodes of a completed iteration.
+     */
+    public long iterationNodes(int iteration)
+    {
+        return iterationNodes[iteration];
+    }
+
+
+    /**
+     * @return Time (nanoseconds) of a completed iteration.
+     */
+    public long iterationTime(int iteration)
+    {
+        return iterationTimes[iteration];
+    }
+
+
+    /**
+     * Effective branching factor: the growth of the nodes from the one before last iteration
+     * to the last one, per ply between them (for a single iteration, the root of its nodes by its depth).
+     *
+     * @return double effective branching factor, or 0 when there are no iterations.
+     */
+    public double branchingFactor()
+    {
+        if (iterations == 0 || iterationNodes[iterations - 1] == 0) return 0;
+
+        int last = iterations - 1;
+
+        if (last == 0 || iterationNodes[last - 1] == 0)
+        {
+            return Math.pow(iterationNodes[last], 1.0 / Math.max(1, iterationDepths[last]));
+        }
+
+        int plies = Math.max(1, iterationDepths[last] - iterationDepths[last - 1]);
+        return Math.pow((double) iterationNodes[last] / iterationNodes[last - 1], 1.0 / plies);
+    }
+
+
+    @Override
+    public String toString()
+    {
+        StringBuilder builder = new StringBuilder();
+
+        builder.append(String.format("nodes %,d | leaves %,d | cutoffs %,d (%.1f%% first move) | "
+                        + "TT %,d probes, %.1f%% hits | depth %d | branching %.2f",
+                nodes, leafEvaluations, cutoffs, 100 * firstMoveCutoffRate(),
+                probes, 100 * hitRate(), depthReached(), branchingFactor()));
+
+        for (int i = 0; i < iterations; i++)
+        {
+            builder.append(String.format("%n  depth %2d: %,12d nodes %9.1f ms",
+                    iterationDepths[i], iterationNodes[i], iterationTimes[i] / 1e6));
+        }
+
+        return builder.toString();
+    }
+}
@@ -0,0 +1,92 @@
+package SEARCH;
+
+
+/**
+ * <h1>Class type: 'SearchingMoves'</h1>
+ *
+ * The game-tree moves the threads of a <i>Lazy SMP</i> search are searching right now (<i>simplified ABDADA</i>):
+ * a thread reaching a move another thread is already searching defers it to after its node's other moves - by
+ * then, the other thread has most likely stored the move's score in the shared transposition table. So the
+ * threads split a node's moves between them, instead of all of them searching the same moves at the same time.
+ *
+ * A move is kept by its key (its node's 'Zobrist' key and its slot) in a small table, every table slot holding
+ * the last move started in it: a move overwritten by a colliding one is only searched twice, as it would have
+ * been without the table.
+ *
+ * <b>NOTE:</b> shared by the threads without locking - a move read out of date is only searched twice too.
+ *
+ * @author David Salasin
+ * @see TranspositionTable
+ */
+public class SearchingMoves
+{
+    /**
+     * Bits of a table slot's index (taken from the top of a move's key).
+     */
+    private static final int SLOT_BITS = 15;
+
+
+    /**
+     * Multiplier spreading a move's slot over the bits of its key.
+     */
+    private static final long SLOT_SPREAD = 0x9E3779B97F4A7C15L;
+
+
+    /**
+     * Key of the move started last in every table slot, or 0 for none.
+     */
+    private final long[] moves = new long[1 << SLOT_BITS];
+
+
+    /**
+     * @param positionKey 'Zobrist' hash key of the move's node.
+     * @param square Board slot index (bit number) of the move.
+     * @return Key of the move.
+     */
+    public static long moveKey(long positionKey, int square)
+    {
+        return positionKey ^ (square + 1) * SLOT_SPREAD;
+    }
+
+
+    /**
+     * @param moveKey Key of the move (see <u>moveKey</u>).
+     * @return boolean for if a thread is searching the move.
+     */
+    public boolean isSearched(long moveKey)
+    {
+        return moves[slot(moveKey)] == moveKey;
+    }
+
+
+    /**
+     * Marks a move as searched, until <u>finish</u>.
+     *
+     * @param moveKey Key of the move (see <u>moveKey</u>).
+     */
+    public void start(long moveKey)
+    {
+        moves[slot(moveKey)] = moveKey;
+    }
+
+
+    /**
+     * Unmarks a searched move (unless its table slot has been taken by another move since).
+     *
+     * @param moveKey Key of the move (see <u>moveKey</u>).
+     */
+    public void finish(long moveKey)
+    {
+        int slot = slot(moveKey);
+        if (moves[slot] == moveKey) moves[slot] = 0L;
+    }
+
+
+    /**
+     * @return Table slot of a move's key.
+     */
+    private static int slot(long moveKey)
+    {
+        return (int) (moveKey >>> (Long.SIZE - SLOT_BITS));
+    }
+}
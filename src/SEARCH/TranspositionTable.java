@@ -0,0 +1,380 @@
+package SEARCH;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+import BIT_MANAGEMENT.Zobrist;
+
+
+/**
+ * <h1>Class type: 'TranspositionTable'</h1>
+ *
+ * Fixed-size hash table of already searched game-tree positions, keyed by their
+ * 'Zobrist' hash key. Lets the game-tree reuse the score of a position reached again
+ * through a different move order, or searched on a previous turn.
+ *
+ * Each entry is packed into two longs - the key (XOR the data) and the data: score,
+ * depth, bound type, best move and search age. The entries are stored in primitive long
+ * arrays only, so even a table of a few GB holds no object references for the GC to trace.
+ *
+ * Every bucket holds two entries:
+ * - a <b>depth-preferred</b> entry, replaced only by a deeper (or newer search's) entry.
+ * - an <b>always-replace</b> entry, taking every entry the first one has refused.
+ *
+ * Lazy SMP threads search the same positions at different depths, and store them at the same time:
+ * a position's deeper entry isn't replaced by a shallower bound of it, and an entry already in the
+ * table isn't written again (which would take its cache line away from every other core).
+ *
+ * The table counts its probes, hits and cutoffs only when <u>SearchStatistics.ENABLED</u>. Every searching
+ * thread (Lazy SMP helpers, parallel root moves) probes the same table, so the counters are 'LongAdder'
+ * instances, which don't lose concurrent counts.
+ *
+ * @author David Salasin
+ * @see Zobrist
+ */
+public class TranspositionTable
+{
+    /**
+     * Bound type: the stored score is the exact score of the position.
+     */
+    public static final int EXACT = 0;
+
+
+    /**
+     * Bound type: the stored score is a lower bound (the search failed high).
+     */
+    public static final int LOWER = 1;
+
+
+    /**
+     * Bound type: the stored score is an upper bound (the search failed low).
+     */
+    public static final int UPPER = 2;
+
+
+    /**
+     * Best move value for an entry without a best move.
+     */
+    public static final int NO_MOVE = 64;
+
+
+    /**
+     * Probe result for a position which isn't stored in the table.
+     */
+    public static final long MISS = 0L;
+
+
+    // Packed data layout (bits): score 0-31 | best move 32-38 | depth 39-46 | bound 47-48 | age 49-56 | valid 63.
+    private static final int MOVE_SHIFT = 32;
+    private static final int DEPTH_SHIFT = 39;
+    private static final int BOUND_SHIFT = 47;
+    private static final int AGE_SHIFT = 49;
+    private static final long VALID_BIT = 1L << 63;
+
+
+    /**
+     * Longs per bucket: two entries of (key XOR data, data).
+     */
+    private static final int BUCKET_LONGS = 4;
+
+
+    /**
+     * Bytes per bucket.
+     */
+    private static final int BUCKET_BYTES = BUCKET_LONGS * Long.BYTES;
+
+
+    /**
+     * Buckets per long array segment (2^25 buckets = 1 GB), as a single Java array
+     * can't hold a table of more than 2^31 longs.
+     */
+    private static final int SEGMENT_SHIFT = 25;
+
+
+    /**
+     * The table's buckets, split to long array segments.
+     */
+    private final long[][] segments;
+
+
+    /**
+     * Mask of a key's bucket index (amount of buckets is a power of 2).
+     */
+    private final long bucketMask;
+
+
+    /**
+     * Mask of a bucket's index inside its segment.
+     */
+    private final long segmentMask;
+
+
+    /**
+     * Age of the current search, stored with every entry so that entries left from
+     * earlier turns are replaced first.
+     */
+    private int age;
+
+
+    // Table statistics (counted only when SearchStatistics.ENABLED):
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder cutoffs = new LongAdder();
+
+
+    /**
+     * Constructor for 'TranspositionTable'.
+     *
+     * Allocates the biggest power of 2 amount of buckets fitting the requested size.
+     *
+     * @param megabytes Table's size in MB (at least 1).
+     */
+    public TranspositionTable(int megabytes)
+    {
+        long buckets = Long.highestOneBit(Math.max(1L, megabytes) * (1L << 20) / BUCKET_BYTES);
+        long segmentBuckets = Math.min(buckets, 1L << SEGMENT_SHIFT);
+
+        segments = new long[(int) (buckets / segmentBuckets)][(int) segmentBuckets * BUCKET_LONGS];
+        bucketMask = buckets - 1;
+        segmentMask = segmentBuckets - 1;
+    }
+
+
+    /**
+     * Searches the table for a position.
+     *
+     * @param key 'Zobrist' hash key of the position.
+     * @return long packed entry data (decoded by the static getters), or <u>MISS</u>.
+     */
+    public long probe(long key)
+    {
+        long bucket = key & bucketMask;
+        long[] segment = segments[(int) (bucket >>> SEGMENT_SHIFT)];
+        int index = (int) (bucket & segmentMask) * BUCKET_LONGS;
+
+        if (SearchStatistics.ENABLED) probes.increment();
+
+        // An entry matches only if its stored key XOR data gives back the key, which also
+        // detects an entry written halfway by another thread.
+        for (int i = index; i < index + BUCKET_LONGS; i += 2)
+        {
+            long data = segment[i + 1];
+            if ((segment[i] ^ data) == key && data != MISS)
+            {
+                if (SearchStatistics.ENABLED) hits.increment();
+                return data;
+            }
+        }
+
+        return MISS;
+    }
+
+
+    /**
+     * Stores a searched position.
+     *
+     * @param key 'Zobrist' hash key of the position.
+     * @param depth Depth the position has been searched to.
+     * @param bound Bound type of the score (<u>EXACT</u> / <u>LOWER</u> / <u>UPPER</u>).
+     * @param score Searched score.
+     * @param bestMove Board slot index (bit number) of the best move, or <u>NO_MOVE</u>.
+     */
+    public void store(long key, int depth, int bound, int score, int bestMove)
+    {
+        long bucket = key & bucketMask;
+        long[] segment = segments[(int) (bucket >>> SEGMENT_SHIFT)];
+        int index = (int) (bucket & segmentMask) * BUCKET_LONGS;
+
+        long data = (score & 0xFFFFFFFFL)
+                | ((long) bestMove << MOVE_SHIFT)
+                | ((long) depth << DEPTH_SHIFT)
+                | ((long) bound << BOUND_SHIFT)
+                | ((long) age << AGE_SHIFT)
+                | VALID_BIT;
+
+        long preferred = segment[index + 1];
+        boolean samePosition = (segment[index] ^ preferred) == key;
+
+        // This search's deeper entry of the same position is kept, unless the new score is exact.
+        if (samePosition && depth < depth(preferred) && bound != EXACT && age(preferred) == age) return;
+
+        // Depth-preferred entry: taken by the same position, a deeper search, or an older search's entry.
+        // Otherwise the always-replace entry takes it.
+        if (samePosition || depth >= depth(preferred) || age(preferred) != age) write(segment, index, key, data);
+        else write(segment, index + 2, key, data);
+    }
+
+
+    /**
+     * Writes an entry, unless it's already stored there (e.g. by another thread).
+     *
+     * @param segment The bucket's segment.
+     * @param entry Index of the entry's first long.
+     * @param key 'Zobrist' hash key of the position.
+     * @param data Packed entry data.
+     */
+    private static void write(long[] segment, int entry, long key, long data)
+    {
+        if (segment[entry + 1] == data && (segment[entry] ^ data) == key) return;
+
+        segment[entry] = key ^ data;
+        segment[entry + 1] = data;
+    }
+
+
+    /**
+     * Starts a new search age: entries stored from now on replace the older entries first.
+     */
+    public void newSearch()
+    {
+        age = (age + 1) & 0xFF;
+    }
+
+
+    /**
+     * Empties the table and its statistics.
+     */
+    public void clear()
+    {
+        for (long[] segment : segments) Arrays.fill(segment, 0L);
+        age = 0;
+        resetStatistics();
+    }
+
+
+    /**
+     * Counts a probe hit which has cut off the searched node.
+     */
+    public void countCutoff()
+    {
+        if (SearchStatistics.ENABLED) cutoffs.increment();
+    }
+
+
+    /**
+     * Resets the probe, hit and cutoff counters.
+     */
+    public void resetStatistics()
+    {
+        probes.reset();
+        hits.reset();
+        cutoffs.reset();
+    }
+
+
+    /**
+     * @return Amount of probes since the last statistics reset.
+     */
+    public long getProbes()
+    {
+        return probes.sum();
+    }
+
+
+    /**
+     * @return Amount of probes which have found their position.
+     */
+    public long getHits()
+    {
+        return hits.sum();
+    }
+
+
+    /**
+     * @return Amount of probes which have cut off their node.
+     */
+    public long getCutoffs()
+    {
+        return cutoffs.sum();
+    }
+
+
+    /**
+     * @return Hits out of probes (0 - 1).
+     */
+    public double hitRate()
+    {
+        long probes = getProbes();
+        return probes == 0 ? 0 : (double) getHits() / probes;
+    }
+
+
+    /**
+     * @return Cutoffs out of probes (0 - 1).
+     */
+    public double cutoffRate()
+    {
+        long probes = getProbes();
+        return probes == 0 ? 0 : (double) getCutoffs() / probes;
+    }
+
+
+    /**
+     * @return Table's size in bytes.
+     */
+    public long sizeInBytes()
+    {
+        return (bucketMask + 1) * BUCKET_BYTES;
+    }
+
+
+    @Override
+    public String toString()
+    {
+        return String.format("TT %d MB | probes: %d | hit rate: %.1f%% | cutoff rate: %.1f%%",
+                sizeInBytes() >> 20, getProbes(), hitRate() * 100, cutoffRate() * 100);
+    }
+
+
+    // Packed entry data getters:
+
+
+    /**
+     * @param data Packed entry data.
+     * @return Stored score.
+     */
+    public static int score(long data)
+    {
+        return (int) data;
+    }
+
+
+    /**
+     * @param data Packed entry data.
+     * @return Stored best move slot index, or <u>NO_MOVE</u>.
+     */
+    public static int bestMove(long data)
+    {
+        return (int) (data >>> MOVE_SHIFT) & 0x7F;
+    }
+
+
+    /**
+     * @param data Packed entry data.
+     * @return Stored search depth.
+     */
+    public static int depth(long data)
+    {
+        return (int) (data >>> DEPTH_SHIFT) & 0xFF;
+    }
+
+
+    /**
+     * @param data Packed entry data.
+     * @return Stored bound type.
+     */
+    public static int bound(long data)
+    {
+        return (int) (data >>> BOUND_SHIFT) & 0x3;
+    }
+
+
+    /**
+     * @param data Packed entry data.
+     * @return Stored search age.
+     */
+    private static int age(long data)
+    {
+        return (int) (data >>> AGE_SHIFT) & 0xFF;
+    }
+}
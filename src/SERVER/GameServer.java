@@ -0,0 +1,697 @@
+package SERVER;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import BIT_MANAGEMENT.BitBoard;
+import INFORMATION_ENCAPSULATION.Coordinates;
+import INFORMATION_ENCAPSULATION.Information;
+import MVP.Enums.GameMode;
+import MVP.Enums.Player;
+import MVP.Presenter;
+import RECORDS.GameRecord;
+import RECORDS.GameRecordWriter;
+
+import static MVP.Enums.Player.*;
+import static MVP.Enums.GameStatus.*;
+
+
+/**
+ * <h1>Class type: 'GameServer'</h1>
+ *
+ * Hosts many simultaneous games ('Session' instances) behind a local TCP line protocol,
+ * one request line and one reply line at a time:
+ *
+ * - <b>NEW mode [BLACK / WHITE]</b>: starts a game of a game mode, the human playing the passed
+ *   color (BLACK by default) - the AI moves first when the human plays WHITE.
+ * - <b>MOVE id slot</b>: plays the human's move (e.g. <i>3d</i>: row 3, column D), then the AI's replies.
+ * - <b>AI id</b>: plays the current player's move by the AI (not in PVP games), then the AI's replies.
+ *   Also resumes an AI's turn left when the search queue was full.
+ * - <b>STATE id</b>: the game's state.
+ * - <b>CLOSE id</b>: ends the session (stopping its running search, answered <i>ERROR SESSION CLOSED</i>).
+ *   <b>QUIT</b>: closes the connection.
+ *
+ * A session is also closed when the connection which has started it ends (QUIT or disconnection), and when
+ * it expires: after <u>IDLE_SESSION_MINUTES</u> without a request, or <u>ENDED_SESSION_MINUTES</u> once its game
+ * has ended - so the sessions of abandoned games don't pile up.
+ *
+ * A reply is <i>OK id PLAYING player black white moves</i> (the player to move), or
+ * <i>OK id ENDED winner black white moves</i> (the winner or DRAW) - the pieces as 16 hex digits,
+ * and the moves played by the AI for the request as slots (<i>-</i> for none) - or <i>ERROR message</i>.
+ *
+ * Every connection is served by its own thread (a virtual thread when the JVM has them, Java 21+),
+ * which only waits on the socket and on the game's rules. The AI's searches are run on a separate,
+ * fixed pool of search threads (one per core by default) with a bounded queue, each thread with its
+ * own 'Presenter' (and AI transposition table), so that blocked connections never hold a search
+ * thread, and a full queue is answered <i>ERROR BUSY</i> instead of piling up.
+ *
+ * Every ended game can be archived as a 'GameRecord', appended to the segment files of a records directory.
+ *
+ * Usage: <i>GameServer [port] [search threads] [search queue] [records directory]</i>
+ * (<u>DEFAULT_PORT</u>, a thread per core, 1024, and no archiving by default).
+ *
+ * @author David Salasin
+ * @see Session
+ */
+public class GameServer
+{
+    /**
+     * Port listened on by default.
+     */
+    public static final int DEFAULT_PORT = 7788;
+
+
+    /**
+     * Default bound of the search queue.
+     */
+    private static final int DEFAULT_SEARCH_QUEUE = 1024;
+
+
+    // Minutes without a request after which a session expires, and an ended game's session:
+    private static final int IDLE_SESSION_MINUTES = 30;
+    private static final int ENDED_SESSION_MINUTES = 1;
+
+
+    /**
+     * Seconds between sweeps of the expired sessions.
+     */
+    private static final int SWEEP_SECONDS = 10;
+
+
+    /**
+     * Hosted sessions, by their id.
+     */
+    private final ConcurrentHashMap<Long, Session> sessions = new ConcurrentHashMap<>();
+
+
+    /**
+     * Id of the next started session.
+     */
+    private final AtomicLong nextId = new AtomicLong(1);
+
+
+    /**
+     * Threads of the connections.
+     */
+    private final ExecutorService connectionThreads;
+
+
+    /**
+     * Fixed pool of the AI's searches, with a bounded queue.
+     */
+    private final ThreadPoolExecutor searchThreads;
+
+
+    /**
+     * 'Presenter' of every search thread (holding an AI 'Model' with its transposition table).
+     */
+    private final ThreadLocal<Presenter> searchPresenters = ThreadLocal.withInitial(Presenter::new);
+
+
+    /**
+     * Player vs player 'Presenter' instances (without AI tables), lent to the connection threads
+     * for playing the humans' moves by the game's rules.
+     */
+    private final BlockingQueue<Presenter> rulesPresenters;
+
+
+    /**
+     * Writer of the ended games' records, or null when the games aren't archived.
+     */
+    private final GameRecordWriter records;
+
+
+    /**
+     * Thread closing the expired sessions.
+     */
+    private final ScheduledExecutorService sweeper;
+
+
+    /**
+     * Constructor for 'GameServer'.
+     *
+     * @param searchThreadCount Amount of search threads.
+     * @param searchQueue Bound of the searches waiting for a search thread.
+     * @param records Writer of the ended games' records (null for not archiving them).
+     */
+    public GameServer(int searchThreadCount, int searchQueue, GameRecordWriter records)
+    {
+        this.records = records;
+        connectionThreads = connectionExecutor();
+        searchThreads = new ThreadPoolExecutor(searchThreadCount, searchThreadCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(searchQueue));
+
+        int rulesCount = 2 * Runtime.getRuntime().availableProcessors();
+        rulesPresenters = new ArrayBlockingQueue<>(rulesCount);
+
+        for (int i = 0; i < rulesCount; i++)
+        {
+            Presenter presenter = new Presenter();
+            presenter.startGame(GameMode.PVP);
+            rulesPresenters.add(presenter);
+        }
+
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Session sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::closeExpiredSessions, SWEEP_SECONDS, SWEEP_SECONDS, TimeUnit.SECONDS);
+    }
+
+
+    // Runs as main program.
+    public static void main(String[] args) throws IOException
+    {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int searchThreadCount = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int searchQueue = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_SEARCH_QUEUE;
+        GameRecordWriter records = args.length > 3
+                ? new GameRecordWriter(Path.of(args[3]), GameRecordWriter.DEFAULT_SEGMENT_BYTES) : null;
+
+        new GameServer(searchThreadCount, searchQueue, records).serve(port);
+    }
+
+
+    /**
+     * Returns an executor running every task on a new virtual thread when the JVM has them
+     * (Java 21+), or else on pooled platform threads.
+     *
+     * @return 'ExecutorService' for tasks which mostly wait (connections, clients).
+     */
+    public static ExecutorService connectionExecutor()
+    {
+        try
+        {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch (ReflectiveOperationException e)
+        {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+
+    /**
+     * Accepts connections on the port until the process is stopped.
+     *
+     * @param port Listened port.
+     */
+    public void serve(int port) throws IOException
+    {
+        try (ServerSocket serverSocket = new ServerSocket(port, 1024))
+        {
+            System.out.printf("Reversi server listening on port %d | %d search threads%n",
+                    port, searchThreads.getCorePoolSize());
+
+            while (true)
+            {
+                Socket socket = serverSocket.accept();
+                connectionThreads.execute(() -> handle(socket));
+            }
+        }
+    }
+
+
+    /**
+     * Serves a connection: a reply line for every request line, until QUIT or disconnection,
+     * then closes the sessions it has started.
+     *
+     * @param socket The connection's socket.
+     */
+    private void handle(Socket socket)
+    {
+        Set<Long> started = new HashSet<>();
+
+        try (socket;
+             BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             PrintWriter writer = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.US_ASCII))
+        {
+            socket.setTcpNoDelay(true);
+
+            String line;
+            while ((line = reader.readLine()) != null)
+            {
+                if (line.trim().equalsIgnoreCase("QUIT")) break;
+                writer.println(execute(line, started));
+            }
+        }
+        catch (IOException e)
+        {
+            // Dropped connection: its sessions are closed as well.
+        }
+        finally
+        {
+            for (long id : started)
+            {
+                Session session = sessions.get(id);
+                if (session != null) close(session);
+            }
+        }
+    }
+
+
+    /**
+     * Executes a single request line.
+     *
+     * @param line Request line.
+     * @param started Ids of the sessions started by the request's connection (a started session's id is added,
+     *                a closed one's removed), or null.
+     * @return String reply line.
+     */
+    public String execute(String line, Set<Long> started)
+    {
+        String[] words = line.trim().split("\\s+");
+
+        try
+        {
+            switch (words[0].toUpperCase())
+            {
+                case "NEW":
+                    return newSession(words, started);
+                case "MOVE":
+                    return move(session(words, 3), words[2]);
+                case "AI":
+                    return aiMove(session(words, 2));
+                case "STATE":
+                {
+                    Session session = session(words, 2);
+                    session.lock.lock();
+                    try
+                    {
+                        return reply(session, "-");
+                    }
+                    finally
+                    {
+                        session.lock.unlock();
+                    }
+                }
+                case "CLOSE":
+                {
+                    Session session = session(words, 2);
+                    if (!close(session)) return "ERROR NO SUCH SESSION";
+
+                    if (started != null) started.remove(session.id);
+                    return "OK";
+                }
+                default:
+                    return "ERROR UNKNOWN REQUEST";
+            }
+        }
+        catch (IllegalArgumentException e)
+        {
+            return "ERROR " + e.getMessage();
+        }
+        catch (RejectedExecutionException e)
+        {
+            return "ERROR BUSY";
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            return "ERROR INTERRUPTED";
+        }
+        catch (ExecutionException e)
+        {
+            return "ERROR SEARCH FAILED " + e.getCause();
+        }
+    }
+
+
+    /**
+     * Starts a new session (NEW mode [BLACK / WHITE]).
+     *
+     * @return String reply line.
+     */
+    private String newSession(String[] words, Set<Long> started) throws InterruptedException, ExecutionException
+    {
+        if (words.length < 2) throw new IllegalArgumentException("USAGE NEW mode [BLACK / WHITE]");
+
+        GameMode gameMode = GameMode.valueOf(words[1].toUpperCase());
+        Player human = words.length > 2 ? Player.valueOf(words[2].toUpperCase()) : BLACK;
+        Player aiPlayer = gameMode == GameMode.PVP ? null : Player.currentOpponent(human);
+
+        // The starting position, as set up by the 'Presenter' (BLACK starts).
+        Presenter presenter = rulesPresenters.take();
+        Information start;
+        try
+        {
+            start = presenter.startGame(GameMode.PVP);
+        }
+        finally
+        {
+            rulesPresenters.put(presenter);
+        }
+
+        Session session = new Session(nextId.getAndIncrement(), gameMode, aiPlayer,
+                start.board.getColorBits(BLACK), start.board.getColorBits(WHITE), start.player);
+
+        if (records != null)
+        {
+            session.record = new GameRecord();
+            session.record.start(gameMode, System.currentTimeMillis());
+        }
+        sessions.put(session.id, session);
+        if (started != null) started.add(session.id);
+
+        session.lock.lock();
+        try
+        {
+            return reply(session, playAi(session));
+        }
+        finally
+        {
+            session.lock.unlock();
+        }
+    }
+
+
+    /**
+     * Closes a session: removes it, and stops its running search (an abandoned game isn't searched on).
+     *
+     * @return boolean for if the session was still open.
+     */
+    private boolean close(Session session)
+    {
+        if (!sessions.remove(session.id, session)) return false;
+
+        // Set before reading the searcher, which checks it after setting itself (see 'search').
+        session.closed = true;
+
+        Presenter searcher = session.searcher;
+        if (searcher != null) searcher.stopAiMove();
+
+        return true;
+    }
+
+
+    /**
+     * Closes the expired sessions: idle for <u>IDLE_SESSION_MINUTES</u>, or for <u>ENDED_SESSION_MINUTES</u>
+     * once ended. A session handling a request (holding its lock) isn't idle.
+     */
+    private void closeExpiredSessions()
+    {
+        long now = System.nanoTime();
+        long idleNanos = TimeUnit.MINUTES.toNanos(IDLE_SESSION_MINUTES);
+        long endedNanos = TimeUnit.MINUTES.toNanos(ENDED_SESSION_MINUTES);
+
+        for (Session session : sessions.values())
+        {
+            if (session.lock.isLocked()) continue;
+
+            long idle = now - session.lastRequest;
+            if (idle > idleNanos || session.ended && idle > endedNanos) close(session);
+        }
+    }
+
+
+    /**
+     * Plays the human's move (MOVE id slot), then the AI's replies.
+     *
+     * @return String reply line.
+     */
+    private String move(Session session, String slot) throws InterruptedException, ExecutionException
+    {
+        Coordinates coordinates = parseSlot(slot);
+
+        session.lock.lock();
+        try
+        {
+            if (session.ended) return "ERROR GAME ENDED";
+            if (session.isAiTurn()) return "ERROR NOT YOUR TURN";
+
+            Presenter presenter = rulesPresenters.take();
+            try
+            {
+                presenter.resumeGame(GameMode.PVP, session.currentPlayer, session.blackBits, session.whiteBits);
+                Information information = presenter.playerTurn(coordinates);
+
+                if (information.status == FAILED) return "ERROR ILLEGAL MOVE";
+                save(session, information);
+            }
+            finally
+            {
+                rulesPresenters.put(presenter);
+            }
+
+            return reply(session, playAi(session));
+        }
+        finally
+        {
+            session.lock.unlock();
+        }
+    }
+
+
+    /**
+     * Plays the current player's move by the AI (AI id), then the AI's replies.
+     *
+     * @return String reply line.
+     */
+    private String aiMove(Session session) throws InterruptedException, ExecutionException
+    {
+        if (session.gameMode == GameMode.PVP) return "ERROR NO AI IN PVP";
+
+        session.lock.lock();
+        try
+        {
+            if (session.ended) return "ERROR GAME ENDED";
+
+            String played = slot(search(session).move);
+            String replies = playAi(session);
+
+            return reply(session, replies.equals("-") ? played : played + "," + replies);
+        }
+        finally
+        {
+            session.lock.unlock();
+        }
+    }
+
+
+    /**
+     * Plays the AI's moves while it's the AI's turn (more than one when the human is skipped).
+     * When the search queue is full, the AI's turn is left for a later <i>AI id</i> request
+     * (the reply shows the AI to move), as the human's move has already been played.
+     *
+     * <b>NOTE:</b> called holding the session's lock.
+     *
+     * @return String of the played slots, comma separated ("-" for none).
+     */
+    private String playAi(Session session) throws InterruptedException, ExecutionException
+    {
+        StringBuilder played = new StringBuilder();
+
+        try
+        {
+            while (session.isAiTurn())
+            {
+                Information information = search(session);
+
+                if (played.length() > 0) played.append(',');
+                played.append(slot(information.move));
+            }
+        }
+        catch (RejectedExecutionException e)
+        {
+            // Left for a later request.
+        }
+
+        return played.length() == 0 ? "-" : played.toString();
+    }
+
+
+    /**
+     * Plays the current player's move by the AI on a search thread, waiting for it,
+     * and saves it to the session. The search runs on the search thread itself (by its 'Presenter'),
+     * and is stopped when the session is closed meanwhile.
+     *
+     * <b>NOTE:</b> called holding the session's lock.
+     *
+     * @return 'Information' of the AI's move.
+     */
+    private Information search(Session session) throws InterruptedException, ExecutionException
+    {
+        GameMode gameMode = session.gameMode;
+        Player currentPlayer = session.currentPlayer;
+        long blackBits = session.blackBits;
+        long whiteBits = session.whiteBits;
+
+        Future<Information> search = searchThreads.submit(() -> {
+            Presenter presenter = searchPresenters.get();
+            presenter.resumeGame(gameMode, currentPlayer, blackBits, whiteBits);
+
+            Information information;
+            session.searcher = presenter;
+            try
+            {
+                information = presenter.aiTurn(() -> session.closed);
+            }
+            finally
+            {
+                session.searcher = null;
+            }
+
+            // A closed session's (stopped) move is thrown away.
+            if (information == null || session.closed) throw new CancellationException();
+
+            // The search thread's board is reused by its next search.
+            information.board = new BitBoard(information.board.getColorBits(BLACK), information.board.getColorBits(WHITE));
+            return information;
+        });
+
+        Information information;
+        try
+        {
+            information = search.get();
+        }
+        catch (ExecutionException e)
+        {
+            if (e.getCause() instanceof CancellationException) throw new IllegalArgumentException("SESSION CLOSED");
+            throw e;
+        }
+
+        save(session, information);
+
+        return information;
+    }
+
+
+    /**
+     * Saves a played move's outcome to the session (and to its record, archived when the game has ended).
+     */
+    private void save(Session session, Information information)
+    {
+        session.blackBits = information.board.getColorBits(BLACK);
+        session.whiteBits = information.board.getColorBits(WHITE);
+
+        GameRecord record = session.record;
+        if (record != null) record.addMove(information.move);
+
+        if (information.status == ENDED)
+        {
+            session.ended = true;
+            session.currentPlayer = information.player;
+
+            if (record != null) archive(record, information.board);
+        }
+        else if (information.status == SKIPPED)
+        {
+            // The skipped player's opponent moves again.
+            session.currentPlayer = Player.currentOpponent(information.player);
+
+            if (record != null) record.addSlot(GameRecord.PASS);
+        }
+        else
+        {
+            session.currentPlayer = information.player;
+        }
+    }
+
+
+    /**
+     * Archives an ended game's record (written at once, so a crash loses no ended game).
+     * A failed write is reported, and doesn't fail the game's request.
+     */
+    private void archive(GameRecord record, BitBoard board)
+    {
+        record.finish(board, System.currentTimeMillis());
+
+        try
+        {
+            records.append(record);
+            records.flush();
+        }
+        catch (IOException e)
+        {
+            System.err.println("Game record not archived: " + e);
+        }
+    }
+
+
+    /**
+     * @return The session of a request (its id is the request's second word).
+     */
+    private Session session(String[] words, int length)
+    {
+        if (words.length < length) throw new IllegalArgumentException("MISSING PARAMETERS");
+
+        Session session;
+        try
+        {
+            session = sessions.get(Long.parseLong(words[1]));
+        }
+        catch (NumberFormatException e)
+        {
+            throw new IllegalArgumentException("BAD SESSION ID");
+        }
+
+        if (session == null) throw new IllegalArgumentException("NO SUCH SESSION");
+
+        session.lastRequest = System.nanoTime();
+        return session;
+    }
+
+
+    /**
+     * @return The reply line of a session's state.
+     */
+    private static String reply(Session session, String aiMoves)
+    {
+        String player = session.currentPlayer == null ? "DRAW" : session.currentPlayer.name();
+
+        return String.format("OK %d %s %s %016x %016x %s", session.id, session.ended ? "ENDED" : "PLAYING",
+                player, session.blackBits, session.whiteBits, aiMoves);
+    }
+
+
+    /**
+     * Parses a slot (row 1 - 8, then column a - h).
+     *
+     * @return 'Coordinates' instance.
+     */
+    static Coordinates parseSlot(String slot)
+    {
+        if (slot.length() != 2) throw new IllegalArgumentException("BAD SLOT");
+
+        int y_position = slot.charAt(0) - '0';
+        int x_position = Character.toLowerCase(slot.charAt(1)) - 'a' + 1;
+
+        if (y_position < 1 || y_position > 8 || x_position < 1 || x_position > 8)
+        {
+            throw new IllegalArgumentException("BAD SLOT");
+        }
+
+        return new Coordinates(y_position, x_position);
+    }
+
+
+    /**
+     * @return The slot of 'Coordinates' (row, then column).
+     */
+    public static String slot(Coordinates coordinates)
+    {
+        return "" + coordinates.y_position + (char) ('a' + coordinates.x_position - 1);
+    }
+}
@@ -0,0 +1,127 @@
+package SERVER;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+import MVP.Enums.GameMode;
+import MVP.Enums.Player;
+import MVP.Presenter;
+import RECORDS.GameRecord;
+
+
+/**
+ * <h1>Class type: 'Session'</h1>
+ *
+ * A game hosted by the 'GameServer': only the game's position (two longs, as in 'BitBoard')
+ * and its metadata, so that an idle game costs around a hundred bytes (and its 'GameRecord',
+ * when the server archives its games).
+ *
+ * A 'Presenter' is bound to the session only while one of its requests is handled
+ * (<u>Presenter.resumeGame</u> from the saved position, then the turn, then saved back).
+ *
+ * <b>NOTE:</b> a session's requests are handled one at a time, holding its <u>lock</u> (a lock
+ * and not a synchronized block, which would pin a virtual thread to its carrier while it waits
+ * for the AI's search).
+ *
+ * @author David Salasin
+ * @see GameServer
+ */
+public class Session
+{
+    /**
+     * Session's id.
+     */
+    final long id;
+
+
+    /**
+     * Lock held while handling a request of the session.
+     */
+    final ReentrantLock lock = new ReentrantLock();
+
+
+    /**
+     * Game mode (AI difficulty) of the game.
+     */
+    final GameMode gameMode;
+
+
+    /**
+     * The player played by the AI, or null when the game is player vs player.
+     */
+    final Player aiPlayer;
+
+
+    // Game's position:
+    long blackBits;
+    long whiteBits;
+
+
+    /**
+     * The player to move, or the winner when the game has ended (null for a draw).
+     */
+    Player currentPlayer;
+
+
+    /**
+     * Flag for the game has ended (also read by the server's sweep of the expired sessions).
+     */
+    volatile boolean ended;
+
+
+    /**
+     * Time of the session's last request (<u>System.nanoTime</u>), for expiring an idle session.
+     */
+    volatile long lastRequest = System.nanoTime();
+
+
+    /**
+     * The search thread's 'Presenter' while it searches the AI's move of the game, or null
+     * (its search is stopped when the session is closed).
+     */
+    volatile Presenter searcher;
+
+
+    /**
+     * Flag for the session has been closed (a search starting afterwards is cancelled).
+     */
+    volatile boolean closed;
+
+
+    /**
+     * Record of the game's moves, or null when the server doesn't archive its games.
+     */
+    GameRecord record;
+
+
+    /**
+     * Constructor for 'Session'.
+     *
+     * @param id Session's id.
+     * @param gameMode Game mode of the game.
+     * @param aiPlayer The player played by the AI (null for player vs player).
+     * @param blackBits BLACK's starting pieces.
+     * @param whiteBits WHITE's starting pieces.
+     * @param currentPlayer The player to move first.
+     * @see Presenter
+     */
+    Session(long id, GameMode gameMode, Player aiPlayer, long blackBits, long whiteBits, Player currentPlayer)
+    {
+        this.id = id;
+        this.gameMode = gameMode;
+        this.aiPlayer = aiPlayer;
+        this.blackBits = blackBits;
+        this.whiteBits = whiteBits;
+        this.currentPlayer = currentPlayer;
+    }
+
+
+    /**
+     * Checks if it's the AI's turn.
+     *
+     * @return boolean for if the AI is to move.
+     */
+    boolean isAiTurn()
+    {
+        return !ended && aiPlayer != null && currentPlayer == aiPlayer;
+    }
+}
@@ -0,0 +1,201 @@
+package TOOLS;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import BIT_MANAGEMENT.BitBoard;
+import BIT_MANAGEMENT.Symmetry;
+import INFORMATION_ENCAPSULATION.Move;
+import MVP.Enums.GameMode;
+import MVP.Enums.Player;
+import MVP.Model;
+import SEARCH.OpeningBook;
+
+import static MVP.Enums.Player.*;
+
+
+/**
+ * <h1>Class type: 'BookBuilder'</h1>
+ *
+ * Grows an 'OpeningBook' file offline, by self-play: every game plays the book's moves while
+ * they exist, and adds every new opening position with the move (and score) of a deep timed
+ * search. Some moves are played at random instead of the book's, so the games spread over
+ * different openings. Games are played in parallel, one 'Model' per thread.
+ *
+ * An existing book file is loaded first and grown (its visit counts keep counting).
+ *
+ * Usage: <i>BookBuilder [book file] [games] [book plies] [search ms] [threads]</i>
+ * (reversi.book, 100 games, 16 plies, 1000 ms, all cores by default).
+ *
+ * @author David Salasin
+ * @see OpeningBook
+ */
+public class BookBuilder
+{
+    /**
+     * Chance of playing a random move instead of the book's (per ply, in the first plies only).
+     */
+    private static final double EXPLORATION_RATE = 0.25;
+
+
+    /**
+     * Plies from the start in which moves may be played at random.
+     */
+    private static final int EXPLORATION_PLIES = 8;
+
+
+    /**
+     * Book positions by canonical key: {best move slot index (canonical), score, visits}.
+     */
+    private static final Map<Long, int[]> book = new ConcurrentHashMap<>();
+
+
+    // Runs as main program.
+    public static void main(String[] args) throws IOException, InterruptedException
+    {
+        Path path = Path.of(args.length > 0 ? args[0] : Model.DEFAULT_OPENING_BOOK);
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int plies = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+        long searchMillis = args.length > 3 ? Long.parseLong(args[3]) : 1000;
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+
+        if (Files.exists(path)) load(OpeningBook.open(path));
+        int startSize = book.size();
+
+        AtomicInteger played = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+
+        for (int game = 0; game < games; game++)
+        {
+            long seed = game;
+
+            pool.execute(() ->
+            {
+                playGame(new Random(seed), plies, searchMillis);
+
+                int count = played.incrementAndGet();
+                if (count % 10 == 0) System.out.printf("%d games | %d positions%n", count, book.size());
+            });
+        }
+
+        pool.shutdown();
+        pool.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+
+        save(path);
+        System.out.printf("Book %s: %d positions (%d new) in %.1f s%n",
+                path, book.size(), book.size() - startSize, (System.nanoTime() - start) / 1e9);
+    }
+
+
+    /**
+     * Plays a single self-play game through the book's plies, adding the new positions.
+     *
+     * @param random The game's random generator.
+     * @param plies Plies from the start kept in the book.
+     * @param searchMillis Time budget of a new position's search.
+     */
+    private static void playGame(Random random, int plies, long searchMillis)
+    {
+        Model model = new Model();
+        model.init(GameMode.HARDCORE);
+        model.setOpeningBook(null);
+        model.setTimeBudget(searchMillis);
+
+        Player currentPlayer = BLACK;
+
+        for (int ply = 0; ply < plies && !model.isFinished(); ply++)
+        {
+            if (model.isOutOfMoves(currentPlayer))
+            {
+                currentPlayer = Player.currentOpponent(currentPlayer);
+                continue;
+            }
+
+            long blackBits = model.getBoard().getColorBits(BLACK);
+            long whiteBits = model.getBoard().getColorBits(WHITE);
+            int symmetry = Symmetry.canonicalSymmetry(blackBits, whiteBits, currentPlayer);
+            long key = OpeningBook.canonicalKey(blackBits, whiteBits, currentPlayer, symmetry);
+
+            int[] entry = book.get(key);
+            if (entry == null)
+            {
+                Move searched = model.mostEvaluatedPlay(currentPlayer);
+                long canonicalMove = Symmetry.transform(BitBoard.bitPosition(searched), symmetry);
+                int score = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, searched.score));
+
+                entry = book.computeIfAbsent(key, k -> new int[] {Long.numberOfTrailingZeros(canonicalMove), score, 0});
+            }
+
+            synchronized (entry)
+            {
+                entry[2]++;
+            }
+
+            long position = Symmetry.revert(1L << entry[0], symmetry);
+
+            // Exploring: a random move instead of the book's.
+            if (ply < EXPLORATION_PLIES && random.nextDouble() < EXPLORATION_RATE)
+            {
+                long moves = model.availableMoves(currentPlayer);
+                for (int skip = random.nextInt(Long.bitCount(moves)); skip > 0; skip--) moves &= moves - 1;
+                position = Long.lowestOneBit(moves);
+            }
+
+            model.playMove(currentPlayer, position);
+            currentPlayer = Player.currentOpponent(currentPlayer);
+        }
+    }
+
+
+    /**
+     * Loads every record of an existing book.
+     */
+    private static void load(OpeningBook existing)
+    {
+        for (int i = 0; i < existing.size(); i++)
+        {
+            book.put(existing.key(i), new int[] {existing.canonicalMove(i), existing.score(i), existing.visits(i)});
+        }
+    }
+
+
+    /**
+     * Writes the book, sorted by key (unsigned).
+     */
+    private static void save(Path path) throws IOException
+    {
+        int count = book.size();
+        long[] keys = new long[count];
+
+        // Flipping the sign bit sorts the keys as unsigned by a signed sort.
+        int i = 0;
+        for (long key : book.keySet()) keys[i++] = key ^ Long.MIN_VALUE;
+        Arrays.sort(keys);
+
+        byte[] moves = new byte[count];
+        short[] scores = new short[count];
+        int[] visits = new int[count];
+
+        for (i = 0; i < count; i++)
+        {
+            keys[i] ^= Long.MIN_VALUE;
+            int[] entry = book.get(keys[i]);
+
+            moves[i] = (byte) entry[0];
+            scores[i] = (short) entry[1];
+            visits[i] = entry[2];
+        }
+
+        OpeningBook.write(path, keys, moves, scores, visits, count);
+    }
+}
@@ -0,0 +1,146 @@
+package TOOLS;
+
+import BIT_MANAGEMENT.BitBoard;
+import INFORMATION_ENCAPSULATION.Coordinates;
+import INFORMATION_ENCAPSULATION.Move;
+import SEARCH.EndgameSolver;
+import SEARCH.TranspositionTable;
+
+
+/**
+ * <h1>Class type: 'EndgameBenchmark'</h1>
+ *
+ * Measures the 'EndgameSolver': the exact and win / loss / draw solve of fixed 20 empty slots
+ * positions (recorded from AI games), with their nodes, time and nodes per second.
+ *
+ * Other positions can be passed as arguments, in the common test suites' text format:
+ * 64 board slots (A1 - H8 by rows, 'X' BLACK, 'O' WHITE, '-' empty), a space, and the
+ * player to move ('X' / 'O'). For example the FFO endgame suite's positions.
+ *
+ * Usage: <i>EndgameBenchmark ["board player" ...]</i>
+ *
+ * @author David Salasin
+ * @see EndgameSolver
+ */
+public class EndgameBenchmark
+{
+    /**
+     * Recorded 20 empty slots positions: BLACK pieces, WHITE pieces, player to move (0 BLACK / 1 WHITE).
+     */
+    private static final long[][] POSITIONS = {
+            {0x2224243A24080000L, 0x50195B051B371F1FL, 0},
+            {0x0002070B07270D08L, 0x2030F8F4F8987030L, 0},
+            {0x7C0E924040000000L, 0x83F16D3F3F270101L, 0},
+            {0xFEF448100C1C2E03L, 0x000B376F32200000L, 0},
+            {0x004066C4CCF47000L, 0x0808183B330B8CF2L, 0},
+            {0x407CF903301E1A1CL, 0x000000FC4F616101L, 0},
+            {0x08040A1D00000400L, 0x727975623F3A78B8L, 0},
+            {0xFA5D2F37AF400000L, 0x00001008103C787CL, 0}
+    };
+
+
+    /**
+     * Transposition table's size (MB), a new table for every solve.
+     */
+    private static final int TABLE_MB = 64;
+
+
+    // Runs as main program.
+    public static void main(String[] args)
+    {
+        long[][] positions = args.length > 0 ? new long[args.length][] : POSITIONS;
+        for (int i = 0; i < args.length; i++) positions[i] = parse(args[i]);
+
+        EndgameSolver solver = new EndgameSolver();
+
+        // Warm up (JIT compilation), not measured.
+        solveWinLossDraw(solver, positions[0]);
+
+        long totalNodes = 0;
+        long totalTime = 0;
+
+        for (int i = 0; i < positions.length; i++)
+        {
+            int emptySlots = Long.bitCount(~(positions[i][0] | positions[i][1]));
+
+            long start = System.nanoTime();
+            String result = solveWinLossDraw(solver, positions[i]);
+            long winLossDrawTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            Move bestPlay = new Move(0, 0);
+            solver.setTranspositionTable(new TranspositionTable(TABLE_MB));
+            solver.solveRoot(player(positions[i]), opponent(positions[i]), false, bestPlay);
+            long exactTime = System.nanoTime() - start;
+
+            totalNodes += solver.getNodes();
+            totalTime += exactTime;
+
+            System.out.printf("#%d  %d empty  %s  WLD %-4s %6.2f s  |  exact %s %+3d  %,14d nodes  %7.2f s  %6.2f Mn/s%n",
+                    i + 1, emptySlots, positions[i][2] == 0 ? "X" : "O", result, winLossDrawTime / 1e9,
+                    squareName(bestPlay), bestPlay.score, solver.getNodes(), exactTime / 1e9,
+                    solver.getNodes() / (exactTime / 1e3));
+        }
+
+        System.out.printf("Total exact: %,d nodes  %.2f s  %.2f Mn/s%n",
+                totalNodes, totalTime / 1e9, totalNodes / (totalTime / 1e3));
+    }
+
+
+    /**
+     * Solves a position's win / loss / draw result.
+     *
+     * @return The result's name, from the point of view of the player to move.
+     */
+    private static String solveWinLossDraw(EndgameSolver solver, long[] position)
+    {
+        solver.setTranspositionTable(new TranspositionTable(TABLE_MB));
+        int result = solver.solveWinLossDraw(player(position), opponent(position));
+
+        return result > 0 ? "win" : result < 0 ? "loss" : "draw";
+    }
+
+
+    /**
+     * Parses a position in the test suites' text format.
+     *
+     * @param text 64 board slots, a space and the player to move.
+     * @return long[] BLACK pieces, WHITE pieces, player to move (0 BLACK / 1 WHITE).
+     */
+    static long[] parse(String text)
+    {
+        long black = 0L;
+        long white = 0L;
+
+        for (int i = 0; i < 64; i++)
+        {
+            long position = BitBoard.bitPosition(new Coordinates(i / 8 + 1, i % 8 + 1));
+
+            if (text.charAt(i) == 'X') black |= position;
+            else if (text.charAt(i) == 'O') white |= position;
+        }
+
+        return new long[] {black, white, text.trim().endsWith("O") ? 1 : 0};
+    }
+
+
+    private static long player(long[] position)
+    {
+        return position[2] == 0 ? position[0] : position[1];
+    }
+
+
+    private static long opponent(long[] position)
+    {
+        return position[2] == 0 ? position[1] : position[0];
+    }
+
+
+    /**
+     * @return The move's board slot name (e.g. "a2").
+     */
+    private static String squareName(Move move)
+    {
+        return "" + (char) ('a' + move.x_position - 1) + move.y_position;
+    }
+}
@@ -0,0 +1,178 @@
+package TOOLS;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import BIT_MANAGEMENT.BitBoard;
+import BIT_MANAGEMENT.MoveGenerator;
+import MVP.Enums.GameMode;
+import SERVER.GameServer;
+
+
+/**
+ * <h1>Class type: 'LoadGenerator'</h1>
+ *
+ * Load test client of the 'GameServer': many concurrent clients, each on its own connection,
+ * play whole games as BLACK against the server's AI (random legal moves), and the latency of
+ * every move (until it's the client's turn again, the AI's reply included) is reported as percentiles.
+ *
+ * Usage: <i>LoadGenerator [clients] [games per client] [GameMode] [host] [port]</i>
+ * (100 clients, 1 game each, BEGINNER, localhost, <u>GameServer.DEFAULT_PORT</u> by default).
+ *
+ * @author David Salasin
+ * @see GameServer
+ */
+public class LoadGenerator
+{
+    /**
+     * Wait before retrying a request answered <i>ERROR BUSY</i> (ms).
+     */
+    private static final long BUSY_RETRY = 10;
+
+
+    // Runs as main program.
+    public static void main(String[] args) throws Exception
+    {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        GameMode gameMode = args.length > 2 ? GameMode.valueOf(args[2]) : GameMode.BEGINNER;
+        String host = args.length > 3 ? args[3] : "localhost";
+        int port = args.length > 4 ? Integer.parseInt(args[4]) : GameServer.DEFAULT_PORT;
+
+        AtomicLong busy = new AtomicLong();
+        List<Callable<long[]>> tasks = new ArrayList<>(clients);
+
+        for (int client = 0; client < clients; client++)
+        {
+            long seed = client;
+            tasks.add(() -> playGames(host, port, gameMode, games, new Random(seed), busy));
+        }
+
+        ExecutorService executor = GameServer.connectionExecutor();
+        long start = System.nanoTime();
+
+        long[] latencies = new long[0];
+        for (Future<long[]> result : executor.invokeAll(tasks))
+        {
+            long[] clientLatencies = result.get();
+            int length = latencies.length;
+            latencies = Arrays.copyOf(latencies, length + clientLatencies.length);
+            System.arraycopy(clientLatencies, 0, latencies, length, clientLatencies.length);
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        executor.shutdown();
+
+        Arrays.sort(latencies);
+        System.out.printf("%d clients x %d %s games: %,d moves in %.1f s (%,.0f moves/s), %d busy retries%n",
+                clients, games, gameMode, latencies.length, seconds, latencies.length / seconds, busy.get());
+        System.out.printf("move latency: p50 %.2f ms | p90 %.2f ms | p99 %.2f ms | max %.2f ms%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.90),
+                percentile(latencies, 0.99), percentile(latencies, 1.0));
+    }
+
+
+    /**
+     * Plays a client's games on a single connection.
+     *
+     * @return long[] latency of every move (nanoseconds).
+     */
+    private static long[] playGames(String host, int port, GameMode gameMode, int games, Random random,
+                                    AtomicLong busy) throws IOException, InterruptedException
+    {
+        long[] latencies = new long[games * 32];
+        int count = 0;
+
+        try (Socket socket = new Socket(host, port);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             PrintWriter writer = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.US_ASCII))
+        {
+            socket.setTcpNoDelay(true);
+
+            for (int game = 0; game < games; game++)
+            {
+                String[] reply = request(reader, writer, "NEW " + gameMode + " BLACK", busy);
+                String id = reply[1];
+
+                while (reply[2].equals("PLAYING"))
+                {
+                    long black = Long.parseUnsignedLong(reply[4], 16);
+                    long white = Long.parseUnsignedLong(reply[5], 16);
+
+                    long moves = MoveGenerator.availableMoves(black, white);
+                    for (int skip = random.nextInt(Long.bitCount(moves)); skip > 0; skip--) moves &= moves - 1;
+                    String slot = GameServer.slot(BitBoard.boardPosition(Long.lowestOneBit(moves)));
+
+                    long start = System.nanoTime();
+                    reply = request(reader, writer, "MOVE " + id + " " + slot, busy);
+
+                    // The AI's turn, left when the server's search queue was full.
+                    while (reply[2].equals("PLAYING") && reply[3].equals("WHITE"))
+                    {
+                        reply = request(reader, writer, "AI " + id, busy);
+                    }
+
+                    if (count == latencies.length) latencies = Arrays.copyOf(latencies, count * 2);
+                    latencies[count++] = System.nanoTime() - start;
+                }
+
+                request(reader, writer, "CLOSE " + id, busy);
+            }
+
+            writer.println("QUIT");
+        }
+
+        return Arrays.copyOf(latencies, count);
+    }
+
+
+    /**
+     * Sends a request and reads its reply, retrying while the server is busy.
+     *
+     * @return String[] the reply's words.
+     */
+    private static String[] request(BufferedReader reader, PrintWriter writer, String request, AtomicLong busy)
+            throws IOException, InterruptedException
+    {
+        while (true)
+        {
+            writer.println(request);
+            String reply = reader.readLine();
+
+            if (reply == null) throw new IOException("Connection closed by the server.");
+            if (reply.equals("ERROR BUSY"))
+            {
+                busy.incrementAndGet();
+                Thread.sleep(BUSY_RETRY);
+                continue;
+            }
+            if (reply.startsWith("ERROR")) throw new IllegalStateException(request + ": " + reply);
+
+            return reply.split(" ");
+        }
+    }
+
+
+    /**
+     * @return The percentile of sorted latencies (milliseconds).
+     */
+    private static double percentile(long[] sorted, double fraction)
+    {
+        if (sorted.length == 0) return 0;
+
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(fraction * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
@@ -0,0 +1,133 @@
+package TOOLS;
+
+import java.util.Random;
+
+import BIT_MANAGEMENT.MoveGenerator;
+
+
+/**
+ * <h1>Class type: 'MoveGeneratorCheck'</h1>
+ *
+ * Differential test of the move generator: compares <u>MoveGenerator.availableMoves</u> (the
+ * Kogge-Stone shifts) against <u>MoveGenerator.availableMovesReference</u> (the 'BitShifters'
+ * walk) for both players of many random positions, and reports every position they differ on.
+ *
+ * Positions are of two kinds, half of each:
+ * - <b>games</b>: every position of random games from the starting position (played by the checked moves).
+ * - <b>boards</b>: random disc placements of every density, reachable or not - so runs touching
+ *   every edge and corner, which games rarely reach, are compared too.
+ *
+ * Usage: <i>MoveGeneratorCheck [positions] [seed]</i> (200000 positions, seed 1 by default).
+ * Exits with status 1 if the generators differ on any position.
+ *
+ * @author David Salasin
+ * @see Perft
+ */
+public class MoveGeneratorCheck
+{
+    /**
+     * Most mismatching positions printed.
+     */
+    private static final int MAX_PRINTED = 10;
+
+
+    // Starting position:
+    private static final long FIRST_BITS_BLACK = 0x0000000810000000L;
+    private static final long FIRST_BITS_WHITE = 0x0000001008000000L;
+
+
+    /**
+     * Mismatching positions found.
+     */
+    private static long mismatches = 0;
+
+
+    // Runs as main program.
+    public static void main(String[] args)
+    {
+        long positions = args.length > 0 ? Long.parseLong(args[0]) : 200_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+
+        Random random = new Random(seed);
+        long checked = 0;
+        long start = System.nanoTime();
+
+        // Random games, to the end:
+        while (checked < positions / 2)
+        {
+            long player = FIRST_BITS_BLACK;
+            long opponent = FIRST_BITS_WHITE;
+            boolean passed = false;
+
+            while (checked < positions / 2)
+            {
+                long moves = check(player, opponent);
+                checked++;
+
+                if (moves == 0L)
+                {
+                    if (passed) break;
+                    passed = true;
+                }
+                else
+                {
+                    passed = false;
+
+                    for (int skip = random.nextInt(Long.bitCount(moves)); skip > 0; skip--) moves &= moves - 1;
+                    long position = Long.lowestOneBit(moves);
+                    long flips = MoveGenerator.computeFlips(player, opponent, position);
+
+                    player |= position | flips;
+                    opponent &= ~flips;
+                }
+
+                long swap = player;
+                player = opponent;
+                opponent = swap;
+            }
+        }
+
+        // Random boards, of a random density each:
+        while (checked < positions)
+        {
+            long occupied = random.nextLong();
+            for (int thinning = random.nextInt(4); thinning > 0; thinning--) occupied &= random.nextLong();
+
+            long player = occupied & random.nextLong();
+            check(player, occupied & ~player);
+            checked++;
+        }
+
+        System.out.printf("%,d positions checked in %.2f s: %,d mismatch(es)%n",
+                checked, (System.nanoTime() - start) / 1e9, mismatches);
+
+        if (mismatches > 0) System.exit(1);
+    }
+
+
+    /**
+     * Compares both generators' moves of a position, for both of its players.
+     *
+     * @param player long board pieces of the player to move.
+     * @param opponent long board pieces of the opponent.
+     * @return long value of the player's available moves (the reference's).
+     */
+    private static long check(long player, long opponent)
+    {
+        long moves = MoveGenerator.availableMovesReference(player, opponent);
+        long opponentMoves = MoveGenerator.availableMovesReference(opponent, player);
+
+        if (MoveGenerator.availableMoves(player, opponent) != moves
+                || MoveGenerator.availableMoves(opponent, player) != opponentMoves)
+        {
+            if (mismatches++ < MAX_PRINTED)
+            {
+                System.out.printf("MISMATCH player %016X opponent %016X: %016X / %016X, reference %016X / %016X%n",
+                        player, opponent, MoveGenerator.availableMoves(player, opponent),
+                        MoveGenerator.availableMoves(opponent, player), moves, opponentMoves);
+            }
+        }
+
+        return moves;
+    }
+}
@@ -0,0 +1,86 @@
+package TOOLS;
+
+import MVP.Enums.GameMode;
+import MVP.Enums.Player;
+import MVP.Model;
+import SEARCH.Enums.ParallelMode;
+
+
+/**
+ * <h1>Class type: 'ParallelSpeedup'</h1>
+ *
+ * Measures the speedup curve of the parallel search modes: the time of a fixed depth
+ * search of the whole 'PositionSuite', at 1, 2, 4, 8 and 16 threads.
+ *
+ * Usage: <i>ParallelSpeedup [GameMode]</i> (HARDCORE by default).
+ *
+ * @author David Salasin
+ * @see ParallelMode
+ */
+public class ParallelSpeedup
+{
+    /**
+     * Measured thread counts.
+     */
+    private static final int[] THREADS = {1, 2, 4, 8, 16};
+
+
+    // Runs as main program.
+    public static void main(String[] args)
+    {
+        GameMode gameMode = args.length > 0 ? GameMode.valueOf(args[0]) : GameMode.HARDCORE;
+
+        System.out.printf("Cores: %d | %s depth %d | %d positions%n",
+                Runtime.getRuntime().availableProcessors(), gameMode, gameMode.depth, PositionSuite.size());
+
+        Model model = new Model();
+
+        // Warm up (JIT compilation), not measured.
+        searchSuite(model, gameMode);
+
+        for (ParallelMode mode : ParallelMode.values())
+        {
+            double serialSeconds = 0;
+
+            for (int threads : THREADS)
+            {
+                model.setSearchThreads(threads);
+                model.setParallelMode(mode);
+
+                double seconds = searchSuite(model, gameMode);
+                if (threads == 1) serialSeconds = seconds;
+
+                System.out.printf("%-10s  %2d threads  %8.2f s  speedup %5.2fx%n",
+                        mode, threads, seconds, serialSeconds / seconds);
+            }
+        }
+
+        model.setSearchThreads(1);
+    }
+
+
+    /**
+     * Searches every suite position once, each starting with an empty transposition table.
+     *
+     * @param model 'Model' instance, set up for the measured search.
+     * @param gameMode Searched game mode (fixed depth).
+     * @return Total search time in seconds.
+     */
+    private static double searchSuite(Model model, GameMode gameMode)
+    {
+        long total = 0;
+
+        for (int i = 0; i < PositionSuite.size(); i++)
+        {
+            model.init(gameMode);
+            model.setTimeBudget(0);
+            Player toMove = PositionSuite.load(model, i);
+
+            long start = System.nanoTime();
+            model.mostEvaluatedPlay(toMove);
+            total += System.nanoTime() - start;
+        }
+
+        return total / 1e9;
+    }
+}
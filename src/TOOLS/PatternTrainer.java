@@ -0,0 +1,305 @@
+package TOOLS;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import BIT_MANAGEMENT.BitBoard;
+import BIT_MANAGEMENT.MoveGenerator;
+import BIT_MANAGEMENT.Symmetry;
+import INFORMATION_ENCAPSULATION.Move;
+import MVP.PatternEvaluate;
+import SEARCH.EndgameSolver;
+import SEARCH.TranspositionTable;
+
+
+/**
+ * <h1>Class type: 'PatternTrainer'</h1>
+ *
+ * Learns the 'PatternEvaluate' weights: plays randomised games (a few random opening moves,
+ * then mostly fastest-first moves, then a perfect endgame by the 'EndgameSolver'), labels every
+ * position (in all of its symmetries) by the game's final disc differential, and fits the
+ * weights to the labels by least-squares gradient descent, each weight's step scaled by how
+ * often it's seen.
+ *
+ * Usage: <i>PatternTrainer [games] [epochs] [weights file]</i>
+ * (20000 games, 60 epochs, src/MVP/Resources/patterns.bin by default).
+ *
+ * @author David Salasin
+ * @see PatternEvaluate
+ */
+public class PatternTrainer
+{
+    /**
+     * Empty slots from which the games are played perfectly.
+     */
+    private static final int SOLVE_EMPTIES = 12;
+
+
+    /**
+     * Random opening moves of every game.
+     */
+    private static final int RANDOM_PLIES = 8;
+
+
+    /**
+     * Chance of a random move after the opening.
+     */
+    private static final double RANDOM_MOVE_RATE = 0.15;
+
+
+    /**
+     * Minimum occurrences a weight's step is scaled by (so rare configurations move slowly).
+     */
+    private static final int MIN_OCCURRENCES = 8;
+
+
+    /**
+     * Gradient descent step (split between a position's pattern places).
+     */
+    private static final double LEARNING_RATE = 1.0 / PatternEvaluate.PATTERN_PLACES;
+
+
+    // Runs as main program.
+    public static void main(String[] args) throws IOException
+    {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        int epochs = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+        Path output = Path.of(args.length > 2 ? args[2] : "src/MVP/Resources/patterns.bin");
+
+        // Positions: evaluated player's pieces, opponent's (to move) pieces, final disc differential.
+        int capacity = games * 60 * Symmetry.SYMMETRIES;
+        long[] players = new long[capacity];
+        long[] opponents = new long[capacity];
+        byte[] labels = new byte[capacity];
+        int count = 0;
+
+        long start = System.nanoTime();
+        EndgameSolver solver = new EndgameSolver();
+        solver.setTranspositionTable(new TranspositionTable(16));
+
+        for (int game = 0; game < games; game++)
+        {
+            count = playGame(new Random(game), solver, players, opponents, labels, count);
+        }
+
+        System.out.printf("%d games, %d positions in %.1f s%n", games, count, (System.nanoTime() - start) / 1e9);
+
+        short[][] weights = fit(players, opponents, labels, count, epochs);
+
+        Files.createDirectories(output.getParent());
+        try (OutputStream stream = Files.newOutputStream(output))
+        {
+            PatternEvaluate.write(stream, weights);
+        }
+
+        System.out.printf("Weights written to %s (%d bytes)%n", output, Files.size(output));
+    }
+
+
+    /**
+     * Plays a single game, recording its positions (only those whose opponent has a move, as
+     * the evaluation expects the opponent to move) and labelling them by the final result.
+     *
+     * @return The new amount of recorded positions.
+     */
+    private static int playGame(Random random, EndgameSolver solver,
+                                long[] players, long[] opponents, byte[] labels, int count)
+    {
+        long player = 0x0000000810000000L;    // BLACK to move.
+        long opponent = 0x0000001008000000L;
+        boolean blackToMove = true;
+
+        int first = count;
+
+        for (int ply = 0; ; ply++)
+        {
+            long moves = MoveGenerator.availableMoves(player, opponent);
+
+            if (moves == 0L)
+            {
+                if (MoveGenerator.availableMoves(opponent, player) == 0L) break;
+
+                long swap = player;
+                player = opponent;
+                opponent = swap;
+                blackToMove = !blackToMove;
+                continue;
+            }
+
+            long position;
+
+            if (Long.bitCount(~(player | opponent)) <= SOLVE_EMPTIES)
+            {
+                Move solved = new Move(0, 0);
+                solver.solveRoot(player, opponent, false, solved);
+                position = BitBoard.bitPosition(solved);
+            }
+            else if (ply < RANDOM_PLIES || random.nextDouble() < RANDOM_MOVE_RATE)
+            {
+                for (int skip = random.nextInt(Long.bitCount(moves)); skip > 0; skip--) moves &= moves - 1;
+                position = Long.lowestOneBit(moves);
+            }
+            else
+            {
+                position = fastestFirstMove(player, opponent, moves);
+            }
+
+            long flips = MoveGenerator.computeFlips(player, opponent, position);
+            long moved = player ^ (flips | position);
+            long other = opponent ^ flips;
+
+            // Stored as (moved player, player to move) in all 8 symmetries, so the symmetric
+            // places of a pattern learn alike. Signed by BLACK's point of view for now.
+            if (MoveGenerator.availableMoves(other, moved) != 0L)
+            {
+                for (int symmetry = 0; symmetry < Symmetry.SYMMETRIES; symmetry++)
+                {
+                    players[count] = Symmetry.transform(moved, symmetry);
+                    opponents[count] = Symmetry.transform(other, symmetry);
+                    labels[count] = (byte) (blackToMove ? 1 : -1);
+                    count++;
+                }
+            }
+
+            player = other;
+            opponent = moved;
+            blackToMove = !blackToMove;
+        }
+
+        // Final disc differential from BLACK's point of view (empty slots go to the winner).
+        long black = blackToMove ? player : opponent;
+        long white = blackToMove ? opponent : player;
+        int differential = Long.bitCount(black) - Long.bitCount(white);
+        int emptySlots = Long.bitCount(~(black | white));
+        if (differential != 0) differential += Integer.signum(differential) * emptySlots;
+
+        for (int i = first; i < count; i++) labels[i] = (byte) (labels[i] * differential);
+
+        return count;
+    }
+
+
+    /**
+     * @return The move leaving the fewest replies to the opponent (corners first).
+     */
+    private static long fastestFirstMove(long player, long opponent, long moves)
+    {
+        long corners = moves & 0x8100000000000081L;
+        if (corners != 0L) return Long.lowestOneBit(corners);
+
+        long best = 0L;
+        int fewest = Integer.MAX_VALUE;
+
+        for (; moves != 0L; moves &= moves - 1)
+        {
+            long position = Long.lowestOneBit(moves);
+            long flips = MoveGenerator.computeFlips(player, opponent, position);
+            int replies = Long.bitCount(MoveGenerator.availableMoves(opponent ^ flips, player ^ (flips | position)));
+
+            if (replies < fewest)
+            {
+                fewest = replies;
+                best = position;
+            }
+        }
+
+        return best;
+    }
+
+
+    /**
+     * Fits the weights to the labelled positions by least-squares batch gradient descent.
+     *
+     * @return The fitted weights (rounded to 'PatternEvaluate' units).
+     */
+    private static short[][] fit(long[] players, long[] opponents, byte[] labels, int count, int epochs)
+    {
+        int phases = PatternEvaluate.PHASES;
+        int size = PatternEvaluate.PHASE_WEIGHTS;
+        int mobility = PatternEvaluate.MOBILITY;
+        int bias = PatternEvaluate.BIAS;
+
+        double[][] weights = new double[phases][size];
+        double[][] gradients = new double[phases][size];
+        double[][] occurrences = new double[phases][size];
+        int[] indexes = new int[PatternEvaluate.PATTERN_PLACES];
+
+        // Occurrences (the mobility weight's by its squared feature value).
+        for (int i = 0; i < count; i++)
+        {
+            int phase = PatternEvaluate.features(players[i], opponents[i], indexes);
+            for (int index : indexes) occurrences[phase][index]++;
+
+            int mobilityDifference = mobilityDifference(players[i], opponents[i]);
+            occurrences[phase][mobility] += mobilityDifference * mobilityDifference;
+            occurrences[phase][bias]++;
+        }
+
+        for (int epoch = 1; epoch <= epochs; epoch++)
+        {
+            double squaredError = 0;
+
+            for (int i = 0; i < count; i++)
+            {
+                int phase = PatternEvaluate.features(players[i], opponents[i], indexes);
+                double[] phaseWeights = weights[phase];
+                double[] phaseGradients = gradients[phase];
+                int mobilityDifference = mobilityDifference(players[i], opponents[i]);
+
+                double predicted = phaseWeights[bias] + phaseWeights[mobility] * mobilityDifference;
+                for (int index : indexes) predicted += phaseWeights[index];
+
+                double error = labels[i] * PatternEvaluate.UNITS_PER_DISC - predicted;
+                squaredError += error * error;
+
+                for (int index : indexes) phaseGradients[index] += error;
+                phaseGradients[mobility] += error * mobilityDifference;
+                phaseGradients[bias] += error;
+            }
+
+            for (int phase = 0; phase < phases; phase++)
+            {
+                for (int index = 0; index < size; index++)
+                {
+                    if (occurrences[phase][index] > 0)
+                    {
+                        weights[phase][index] += LEARNING_RATE * gradients[phase][index]
+                                / Math.max(occurrences[phase][index], MIN_OCCURRENCES);
+                    }
+                    gradients[phase][index] = 0;
+                }
+            }
+
+            if (epoch % 10 == 0 || epoch == epochs)
+            {
+                System.out.printf("epoch %d: RMS error %.2f discs%n",
+                        epoch, Math.sqrt(squaredError / count) / PatternEvaluate.UNITS_PER_DISC);
+            }
+        }
+
+        short[][] rounded = new short[phases][size];
+        for (int phase = 0; phase < phases; phase++)
+        {
+            for (int index = 0; index < size; index++)
+            {
+                rounded[phase][index] = (short) Math.max(Short.MIN_VALUE,
+                        Math.min(Short.MAX_VALUE, Math.round(weights[phase][index])));
+            }
+        }
+
+        return rounded;
+    }
+
+
+    /**
+     * @return The evaluated player's available moves minus the opponent's.
+     */
+    private static int mobilityDifference(long player, long opponent)
+    {
+        return Long.bitCount(MoveGenerator.availableMoves(player, opponent))
+                - Long.bitCount(MoveGenerator.availableMoves(opponent, player));
+    }
+}
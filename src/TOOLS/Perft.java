@@ -0,0 +1,256 @@
+package TOOLS;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import BIT_MANAGEMENT.BitBoard;
+import BIT_MANAGEMENT.Symmetry;
+import BIT_MANAGEMENT.Zobrist;
+import MVP.Enums.Player;
+import MVP.Model;
+
+import static MVP.Enums.Player.*;
+
+
+/**
+ * <h1>Class type: 'Perft'</h1>
+ *
+ * Move generation test and benchmark: counts the leaf positions of the full game-tree of a position
+ * to a fixed depth, through 'Model' itself (<u>availableMoves</u>, <u>makeMove</u> / <u>unmakeMove</u>,
+ * as the game-tree search plays), and reports the count and the nodes per second.
+ *
+ * Passes and game ends are handled as <u>Presenter.playerTurn</u> does (a player without moves is
+ * SKIPPED, the game ENDED when neither player has moves), counted as the published Othello perft
+ * counts do: a skipped turn takes a ply, and an ended game is a leaf whatever the depth left.
+ * From the starting position, the counts are checked against the published ones.
+ *
+ * Modes:
+ * - <b>threads</b> &gt; 1: the first plies' subtrees are split between the threads of a 'ForkJoinPool'.
+ * - <b>hash</b> &gt; 0: subtree counts are stored in a hash table (by position, player to move and depth),
+ *   so transposed positions are counted once - and so are symmetric positions ('Symmetry' canonical pair).
+ *
+ * Usage: <i>Perft [depth] [threads] [hash MB] ["board player"]</i>
+ * (depth 11, 1 thread, no hash, the starting position by default - the position in the
+ * 'EndgameBenchmark' text format).
+ *
+ * @author David Salasin
+ */
+public class Perft
+{
+    /**
+     * Published perft counts of the starting position, by depth.
+     */
+    private static final long[] PUBLISHED = {
+            1L, 4L, 12L, 56L, 244L, 1396L, 8200L, 55092L, 390216L, 3005288L, 24571284L,
+            212258800L, 1939886636L, 18429641748L, 184042084512L
+    };
+
+
+    /**
+     * Plies from the root split into parallel tasks (deeper subtrees are counted serially).
+     */
+    private static final int SPLIT_PLIES = 3;
+
+
+    /**
+     * Minimum depth left for storing / probing the hash table (shallower subtrees are cheaper to count).
+     */
+    private static final int HASH_MIN_DEPTH = 3;
+
+
+    // Starting position:
+    private static final long FIRST_BITS_BLACK = 0x0000000810000000L;
+    private static final long FIRST_BITS_WHITE = 0x0000001008000000L;
+
+
+    /**
+     * A 'Model' per thread, its board set to every counted subtree's root.
+     */
+    private static final ThreadLocal<Model> models = ThreadLocal.withInitial(Model::new);
+
+
+    // Hash table (lockless: a key is stored XOR its count, so a torn entry never matches):
+    private static long[] hashKeys;
+    private static long[] hashCounts;
+    private static int hashMask;
+
+
+    // Runs as main program.
+    public static void main(String[] args)
+    {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 11;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        int hashMegabytes = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+
+        long[] position = args.length > 3 ? EndgameBenchmark.parse(args[3]) : new long[] {FIRST_BITS_BLACK, FIRST_BITS_WHITE, 0};
+        boolean startingPosition = args.length <= 3;
+        Player toMove = position[2] == 0 ? BLACK : WHITE;
+
+        if (hashMegabytes > 0)
+        {
+            int entries = Integer.highestOneBit((int) Math.min(1 << 30, (long) hashMegabytes * (1 << 20) / 16));
+            hashKeys = new long[entries];
+            hashCounts = new long[entries];
+            hashMask = entries - 1;
+        }
+
+        ForkJoinPool pool = threads > 1 ? new ForkJoinPool(threads) : null;
+
+        System.out.printf("Perft | %d thread(s) | hash %d MB%n", threads, hashMegabytes);
+
+        for (int d = 1; d <= depth; d++)
+        {
+            long start = System.nanoTime();
+            long leaves = pool != null
+                    ? pool.invoke(new PerftTask(position[0], position[1], toMove, d, Math.min(SPLIT_PLIES, d - 1)))
+                    : count(position[0], position[1], toMove, d);
+            long time = System.nanoTime() - start;
+
+            String check = !startingPosition || d >= PUBLISHED.length ? ""
+                    : leaves == PUBLISHED[d] ? "  OK" : "  MISMATCH (published " + PUBLISHED[d] + ")";
+
+            System.out.printf("depth %2d  %,18d leaves  %9.3f s  %8.2f Mn/s%s%n",
+                    d, leaves, time / 1e9, leaves / (time / 1e3), check);
+        }
+
+        if (pool != null) pool.shutdown();
+    }
+
+
+    /**
+     * Counts a subtree serially, on the thread's 'Model'.
+     *
+     * @return long leaf count.
+     */
+    private static long count(long blackBits, long whiteBits, Player toMove, int depth)
+    {
+        Model model = models.get();
+        model.getBoard().setColorBits(BLACK, blackBits);
+        model.getBoard().setColorBits(WHITE, whiteBits);
+
+        return perft(model, toMove, depth);
+    }
+
+
+    /**
+     * Counts the leaves of the game-tree of the model's position.
+     *
+     * @param model 'Model' of the position (restored when the count returns).
+     * @param currentPlayer The player to move.
+     * @param depth Plies left.
+     * @return long leaf count.
+     */
+    private static long perft(Model model, Player currentPlayer, int depth)
+    {
+        if (depth == 0) return 1;
+
+        Player currentOpponent = Player.currentOpponent(currentPlayer);
+        long moves = model.availableMoves(currentPlayer);
+
+        // SKIPPED turn (takes a ply), or an ENDED game (a leaf).
+        if (moves == 0L)
+        {
+            if (model.isOutOfMoves(currentOpponent)) return 1;
+            return perft(model, currentOpponent, depth - 1);
+        }
+
+        // Bulk count: the last ply's leaves are the available moves.
+        if (depth == 1) return Long.bitCount(moves);
+
+        long key = 0L;
+        if (hashKeys != null && depth >= HASH_MIN_DEPTH)
+        {
+            // Symmetric positions have the same counts: keyed by the canonical pair.
+            BitBoard board = model.getBoard();
+            long[] pieces = {board.getColorBits(BLACK), board.getColorBits(WHITE)};
+            Symmetry.canonicalize(pieces);
+
+            key = Zobrist.hash(pieces[0], pieces[1], currentPlayer) + depth;
+            int index = (int) key & hashMask;
+            long stored = hashCounts[index];
+
+            if ((hashKeys[index] ^ stored) == key) return stored;
+        }
+
+        long leaves = 0;
+
+        for (; moves != 0L; moves &= moves - 1)
+        {
+            long position = Long.lowestOneBit(moves);
+
+            model.makeMove(currentPlayer, position);
+            leaves += perft(model, currentOpponent, depth - 1);
+            model.unmakeMove(currentPlayer);
+        }
+
+        if (key != 0L)
+        {
+            int index = (int) key & hashMask;
+            hashCounts[index] = leaves;
+            hashKeys[index] = key ^ leaves;
+        }
+
+        return leaves;
+    }
+
+
+    /**
+     * Parallel count: splits a subtree into a task per move for its first plies, then counts
+     * every split subtree serially.
+     */
+    private static class PerftTask extends RecursiveTask<Long>
+    {
+        private static final long serialVersionUID = 1L;
+
+
+        private final long blackBits;
+        private final long whiteBits;
+        private final Player toMove;
+        private final int depth;
+        private final int splitPlies;
+
+
+        PerftTask(long blackBits, long whiteBits, Player toMove, int depth, int splitPlies)
+        {
+            this.blackBits = blackBits;
+            this.whiteBits = whiteBits;
+            this.toMove = toMove;
+            this.depth = depth;
+            this.splitPlies = splitPlies;
+        }
+
+
+        @Override
+        protected Long compute()
+        {
+            if (splitPlies <= 0) return count(blackBits, whiteBits, toMove, depth);
+
+            Model model = models.get();
+            model.getBoard().setColorBits(BLACK, blackBits);
+            model.getBoard().setColorBits(WHITE, whiteBits);
+
+            Player opponent = Player.currentOpponent(toMove);
+            long moves = model.availableMoves(toMove);
+
+            // Passes / ended games aren't split.
+            if (moves == 0L) return perft(model, toMove, depth);
+
+            List<PerftTask> tasks = new ArrayList<>();
+
+            for (; moves != 0L; moves &= moves - 1)
+            {
+                model.makeMove(toMove, Long.lowestOneBit(moves));
+                tasks.add(new PerftTask(model.getBoard().getColorBits(BLACK), model.getBoard().getColorBits(WHITE),
+                        opponent, depth - 1, splitPlies - 1));
+                model.unmakeMove(toMove);
+            }
+
+            long leaves = 0;
+            for (PerftTask task : invokeAll(tasks)) leaves += task.join();
+
+            return leaves;
+        }
+    }
+}
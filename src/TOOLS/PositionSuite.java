@@ -0,0 +1,57 @@
+package TOOLS;
+
+import MVP.Enums.Player;
+import MVP.Model;
+
+import static MVP.Enums.Player.*;
+
+
+/**
+ * <h1>Class type: 'PositionSuite'</h1>
+ *
+ * Fixed suite of recorded midgame positions (20 - 41 discs), used by the measuring tools
+ * so that their results are comparable between runs and engine versions.
+ *
+ * @author David Salasin
+ */
+public class PositionSuite
+{
+    /**
+     * Recorded positions: BLACK pieces, WHITE pieces, player to move (0 BLACK / 1 WHITE).
+     */
+    private static final long[][] POSITIONS = {
+            {0x0000001606040600L, 0x4020702818080808L, 0},   // 20 discs, BLACK to move
+            {0x0000117A34181000L, 0x201048040B204000L, 1},   // 23 discs, WHITE to move
+            {0x1000D40604020100L, 0x0A5A2A5818240000L, 0},   // 26 discs, BLACK to move
+            {0x20101F20381C2C02L, 0x104C201F02000000L, 1},   // 29 discs, WHITE to move
+            {0x004062E028342440L, 0x0808081F17031810L, 0},   // 32 discs, BLACK to move
+            {0x407C191A1E1F1A10L, 0x0000206060604108L, 1},   // 35 discs, WHITE to move
+            {0x081C1C3810000400L, 0x024123462F3A78B8L, 0},   // 38 discs, BLACK to move
+            {0xFA5D2A34A8502008L, 0x0000150B162C4870L, 1}    // 41 discs, WHITE to move
+    };
+
+
+    /**
+     * @return Amount of positions in the suite.
+     */
+    public static int size()
+    {
+        return POSITIONS.length;
+    }
+
+
+    /**
+     * Sets a 'Model' board to a suite position.
+     *
+     * @param model 'Model' instance (already initiated to its game mode).
+     * @param index Position's index in the suite.
+     * @return The player to move in the position.
+     */
+    public static Player load(Model model, int index)
+    {
+        model.getBoard().setColorBits(BLACK, POSITIONS[index][0]);
+        model.getBoard().setColorBits(WHITE, POSITIONS[index][1]);
+
+        return POSITIONS[index][2] == 0 ? BLACK : WHITE;
+    }
+}
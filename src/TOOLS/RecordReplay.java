@@ -0,0 +1,197 @@
+package TOOLS;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import BIT_MANAGEMENT.MoveGenerator;
+import MVP.Enums.GameMode;
+import MVP.Model;
+import RECORDS.GameRecord;
+import RECORDS.GameRecordReader;
+import RECORDS.GameRecordWriter;
+
+
+/**
+ * <h1>Class type: 'RecordReplay'</h1>
+ *
+ * Streams the game records of a directory (see 'GameRecordWriter') and replays every game through
+ * <u>Model.replay</u>: first verifying every record's checksum, every move's legality and the final
+ * discs, then again without verifying - reporting games and moves per second of both.
+ *
+ * A game's moves are replayed one after the other, so the segment files are spread over threads
+ * (each with its own reader and 'Model') for replaying more games per second.
+ *
+ * When asked to, random games are appended to the directory first (e.g. for measuring an empty directory).
+ *
+ * Usage: <i>RecordReplay [records directory] [random games to append] [threads]</i>
+ * (<i>records</i>, none, a thread per core by default).
+ *
+ * @author David Salasin
+ * @see GameRecord
+ */
+public class RecordReplay
+{
+    // Runs as main program.
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException
+    {
+        Path directory = Path.of(args.length > 0 ? args[0] : "records");
+        int randomGames = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        if (randomGames > 0)
+        {
+            long start = System.nanoTime();
+            writeRandomGames(directory, randomGames, new Random(randomGames));
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("Wrote %,d random games in %.2f s (%,.0f games/s)%n", randomGames, seconds, randomGames / seconds);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try
+        {
+            replay(directory, true, executor, threads);
+            replay(directory, false, executor, threads);
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+
+    /**
+     * Replays every record of the directory, the segments spread over the threads, reporting the
+     * throughput (and the failed games, when verified).
+     */
+    private static void replay(Path directory, boolean verify, ExecutorService executor, int threads)
+            throws IOException, InterruptedException, ExecutionException
+    {
+        List<Path> segments = GameRecordWriter.segments(directory);
+        List<Callable<long[]>> tasks = new ArrayList<>();
+
+        for (int thread = 0; thread < Math.min(threads, segments.size()); thread++)
+        {
+            List<Path> threadSegments = new ArrayList<>();
+            for (int i = thread; i < segments.size(); i += threads) threadSegments.add(segments.get(i));
+
+            tasks.add(() -> replay(threadSegments, verify));
+        }
+
+        long start = System.nanoTime();
+        long[] totals = new long[4];
+
+        for (Future<long[]> result : executor.invokeAll(tasks))
+        {
+            long[] counts = result.get();
+            for (int i = 0; i < totals.length; i++) totals[i] += counts[i];
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%s: %,d games, %,d moves in %.2f s (%,.0f games/s, %,.0f moves/s) on %d thread(s)",
+                verify ? "Verified replay" : "Replay", totals[0], totals[1], seconds, totals[0] / seconds,
+                totals[1] / seconds, tasks.size());
+
+        if (verify) System.out.printf(" | %,d failed, %d torn tails", totals[2], totals[3]);
+        System.out.println();
+    }
+
+
+    /**
+     * Replays every record of the segments.
+     *
+     * @return long[] counts of the games, moves, failed games and torn tails.
+     */
+    private static long[] replay(List<Path> segments, boolean verify) throws IOException
+    {
+        Model model = new Model();
+        GameRecord record = new GameRecord();
+        long[] counts = new long[4];
+
+        try (GameRecordReader reader = new GameRecordReader(segments, verify))
+        {
+            while (reader.next(record))
+            {
+                if (!record.replay(model, verify)) counts[2]++;
+
+                counts[0]++;
+                counts[1] += record.moveCount;
+            }
+
+            counts[3] = reader.getTornTails();
+        }
+
+        return counts;
+    }
+
+
+    /**
+     * Appends random games (both players playing random legal moves) to the directory.
+     */
+    private static void writeRandomGames(Path directory, int games, Random random) throws IOException
+    {
+        GameMode[] gameModes = GameMode.values();
+        GameRecord record = new GameRecord();
+
+        try (GameRecordWriter writer = new GameRecordWriter(directory, GameRecordWriter.DEFAULT_SEGMENT_BYTES))
+        {
+            for (int game = 0; game < games; game++)
+            {
+                record.start(gameModes[random.nextInt(gameModes.length)], System.currentTimeMillis());
+
+                long playerPieces = 0x0000000810000000L;
+                long opponentPieces = 0x0000001008000000L;
+                boolean passed = false;
+
+                while (true)
+                {
+                    long moves = MoveGenerator.availableMoves(playerPieces, opponentPieces);
+
+                    if (moves == 0L)
+                    {
+                        // Both players have passed: the game has ended.
+                        if (passed) break;
+
+                        passed = true;
+                        record.addSlot(GameRecord.PASS);
+                    }
+                    else
+                    {
+                        passed = false;
+                        for (int skip = random.nextInt(Long.bitCount(moves)); skip > 0; skip--) moves &= moves - 1;
+
+                        long position = Long.lowestOneBit(moves);
+                        long flips = MoveGenerator.computeFlips(playerPieces, opponentPieces, position);
+
+                        playerPieces |= flips | position;
+                        opponentPieces &= ~flips;
+                        record.addSlot(Long.numberOfTrailingZeros(position));
+                    }
+
+                    long swap = playerPieces;
+                    playerPieces = opponentPieces;
+                    opponentPieces = swap;
+                }
+
+                // The last pass isn't recorded (the game ends without it).
+                record.moveCount--;
+
+                // BLACK moves first, so BLACK is to move after an even amount of moves.
+                boolean blackToMove = (record.moveCount & 1) == 0;
+                record.blackDiscs = Long.bitCount(blackToMove ? opponentPieces : playerPieces);
+                record.whiteDiscs = Long.bitCount(blackToMove ? playerPieces : opponentPieces);
+                record.duration = random.nextInt(600_000);
+
+                writer.append(record);
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package TOOLS;
+
+import INFORMATION_ENCAPSULATION.Move;
+import MVP.Enums.GameMode;
+import MVP.Enums.Player;
+import MVP.Model;
+import SEARCH.SearchStatistics;
+
+
+/**
+ * <h1>Class type: 'SearchReport'</h1>
+ *
+ * Prints the search statistics of the AI's move in every 'PositionSuite' position: nodes, leaf
+ * evaluations, cutoffs, transposition table hits, depth reached, branching factor, and the
+ * nodes and time of every iteration - and their totals over the suite.
+ *
+ * Must run with <i>-Dreversi.searchStatistics=true</i> (the searches aren't counted otherwise).
+ *
+ * Usage: <i>SearchReport [GameMode] [time budget ms]</i>
+ * (HARDCORE, the game mode's own budget by default - 0 for its fixed depth).
+ *
+ * @author David Salasin
+ * @see SearchStatistics
+ */
+public class SearchReport
+{
+    // Runs as main program.
+    public static void main(String[] args)
+    {
+        if (!SearchStatistics.ENABLED)
+        {
+            System.err.println("Search statistics are off: run with -Dreversi.searchStatistics=true");
+            System.exit(1);
+        }
+
+        GameMode gameMode = args.length > 0 ? GameMode.valueOf(args[0]) : GameMode.HARDCORE;
+        long timeBudget = args.length > 1 ? Long.parseLong(args[1]) : gameMode.timeBudget;
+
+        Model model = new Model();
+        model.setOpeningBook(null);
+
+        long nodes = 0;
+        long leaves = 0;
+        long time = 0;
+
+        for (int i = 0; i < PositionSuite.size(); i++)
+        {
+            model.init(gameMode);
+            model.setOpeningBook(null);
+            model.setTimeBudget(timeBudget);
+            Player toMove = PositionSuite.load(model, i);
+
+            long start = System.nanoTime();
+            Move move = model.mostEvaluatedPlay(toMove);
+            time += System.nanoTime() - start;
+
+            SearchStatistics statistics = move.statistics;
+            nodes += statistics.getNodes();
+            leaves += statistics.getLeafEvaluations();
+
+            System.out.printf("Position %d (%s, score %d):%n%s%n%n", i, toMove, move.score, statistics);
+        }
+
+        System.out.printf("Total: %,d nodes, %,d leaves in %.2f s (%,.0f nodes/s)%n",
+                nodes, leaves, time / 1e9, nodes / (time / 1e9));
+    }
+}
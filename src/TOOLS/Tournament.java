@@ -0,0 +1,568 @@
+package TOOLS;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import BIT_MANAGEMENT.MoveGenerator;
+import INFORMATION_ENCAPSULATION.Move;
+import MVP.Enums.GameMode;
+import MVP.Enums.GameStatus;
+import MVP.Enums.Player;
+import MVP.Evaluate;
+import MVP.Interfaces.IEvaluate;
+import MVP.Model;
+import MVP.PatternEvaluate;
+
+import static MVP.Enums.Player.*;
+
+
+/**
+ * <h1>Class type: 'Tournament'</h1>
+ *
+ * Headless self-play match between two engine configurations, for telling whether an engine
+ * change is an improvement: games are played on a fixed pool of worker threads (one per core
+ * by default, each with its own pair of 'Model' instances), in pairs from balanced openings
+ * with the colours swapped, and the match is reported as Elo with its 95% error bars and a
+ * sequential probability ratio test (SPRT), which stops the match once it is decided.
+ *
+ * An engine is configured as <i>GameMode[:key=value...]</i>, the keys overriding the game mode's:
+ * - <b>depth</b>: fixed search depth.
+ * - <b>time</b>: time budget per move (ms, 0 for the fixed depth).
+ * - <b>endgame</b>: empty slots solved exactly (0 for never).
+ * - <b>eval</b>: heuristic, a game mode's (e.g. INTERMEDIATE), <i>patterns</i> for the pattern heuristic,
+ *   <i>innerDisks</i> for the inner disks heuristic, or a 'PatternEvaluate' weights file.
+ * - <b>tt</b>: transposition table size (MB).
+ * e.g. <i>HARDCORE:depth=5 HARDCORE:depth=5:eval=innerDisks</i>.
+ *
+ * The SPRT tests H0: Elo = elo0 against H1: Elo = elo1 (error rates 5% / 5%), by the generalised
+ * SPRT on the pair scores (pentanomial: 0, 0.5, 1, 1.5 or 2 points per pair), which accounts for
+ * the two games of a pair being played from the same opening.
+ *
+ * Usage: <i>Tournament engineA engineB [pairs] [threads] [elo0] [elo1]</i>
+ * (1000 pairs, a thread per core, elo0 0, elo1 5 by default).
+ *
+ * @author David Salasin
+ */
+public class Tournament
+{
+    /**
+     * Random plies of an opening.
+     */
+    private static final int OPENING_PLIES = 6;
+
+
+    /**
+     * Maximum evaluation (discs) of a balanced opening, from the point of view of the player to move.
+     */
+    private static final int OPENING_BALANCE = 3;
+
+
+    /**
+     * Search depth of the openings' evaluation.
+     */
+    private static final int OPENING_DEPTH = 6;
+
+
+    /**
+     * SPRT error rates (a false positive / a false negative).
+     */
+    private static final double ALPHA = 0.05;
+    private static final double BETA = 0.05;
+
+
+    /**
+     * Pairs played before the SPRT may stop the match (a one-sided start decides it too early otherwise).
+     */
+    private static final int MIN_SPRT_PAIRS = 20;
+
+
+    /**
+     * Default transposition table size of an engine (MB), as every worker thread holds two engines.
+     */
+    private static final int DEFAULT_TABLE_MB = 16;
+
+
+    /**
+     * Pairs between progress reports.
+     */
+    private static final int REPORT_EVERY = 20;
+
+
+    // Starting position:
+    private static final long FIRST_BITS_BLACK = 0x0000000810000000L;
+    private static final long FIRST_BITS_WHITE = 0x0000001008000000L;
+
+
+    /**
+     * Flag for the match has been decided: pairs which haven't started yet are skipped.
+     */
+    private static volatile boolean decided;
+
+
+    // Runs as main program.
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException
+    {
+        if (args.length < 2)
+        {
+            System.err.println("Usage: Tournament engineA engineB [pairs] [threads] [elo0] [elo1]");
+            System.exit(2);
+        }
+
+        Engine engineA = Engine.parse(args[0]);
+        Engine engineB = Engine.parse(args[1]);
+        int pairs = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        double elo0 = args.length > 4 ? Double.parseDouble(args[4]) : 0;
+        double elo1 = args.length > 5 ? Double.parseDouble(args[5]) : 5;
+
+        List<long[]> openings = balancedOpenings(pairs);
+
+        System.out.printf("%s vs %s | %d pairs, %d openings | %d threads | SPRT elo0 %.1f elo1 %.1f%n",
+                args[0], args[1], pairs, openings.size(), threads, elo0, elo1);
+
+        // Every worker thread plays with its own pair of engines (reused from game to game).
+        ThreadLocal<Model[]> engines = ThreadLocal.withInitial(() -> new Model[] {engineA.create(), engineB.create()});
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CompletionService<int[]> results = new ExecutorCompletionService<>(pool);
+
+        for (int pair = 0; pair < pairs; pair++)
+        {
+            long[] opening = openings.get(pair % openings.size());
+
+            results.submit(() -> {
+                if (decided) return null;
+
+                Model[] models = engines.get();
+
+                // A's disc differential, playing BLACK then WHITE.
+                int first = playGame(models[0], engineA, models[1], engineB, opening);
+                int second = -playGame(models[1], engineB, models[0], engineA, opening);
+
+                return new int[] {first, second};
+            });
+        }
+
+        Score score = new Score();
+        long start = System.nanoTime();
+
+        for (int pair = 0; pair < pairs && !decided; pair++)
+        {
+            int[] result = results.take().get();
+            if (result == null) continue;
+
+            score.add(result[0], result[1]);
+
+            double llr = score.llr(elo0, elo1);
+            decided = score.pairs >= MIN_SPRT_PAIRS && (llr <= Score.lowerBound() || llr >= Score.upperBound());
+
+            if (decided || score.pairs % REPORT_EVERY == 0 || score.pairs == pairs)
+            {
+                System.out.printf("%s | %.0f s%n", score.report(elo0, elo1), (System.nanoTime() - start) / 1e9);
+            }
+        }
+
+        pool.shutdownNow();
+        pool.awaitTermination(1, TimeUnit.HOURS);
+
+        double llr = score.llr(elo0, elo1);
+        String verdict = llr >= Score.upperBound() ? "H1 accepted (PASS)"
+                : llr <= Score.lowerBound() ? "H0 accepted (FAIL)" : "inconclusive";
+
+        System.out.printf("%nFinal: %s%nSPRT: %s%n", score.report(elo0, elo1), verdict);
+    }
+
+
+    /**
+     * Plays a single game from an opening, the way <u>Presenter.playerTurn</u> does: a player
+     * without moves is skipped, and the game ends when neither player has moves.
+     *
+     * @return BLACK's final disc differential.
+     */
+    private static int playGame(Model black, Engine blackEngine, Model white, Engine whiteEngine, long[] opening)
+    {
+        blackEngine.setUp(black);
+        whiteEngine.setUp(white);
+
+        long blackBits = opening[0];
+        long whiteBits = opening[1];
+        Player currentPlayer = opening[2] == 0 ? BLACK : WHITE;
+
+        while (true)
+        {
+            Model mover = currentPlayer == BLACK ? black : white;
+            mover.getBoard().setColorBits(BLACK, blackBits);
+            mover.getBoard().setColorBits(WHITE, whiteBits);
+
+            if (mover.isFinished()) break;
+
+            // SKIPPED turn.
+            if (mover.isOutOfMoves(currentPlayer))
+            {
+                currentPlayer = Player.currentOpponent(currentPlayer);
+                continue;
+            }
+
+            Move move = mover.mostEvaluatedPlay(currentPlayer);
+
+            if (mover.playMove(currentPlayer, move) != GameStatus.SUCCESSFUL)
+            {
+                throw new IllegalStateException("Illegal engine move: " + move.y_position + ", " + move.x_position);
+            }
+
+            blackBits = mover.getBoard().getColorBits(BLACK);
+            whiteBits = mover.getBoard().getColorBits(WHITE);
+            currentPlayer = Player.currentOpponent(currentPlayer);
+        }
+
+        return Long.bitCount(blackBits) - Long.bitCount(whiteBits);
+    }
+
+
+    /**
+     * Generates distinct openings of random plies, keeping those evaluated as balanced
+     * (a pattern heuristic search within <u>OPENING_BALANCE</u> discs). The same openings on every run.
+     *
+     * @param amount Wanted amount of openings (fewer are returned if there aren't enough).
+     * @return List of openings: BLACK pieces, WHITE pieces, player to move (0 for BLACK).
+     */
+    private static List<long[]> balancedOpenings(int amount)
+    {
+        Random random = new Random(OPENING_PLIES);
+        Model model = new Model();
+        model.init(GameMode.HARDCORE);
+        model.setOpeningBook(null);
+        model.setTimeBudget(0);
+        model.setEndgameEmpties(0);
+        model.setSearchDepth(OPENING_DEPTH);
+        model.setTranspositionTableSize(DEFAULT_TABLE_MB);
+        if (Evaluate.patternHeuristic != null) model.setHeuristic(Evaluate.patternHeuristic);
+
+        List<long[]> openings = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+
+        for (int attempt = 0; attempt < amount * 20 && openings.size() < amount; attempt++)
+        {
+            long player = FIRST_BITS_BLACK;
+            long opponent = FIRST_BITS_WHITE;
+
+            for (int ply = 0; ply < OPENING_PLIES; ply++)
+            {
+                long moves = MoveGenerator.availableMoves(player, opponent);
+                for (int skip = random.nextInt(Long.bitCount(moves)); skip > 0; skip--) moves &= moves - 1;
+
+                long position = Long.lowestOneBit(moves);
+                long flips = MoveGenerator.computeFlips(player, opponent, position);
+
+                long moved = player ^ (flips | position);
+                player = opponent ^ flips;
+                opponent = moved;
+            }
+
+            // An even amount of plies: BLACK to move.
+            if (!seen.add(player * 0x9E3779B97F4A7C15L ^ opponent)) continue;
+
+            model.getBoard().setColorBits(BLACK, player);
+            model.getBoard().setColorBits(WHITE, opponent);
+
+            if (Math.abs(model.mostEvaluatedPlay(BLACK).score) <= OPENING_BALANCE * PatternEvaluate.UNITS_PER_DISC)
+            {
+                openings.add(new long[] {player, opponent, 0});
+            }
+        }
+
+        return openings;
+    }
+
+
+    /**
+     * Configuration of an engine: a game mode, and the settings overriding its defaults.
+     */
+    private static class Engine
+    {
+        private final GameMode gameMode;
+        private final int depth;
+        private final long timeBudget;
+        private final int endgameEmpties;
+        private final IEvaluate heuristic;
+        private final int tableMegabytes;
+
+
+        private Engine(GameMode gameMode, int depth, long timeBudget, int endgameEmpties,
+                       IEvaluate heuristic, int tableMegabytes)
+        {
+            this.gameMode = gameMode;
+            this.depth = depth;
+            this.timeBudget = timeBudget;
+            this.endgameEmpties = endgameEmpties;
+            this.heuristic = heuristic;
+            this.tableMegabytes = tableMegabytes;
+        }
+
+
+        /**
+         * Parses an engine's configuration: <i>GameMode[:key=value...]</i>.
+         *
+         * @return 'Engine' instance.
+         */
+        static Engine parse(String text) throws IOException
+        {
+            String[] parts = text.split(":");
+            GameMode gameMode = GameMode.valueOf(parts[0].toUpperCase());
+
+            if (gameMode == GameMode.PVP) throw new IllegalArgumentException("PVP isn't an engine.");
+
+            int depth = gameMode.depth;
+            long timeBudget = gameMode.timeBudget;
+            int endgameEmpties = gameMode.endgameEmpties;
+            IEvaluate heuristic = Evaluate.heuristicDic.get(gameMode);
+            int tableMegabytes = DEFAULT_TABLE_MB;
+
+            for (int i = 1; i < parts.length; i++)
+            {
+                String[] setting = parts[i].split("=", 2);
+                if (setting.length != 2) throw new IllegalArgumentException("Bad engine setting: " + parts[i]);
+
+                switch (setting[0])
+                {
+                    case "depth": depth = Integer.parseInt(setting[1]); break;
+                    case "time": timeBudget = Long.parseLong(setting[1]); break;
+                    case "endgame": endgameEmpties = Integer.parseInt(setting[1]); break;
+                    case "eval": heuristic = heuristic(setting[1]); break;
+                    case "tt": tableMegabytes = Integer.parseInt(setting[1]); break;
+                    default: throw new IllegalArgumentException("Unknown engine setting: " + setting[0]);
+                }
+            }
+
+            return new Engine(gameMode, depth, timeBudget, endgameEmpties, heuristic, tableMegabytes);
+        }
+
+
+        /**
+         * @return The heuristic of a game mode, the pattern or inner disks heuristic, or the pattern heuristic of a weights file.
+         */
+        private static IEvaluate heuristic(String name) throws IOException
+        {
+            if (name.equals("patterns") && Evaluate.patternHeuristic != null) return Evaluate.patternHeuristic;
+            if (name.equals("innerDisks")) return Evaluate.innerDisksHeuristic;
+
+            for (GameMode mode : GameMode.values())
+            {
+                if (mode != GameMode.PVP && mode.name().equalsIgnoreCase(name)) return Evaluate.heuristicDic.get(mode);
+            }
+
+            try (InputStream input = Files.newInputStream(Path.of(name)))
+            {
+                return new PatternEvaluate(PatternEvaluate.read(input));
+            }
+        }
+
+
+        /**
+         * @return A new 'Model' instance for this engine (its table allocated once).
+         */
+        Model create()
+        {
+            Model model = new Model();
+            model.setTranspositionTableSize(tableMegabytes);
+            return model;
+        }
+
+
+        /**
+         * Sets up a 'Model' of this engine for a new game (clearing its table and move ordering).
+         */
+        void setUp(Model model)
+        {
+            model.init(gameMode);
+            model.setOpeningBook(null);
+            model.setSearchDepth(depth);
+            model.setTimeBudget(timeBudget);
+            model.setEndgameEmpties(endgameEmpties);
+            model.setHeuristic(heuristic);
+        }
+    }
+
+
+    /**
+     * Match score of engine A: its wins, draws and losses, and its pair scores (pentanomial).
+     */
+    private static class Score
+    {
+        /**
+         * Count standing in for an empty pentanomial entry.
+         */
+        private static final double EMPTY_COUNT = 1e-3;
+
+
+        private int wins;
+        private int draws;
+        private int losses;
+        private int pairs;
+
+
+        /**
+         * Pairs by their score in half points (0 - 4).
+         */
+        private final int[] pentanomial = new int[5];
+
+
+        /**
+         * Adds a pair's games (A's disc differential in each).
+         */
+        void add(int first, int second)
+        {
+            int halfPoints = halfPoints(first) + halfPoints(second);
+            pentanomial[halfPoints]++;
+            pairs++;
+        }
+
+
+        /**
+         * Counts a game, returning its score in half points (2 for a win).
+         */
+        private int halfPoints(int differential)
+        {
+            if (differential > 0)
+            {
+                wins++;
+                return 2;
+            }
+            if (differential < 0)
+            {
+                losses++;
+                return 0;
+            }
+            draws++;
+            return 1;
+        }
+
+
+        /**
+         * @return Pair counts, an empty one replaced by a tiny count (so a one-sided match still has a variance).
+         */
+        private double[] regularised()
+        {
+            double[] counts = new double[5];
+            for (int i = 0; i < 5; i++) counts[i] = pentanomial[i] == 0 ? EMPTY_COUNT : pentanomial[i];
+
+            return counts;
+        }
+
+
+        /**
+         * @return Mean pair score (0 - 1).
+         */
+        private double mean()
+        {
+            double[] counts = regularised();
+            double sum = 0;
+            double total = 0;
+
+            for (int i = 0; i < 5; i++)
+            {
+                sum += counts[i] * i / 4.0;
+                total += counts[i];
+            }
+
+            return sum / total;
+        }
+
+
+        /**
+         * @return Variance of a pair score (0 - 1 scale).
+         */
+        private double variance()
+        {
+            double[] counts = regularised();
+            double mean = mean();
+            double sum = 0;
+            double total = 0;
+
+            for (int i = 0; i < 5; i++)
+            {
+                sum += counts[i] * (i / 4.0 - mean) * (i / 4.0 - mean);
+                total += counts[i];
+            }
+
+            return sum / total;
+        }
+
+
+        /**
+         * Generalised SPRT log likelihood ratio of H1 (elo1) against H0 (elo0), by the normal approximation.
+         *
+         * @return double LLR (0 when there are no games yet).
+         */
+        double llr(double elo0, double elo1)
+        {
+            if (pairs == 0) return 0;
+
+            double variance = variance();
+            double score0 = expectedScore(elo0);
+            double score1 = expectedScore(elo1);
+
+            return pairs * (score1 - score0) * (2 * mean() - score0 - score1) / (2 * variance);
+        }
+
+
+        static double lowerBound()
+        {
+            return Math.log(BETA / (1 - ALPHA));
+        }
+
+
+        static double upperBound()
+        {
+            return Math.log((1 - BETA) / ALPHA);
+        }
+
+
+        /**
+         * @return Progress line: games, Elo with 95% error bars, LLR within its bounds.
+         */
+        String report(double elo0, double elo1)
+        {
+            double mean = mean();
+            double margin = 1.96 * Math.sqrt(variance() / pairs);
+
+            double elo = elo(mean);
+            double low = elo(mean - margin);
+            double high = elo(mean + margin);
+
+            return String.format("%d pairs | +%d =%d -%d | Elo %+.1f [%+.1f, %+.1f] | LLR %.2f (%.2f, %.2f)",
+                    pairs, wins, draws, losses, elo, low, high, llr(elo0, elo1), lowerBound(), upperBound());
+        }
+
+
+        /**
+         * @return Expected score (0 - 1) of an Elo difference.
+         */
+        private static double expectedScore(double elo)
+        {
+            return 1 / (1 + Math.pow(10, -elo / 400));
+        }
+
+
+        /**
+         * @return Elo difference of an expected score (infinite at 0 / 1).
+         */
+        private static double elo(double score)
+        {
+            score = Math.max(0, Math.min(1, score));
+            return -400 * Math.log10(1 / score - 1);
+        }
+    }
+}
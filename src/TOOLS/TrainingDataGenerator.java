@@ -0,0 +1,292 @@
+package TOOLS;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import BIT_MANAGEMENT.BitBoard;
+import INFORMATION_ENCAPSULATION.Move;
+import MVP.Enums.GameMode;
+import MVP.Enums.Player;
+import MVP.Model;
+import MVP.PatternEvaluate;
+import RECORDS.TrainingFile;
+import RECORDS.TrainingPosition;
+import SEARCH.EndgameSolver;
+import SEARCH.TranspositionTable;
+
+import static MVP.Enums.Player.*;
+
+
+/**
+ * <h1>Class type: 'TrainingDataGenerator'</h1>
+ *
+ * Generates labelled positions for learning the evaluation (see 'TrainingFile'): plays randomised
+ * self-play games on a 'Model' (a few random opening moves, then mostly shallow searches, with random
+ * moves mixed in), samples positions of every game, and labels each by a deeper search of the
+ * 'PatternEvaluate' heuristic - or, near the end of the game, by the 'EndgameSolver' exact result
+ * (its disc differential, in the heuristic's 1/16 disc units).
+ *
+ * Games are spread over threads (each with its own 'Model' and solver), and game <i>n</i> is always played
+ * with the random seed <i>n</i>. An existing output file is resumed from its next game, so an interrupted
+ * run is continued by running it again. Positions per second are reported as the file fills.
+ *
+ * Usage: <i>TrainingDataGenerator [output file] [positions] [threads] [label depth]</i>
+ * (<i>training.dat</i>, 1000000, a thread per core, 6 by default; the positions of a resumed file are its own).
+ *
+ * @author David Salasin
+ * @see TrainingFile
+ */
+public class TrainingDataGenerator
+{
+    /**
+     * Random opening moves of every game.
+     */
+    private static final int RANDOM_PLIES = 8;
+
+
+    /**
+     * Chance of a random move after the opening.
+     */
+    private static final double RANDOM_MOVE_RATE = 0.1;
+
+
+    /**
+     * Search depth of the played (not random) moves.
+     */
+    private static final int PLAY_DEPTH = 2;
+
+
+    /**
+     * Chance of a position being labelled.
+     */
+    private static final double SAMPLE_RATE = 0.25;
+
+
+    /**
+     * Empty slots from which positions are labelled by the solver.
+     */
+    private static final int SOLVE_EMPTIES = 14;
+
+
+    /**
+     * Seconds between progress reports.
+     */
+    private static final int REPORT_SECONDS = 5;
+
+
+    /**
+     * Transposition table size of every thread's 'Model' and solver (MB).
+     */
+    private static final int TABLE_MB = 16;
+
+
+    /**
+     * Maximum amount of moves (and so of labelled positions) in a game.
+     */
+    private static final int MAX_MOVES = 60;
+
+
+    // Starting pieces:
+    private static final long FIRST_BITS_BLACK = 0x0000000810000000L;
+    private static final long FIRST_BITS_WHITE = 0x0000001008000000L;
+
+
+    // Runs as main program.
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException
+    {
+        Path output = Path.of(args.length > 0 ? args[0] : "training.dat");
+        long positions = args.length > 1 ? Long.parseLong(args[1]) : 1_000_000;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        int labelDepth = args.length > 3 ? Integer.parseInt(args[3]) : 6;
+
+        PatternEvaluate heuristic = PatternEvaluate.load();
+
+        try (TrainingFile file = Files.exists(output) ? TrainingFile.resume(output) : TrainingFile.create(output, positions))
+        {
+            if (file.size() > 0)
+            {
+                System.out.printf("Resuming %s: %,d / %,d positions, from game %,d%n", output, file.size(),
+                        file.capacity(), file.nextGame());
+            }
+
+            AtomicLong games = new AtomicLong(file.nextGame());
+            long firstGame = games.get();
+            long firstSize = file.size();
+
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            List<Future<?>> workers = new ArrayList<>();
+            long start = System.nanoTime();
+
+            for (int thread = 0; thread < threads; thread++)
+            {
+                workers.add(executor.submit(() -> generate(file, games, heuristic, labelDepth)));
+            }
+
+            executor.shutdown();
+            while (!executor.awaitTermination(REPORT_SECONDS, TimeUnit.SECONDS))
+            {
+                report(file, games.get() - firstGame, firstSize, start);
+                file.force();
+            }
+
+            // Rethrows a failed thread's exception.
+            for (Future<?> worker : workers) worker.get();
+
+            report(file, games.get() - firstGame, firstSize, start);
+        }
+
+        System.out.printf("Positions written to %s (%,d bytes)%n", output, Files.size(output));
+    }
+
+
+    /**
+     * Plays games until the file is full, appending every game's labelled positions.
+     */
+    private static void generate(TrainingFile file, AtomicLong games, PatternEvaluate heuristic, int labelDepth)
+    {
+        Model model = new Model();
+        model.init(GameMode.HARDCORE);
+        model.setOpeningBook(null);
+        model.setHeuristic(heuristic);
+        model.setTranspositionTableSize(TABLE_MB);
+        model.setTimeBudget(0);
+        model.setEndgameEmpties(0);
+
+        EndgameSolver solver = new EndgameSolver();
+        solver.setTranspositionTable(new TranspositionTable(TABLE_MB));
+
+        TrainingPosition[] positions = new TrainingPosition[MAX_MOVES];
+        for (int i = 0; i < positions.length; i++) positions[i] = new TrainingPosition();
+
+        while (!file.isFull())
+        {
+            long game = games.getAndIncrement();
+            int count = playGame(model, solver, new Random(game), labelDepth, positions);
+
+            file.append(game, positions, count);
+        }
+    }
+
+
+    /**
+     * Plays a single game, labelling some of its positions (only those whose player to move has a move).
+     *
+     * @return The amount of labelled positions.
+     */
+    private static int playGame(Model model, EndgameSolver solver, Random random, int labelDepth,
+                                TrainingPosition[] positions)
+    {
+        BitBoard board = model.getBoard();
+        board.setColorBits(BLACK, FIRST_BITS_BLACK);
+        board.setColorBits(WHITE, FIRST_BITS_WHITE);
+
+        Player toMove = BLACK;
+        int count = 0;
+
+        for (int ply = 0; ; ply++)
+        {
+            long moves = model.availableMoves(toMove);
+
+            if (moves == 0L)
+            {
+                if (model.isOutOfMoves(Player.currentOpponent(toMove))) break;
+
+                toMove = Player.currentOpponent(toMove);
+                continue;
+            }
+
+            long blackBits = board.getColorBits(BLACK);
+            long whiteBits = board.getColorBits(WHITE);
+            int emptySlots = Long.bitCount(board.emptySlots());
+
+            Move labelled = null;
+
+            if (ply >= RANDOM_PLIES && random.nextDouble() < SAMPLE_RATE)
+            {
+                labelled = label(model, solver, toMove, emptySlots, labelDepth);
+
+                // A search reaching the end of the game scores a win without its disc differential.
+                if (labelled.depth > 0)
+                {
+                    positions[count++].set(blackBits, whiteBits, toMove, labelled.score,
+                            emptySlots <= SOLVE_EMPTIES ? TrainingPosition.SOLVED : TrainingPosition.SEARCHED,
+                            labelled.depth);
+                }
+            }
+
+            long position;
+
+            if (ply < RANDOM_PLIES || random.nextDouble() < RANDOM_MOVE_RATE)
+            {
+                for (int skip = random.nextInt(Long.bitCount(moves)); skip > 0; skip--) moves &= moves - 1;
+                position = Long.lowestOneBit(moves);
+            }
+            else if (labelled != null)
+            {
+                position = BitBoard.bitPosition(labelled);
+            }
+            else
+            {
+                model.setSearchDepth(PLAY_DEPTH);
+                position = BitBoard.bitPosition(model.mostEvaluatedPlay(toMove, 0));
+            }
+
+            model.playMove(toMove, position);
+            toMove = Player.currentOpponent(toMove);
+        }
+
+        return count;
+    }
+
+
+    /**
+     * Labels a position: solved exactly near the end of the game, else searched to the label depth.
+     *
+     * @return 'Move' of the position's best move and score (1/16 disc), its depth 0 for an unusable score.
+     */
+    private static Move label(Model model, EndgameSolver solver, Player toMove, int emptySlots, int labelDepth)
+    {
+        if (emptySlots <= SOLVE_EMPTIES)
+        {
+            BitBoard board = model.getBoard();
+            Move solved = new Move(0, 0);
+
+            solver.solveRoot(board.getColorBits(toMove), board.getColorBits(Player.currentOpponent(toMove)),
+                    false, solved);
+            solved.score *= PatternEvaluate.UNITS_PER_DISC;
+            solved.depth = emptySlots;
+
+            return solved;
+        }
+
+        model.setSearchDepth(labelDepth);
+        Move searched = model.mostEvaluatedPlay(toMove, 0);
+
+        if (Math.abs(searched.score) == Integer.MAX_VALUE) searched.depth = 0;
+        return searched;
+    }
+
+
+    /**
+     * Prints the file's progress, and the positions per second of this run.
+     */
+    private static void report(TrainingFile file, long games, long firstSize, long start)
+    {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long positions = file.size() - firstSize;
+
+        System.out.printf("%,d / %,d positions | %,d games, %,d positions (%,d duplicates) in %.1f s "
+                + "(%,.0f positions/s)%n", file.size(), file.capacity(), games, positions, file.duplicates(),
+                seconds, positions / seconds);
+    }
+}
@@ -0,0 +1,249 @@
+package TOOLS;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import MVP.EvaluateWeights;
+import MVP.PatternEvaluate;
+import RECORDS.TrainingFile;
+import RECORDS.TrainingPosition;
+
+import static MVP.EvaluateWeights.*;
+
+
+/**
+ * <h1>Class type: 'WeightTuner'</h1>
+ *
+ * Fits the weight vector of the 'Evaluate' heuristics (see 'EvaluateWeights') to a training data file
+ * of labelled positions (see 'TrainingDataGenerator'), every heuristic on its own, by gradient descent:
+ * - <b>squares</b>: least squares of the heuristic's score and the position's score.
+ * - <b>logistic</b>: least squares of the scores' win chances (a logistic curve of the score), so
+ *   decided positions weigh less than balanced ones.
+ *
+ * Every epoch streams the whole memory-mapped file, its positions split between the threads of a 'ForkJoinPool'
+ * (each task summing the gradient of its positions). Every weight's step is scaled by its own curvature
+ * (a diagonal Gauss-Newton step), as the features' ranges differ a lot.
+ *
+ * The fitted weights are in the labels' units (1/16 disc, see <u>PatternEvaluate.UNITS_PER_DISC</u>), and
+ * written as the resource 'Evaluate' loads at startup.
+ *
+ * Usage: <i>WeightTuner [training file] [epochs] [weights file] [squares / logistic] [threads]</i>
+ * (<i>training.dat</i>, 100, src/MVP/Resources/weights.bin, squares, a thread per core by default).
+ *
+ * @author David Salasin
+ * @see EvaluateWeights
+ */
+public class WeightTuner
+{
+    /**
+     * Positions summed by a single task (larger ranges are split).
+     */
+    private static final int TASK_POSITIONS = 1 << 14;
+
+
+    /**
+     * Score of a position won about 3 times out of 4 (by the logistic loss), in the labels' units.
+     */
+    private static final double LOGISTIC_SCALE = 10.0 * PatternEvaluate.UNITS_PER_DISC;
+
+
+    /**
+     * Fraction of a weight's Gauss-Newton step taken per epoch (below 2 / <u>HEURISTIC_WEIGHTS</u>,
+     * as a heuristic's features are correlated).
+     */
+    private static final double LEARNING_RATE = 0.5;
+
+
+    /**
+     * Epochs between progress reports.
+     */
+    private static final int REPORT_EPOCHS = 10;
+
+
+    // Sums of a task: every heuristic's loss, then every weight's gradient and curvature.
+    private static final int LOSS = 0;
+    private static final int GRADIENT = LOSS + HEURISTICS;
+    private static final int CURVATURE = GRADIENT + WEIGHTS;
+    private static final int SUMS = CURVATURE + WEIGHTS;
+
+
+    // Runs as main program.
+    public static void main(String[] args) throws IOException
+    {
+        Path input = Path.of(args.length > 0 ? args[0] : "training.dat");
+        int epochs = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        Path output = Path.of(args.length > 2 ? args[2] : "src/MVP/Resources/weights.bin");
+        boolean logistic = args.length > 3 && args[3].equals("logistic");
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        double[] weights = new double[WEIGHTS];
+
+        try (TrainingFile corpus = TrainingFile.open(input))
+        {
+            long positions = corpus.size();
+            if (positions == 0) throw new IllegalArgumentException("No positions in " + input);
+
+            long start = System.nanoTime();
+
+            System.out.printf("%,d positions of %s, %s loss, %d thread(s)%n", positions, input,
+                    logistic ? "logistic" : "squares", threads);
+
+            for (int epoch = 1; epoch <= epochs; epoch++)
+            {
+                double[] sums = pool.invoke(new GradientTask(corpus, weights, logistic, 0, positions));
+
+                for (int i = 0; i < WEIGHTS; i++)
+                {
+                    if (sums[CURVATURE + i] > 0) weights[i] -= LEARNING_RATE * sums[GRADIENT + i] / sums[CURVATURE + i];
+                }
+
+                if (epoch % REPORT_EPOCHS == 0 || epoch == epochs)
+                {
+                    double seconds = (System.nanoTime() - start) / 1e9;
+
+                    System.out.printf("Epoch %d: loss %s | %.1f s (%,.0f positions/s)%n", epoch, losses(sums, positions, logistic),
+                            seconds, epoch * positions / seconds);
+                }
+            }
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+
+        int[] fitted = new int[WEIGHTS];
+        for (int i = 0; i < WEIGHTS; i++) fitted[i] = (int) Math.round(weights[i]);
+
+        if (output.getParent() != null) Files.createDirectories(output.getParent());
+        try (OutputStream stream = Files.newOutputStream(output))
+        {
+            EvaluateWeights.write(stream, fitted);
+        }
+
+        System.out.printf("Weights %s written to %s%n", Arrays.toString(fitted), output);
+    }
+
+
+    /**
+     * @return Every heuristic's mean loss: the root mean square error (discs), or the logistic loss.
+     */
+    private static String losses(double[] sums, long positions, boolean logistic)
+    {
+        StringBuilder losses = new StringBuilder();
+
+        for (int heuristic = 0; heuristic < HEURISTICS; heuristic++)
+        {
+            double loss = sums[LOSS + heuristic] / positions;
+
+            if (losses.length() > 0) losses.append(" / ");
+            losses.append(logistic ? String.format("%.5f", loss)
+                    : String.format("%.2f", Math.sqrt(loss) / PatternEvaluate.UNITS_PER_DISC));
+        }
+
+        return losses.toString();
+    }
+
+
+    /**
+     * Sums the loss, gradient and curvature of a range of positions.
+     */
+    private static class GradientTask extends RecursiveTask<double[]>
+    {
+        private static final long serialVersionUID = 1L;
+
+
+        private final TrainingFile corpus;
+        private final double[] weights;
+        private final boolean logistic;
+        private final long from;
+        private final long to;
+
+
+        GradientTask(TrainingFile corpus, double[] weights, boolean logistic, long from, long to)
+        {
+            this.corpus = corpus;
+            this.weights = weights;
+            this.logistic = logistic;
+            this.from = from;
+            this.to = to;
+        }
+
+
+        @Override
+        protected double[] compute()
+        {
+            if (to - from > TASK_POSITIONS)
+            {
+                long middle = (from + to) >>> 1;
+
+                GradientTask second = new GradientTask(corpus, weights, logistic, middle, to);
+                second.fork();
+
+                double[] sums = new GradientTask(corpus, weights, logistic, from, middle).compute();
+                double[] secondSums = second.join();
+
+                for (int i = 0; i < SUMS; i++) sums[i] += secondSums[i];
+                return sums;
+            }
+
+            double[] sums = new double[SUMS];
+            int[] features = new int[WEIGHTS];
+            TrainingPosition position = new TrainingPosition();
+
+            for (long index = from; index < to; index++)
+            {
+                corpus.read(index, position);
+                EvaluateWeights.features(position.playerBits(), position.opponentBits(), features);
+
+                for (int heuristic = 0; heuristic < HEURISTICS; heuristic++)
+                {
+                    int first = heuristic * HEURISTIC_WEIGHTS;
+
+                    double score = 0;
+                    for (int i = first; i < first + HEURISTIC_WEIGHTS; i++) score += weights[i] * features[i];
+
+                    // Residual, and its derivative by the score.
+                    double residual;
+                    double slope;
+
+                    if (logistic)
+                    {
+                        double chance = winChance(score);
+                        residual = chance - winChance(position.score);
+                        slope = chance * (1 - chance) / LOGISTIC_SCALE;
+                    }
+                    else
+                    {
+                        residual = score - position.score;
+                        slope = 1;
+                    }
+
+                    sums[LOSS + heuristic] += residual * residual;
+
+                    for (int i = first; i < first + HEURISTIC_WEIGHTS; i++)
+                    {
+                        sums[GRADIENT + i] += residual * slope * features[i];
+                        sums[CURVATURE + i] += slope * slope * features[i] * features[i];
+                    }
+                }
+            }
+
+            return sums;
+        }
+
+
+        /**
+         * @return The win chance of a score (logistic curve).
+         */
+        private static double winChance(double score)
+        {
+            return 1 / (1 + Math.exp(-score / LOGISTIC_SCALE));
+        }
+    }
+}